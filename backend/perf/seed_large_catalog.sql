@@ -0,0 +1,130 @@
+-- Seeds a catalog of production scale for load tests: artists, songs, albums, users,
+-- playlists and favourites, with millions of rows and a Zipfian popularity skew.
+--
+-- Meant to be run once against a database migrated by Flyway:
+--
+--     psql -h localhost -U postgres -d freakify -f perf/seed_large_catalog.sql
+--
+-- The sizes and the random seed can be changed with psql variables, for example
+-- -v songs=5000000 -v seed=0.42; the same seed and sizes always produce the same catalog.
+-- The generated rows get IDs from id_base + 1, above the rows of V1, and the sequences are
+-- moved past them. Every generated user can log in as userN@load.test with the password loadtest1.
+--
+-- Popularity follows Zipf's law with an exponent of 1: the entity of rank k, the one with
+-- the ID id_base + k, is picked with a probability proportional to 1/k. Songs are picked this way
+-- for playlists and favourites, artists for songs and albums, users for playlists.
+-- CatalogLoadTest draws the IDs it requests with the same skew.
+\timing on
+\set ON_ERROR_STOP on
+
+\if :{?seed}
+\else
+\set seed 0.5
+\endif
+\if :{?id_base}
+\else
+\set id_base 1000000
+\endif
+\if :{?artists}
+\else
+\set artists 100000
+\endif
+\if :{?songs}
+\else
+\set songs 2000000
+\endif
+\if :{?albums}
+\else
+\set albums 200000
+\endif
+\if :{?album_tracks}
+\else
+\set album_tracks 12
+\endif
+\if :{?users}
+\else
+\set users 100000
+\endif
+\if :{?playlists}
+\else
+\set playlists 300000
+\endif
+\if :{?playlist_tracks}
+\else
+\set playlist_tracks 20
+\endif
+\if :{?favourites}
+\else
+\set favourites 30
+\endif
+
+BEGIN;
+
+-- Random numbers are drawn in row order, which a parallel plan would not keep
+SET LOCAL max_parallel_workers_per_gather = 0;
+SELECT setseed(:seed);
+
+-- Rank from 1 to n drawn with a probability proportional to 1/rank
+CREATE FUNCTION pg_temp.zipf(n bigint) RETURNS bigint LANGUAGE sql VOLATILE AS
+$$ SELECT least(n, floor(exp(random() * ln(n + 1))))::bigint $$;
+
+-- The generated songs reuse the genres and the audio files of the songs of V1
+SELECT coalesce(array_agg(jenre_id ORDER BY jenre_id), '{}')::text AS genres FROM jenre \gset
+SELECT coalesce(array_agg(song_url ORDER BY song_id), '{}')::text AS song_urls FROM song WHERE song_url IS NOT NULL \gset
+
+INSERT INTO artist (artist_id, nickname)
+SELECT :id_base + i, 'Artist ' || i
+FROM generate_series(1, :artists) AS i;
+
+-- Names are built from a small vocabulary so that searches match a realistic share of rows
+INSERT INTO song (song_id, song_name, song_url, artist_id, jenre_id)
+SELECT :id_base + i,
+       (ARRAY['Black', 'Ice', 'Dance', 'Тает', 'Чёрный', 'Gucci', 'Монетка', 'Feel'])[1 + i % 8]
+           || ' ' || substr(md5(i::text), 1, 8)
+           || ' ' || (ARRAY['Remix', 'Version', 'Лёд', 'Бумер', 'Good', 'Mix'])[1 + (i / 8) % 6],
+       (:'song_urls'::text[])[1 + i % nullif(cardinality(:'song_urls'::text[]), 0)],
+       :id_base + pg_temp.zipf(:artists),
+       (:'genres'::int[])[1 + floor(random() * cardinality(:'genres'::int[]))::int]
+FROM generate_series(1, :songs) AS i;
+
+INSERT INTO album (album_id, name, album_creator, creation_date)
+SELECT :id_base + i, 'Album ' || i, :id_base + pg_temp.zipf(:artists), now() - random() * interval '10 years'
+FROM generate_series(1, :albums) AS i;
+
+INSERT INTO album_songs (album_id, song_id)
+SELECT :id_base + a, :id_base + 1 + floor(random() * :songs)::int
+FROM generate_series(1, :albums) AS a, generate_series(1, :album_tracks) AS t
+ON CONFLICT DO NOTHING;
+
+INSERT INTO person (person_id, person_nickname, person_email)
+SELECT :id_base + i, 'user' || i, 'user' || i || '@load.test'
+FROM generate_series(1, :users) AS i;
+
+-- BCrypt hash of loadtest1
+INSERT INTO users_password (person_id, password)
+SELECT :id_base + i, '$2a$10$M/FdrLoYlHHT1i3Ynrb5B.9R3KnWdAZlDeORG4oRMljj5KfiOB3SG'
+FROM generate_series(1, :users) AS i;
+
+INSERT INTO playlist (playlist_id, creator_id, playlist_name, creation_date, update_time)
+SELECT :id_base + i, :id_base + pg_temp.zipf(:users), 'Playlist ' || i, created, created
+FROM (SELECT i, now() - random() * interval '3 years' AS created FROM generate_series(1, :playlists) AS i) AS generated;
+
+INSERT INTO playlist_songs (playlist_id, song_id)
+SELECT :id_base + p, :id_base + pg_temp.zipf(:songs)
+FROM generate_series(1, :playlists) AS p, generate_series(1, :playlist_tracks) AS t
+ON CONFLICT DO NOTHING;
+
+INSERT INTO person_favourite_song (person_id, song_id)
+SELECT :id_base + u, :id_base + pg_temp.zipf(:songs)
+FROM generate_series(1, :users) AS u, generate_series(1, :favourites) AS f
+ON CONFLICT DO NOTHING;
+
+SELECT setval('artist_id_seq', (SELECT max(artist_id) FROM artist));
+SELECT setval('song_id_seq', (SELECT max(song_id) FROM song));
+SELECT setval('album_id_seq', (SELECT max(album_id) FROM album));
+SELECT setval('person_id_seq', (SELECT max(person_id) FROM person));
+SELECT setval('playlist_id_seq', (SELECT max(playlist_id) FROM playlist));
+
+COMMIT;
+
+ANALYZE;
@@ -0,0 +1,48 @@
+-- Benchmark of the catalog substring search before and after the trigram indexes of V6.
+--
+-- Seeds a million songs into a scratch schema, so it can be run against any database
+-- with the pg_trgm extension available, and prints the plans and timings of the
+-- song search queries used by SongRepository without and with the index:
+--
+--     psql -h localhost -U postgres -d freakify -f perf/trigram_search.sql
+--
+-- The schema is dropped at the end.
+\timing on
+\set ON_ERROR_STOP on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP SCHEMA IF EXISTS trgm_bench CASCADE;
+CREATE SCHEMA trgm_bench;
+SET search_path = trgm_bench, public;
+
+CREATE TABLE song (
+  song_id int PRIMARY KEY,
+  song_name text
+);
+
+-- Names are built from a small vocabulary so that searches match a realistic share of rows
+INSERT INTO song (song_id, song_name)
+SELECT i,
+       (ARRAY['Black', 'Ice', 'Dance', 'Тает', 'Чёрный', 'Gucci', 'Монетка', 'Feel'])[1 + i % 8]
+           || ' ' || substr(md5(i::text), 1, 8)
+           || ' ' || (ARRAY['Remix', 'Version', 'Лёд', 'Бумер', 'Good', 'Mix'])[1 + (i / 8) % 6]
+FROM generate_series(1, 1000000) AS i;
+ANALYZE song;
+
+\echo '--- without index: selective pattern'
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM song WHERE song_name ilike '%' || 'a1b2' || '%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM song WHERE song_name ilike '%' || 'a1b2' || '%' LIMIT 20 OFFSET 0;
+\echo '--- without index: frequent pattern'
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM song WHERE song_name ilike '%' || 'бумер' || '%';
+
+CREATE INDEX song_name_trgm_idx ON song USING gin (song_name gin_trgm_ops);
+ANALYZE song;
+
+\echo '--- with index: selective pattern'
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM song WHERE song_name ilike '%' || 'a1b2' || '%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM song WHERE song_name ilike '%' || 'a1b2' || '%' LIMIT 20 OFFSET 0;
+\echo '--- with index: frequent pattern'
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM song WHERE song_name ilike '%' || 'бумер' || '%';
+
+RESET search_path;
+DROP SCHEMA trgm_bench CASCADE;
@@ -0,0 +1,259 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the main user journeys against a running server whose database was seeded
+ * with {@code perf/seed_large_catalog.sql}.
+ * <p>
+ * Every virtual user logs in as one of the seeded users and creates a playlist of its own. Then it sends
+ * a weighted mix of requests without pause until the end of the test: searches, album pages, favourites,
+ * changes of its playlist and the first bytes of MP3 streams. Songs, albums, artists and users are drawn with
+ * the Zipfian skew of the seed, so the popular ones are requested more often. The requests of the warm-up are
+ * not measured. At the end, the throughput and the p50/p99 latency of each kind of request are printed.
+ * <p>
+ * Arguments are given as {@code key=value}: {@code url} (http://localhost:8080), {@code users} (200),
+ * {@code duration} and {@code warmup} in seconds (60 and 10), {@code seed} (42), and the sizes of the seeded
+ * catalog, which default to those of the seed script: {@code id-base} (1000000), {@code songs} (2000000),
+ * {@code albums} (200000) and {@code people} (100000).
+ */
+public final class CatalogLoadTest {
+
+    private static final String PASSWORD = "loadtest1";
+    private static final List<String> SEARCH_WORDS = List.of("black", "ice", "dance", "тает", "gucci", "remix", "бумер", "feel");
+    private static final String STREAM_RANGE = "bytes=0-65535";
+
+    /**
+     * Kinds of requests, with their share of the mix.
+     */
+    private enum Kind {
+        SEARCH(30), ALBUM_PAGE(20), FAVOURITES(15), PLAYLIST_EDIT(10), STREAM(25);
+
+        private final int weight;
+
+        Kind(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final URI base;
+    private final long idBase;
+    private final long songs;
+    private final long albums;
+    private final long people;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Kind, Samples> samples = new EnumMap<>(Kind.class);
+    private final AtomicLong failedLogins = new AtomicLong();
+    private volatile boolean measuring;
+
+    private CatalogLoadTest(Map<String, String> arguments) {
+        base = URI.create(arguments.getOrDefault("url", "http://localhost:8080"));
+        idBase = Long.parseLong(arguments.getOrDefault("id-base", "1000000"));
+        songs = Long.parseLong(arguments.getOrDefault("songs", "2000000"));
+        albums = Long.parseLong(arguments.getOrDefault("albums", "200000"));
+        people = Long.parseLong(arguments.getOrDefault("people", "100000"));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Kind kind : Kind.values()) {
+            samples.put(kind, new Samples());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int users = Integer.parseInt(arguments.getOrDefault("users", "200"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(arguments.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(arguments.getOrDefault("duration", "60")));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "42"));
+
+        CatalogLoadTest test = new CatalogLoadTest(arguments);
+        long end = System.nanoTime() + warmup.plus(duration).toNanos();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                long person = user % test.people + 1;
+                SplittableRandom random = seeds.split();
+                executor.submit(() -> {
+                    test.run(person, random, end);
+                    return null;
+                });
+            }
+            Thread.sleep(warmup);
+            test.measuring = true;
+        }
+        test.report(duration, users);
+    }
+
+    /**
+     * Logs in as the seeded user of the given rank, creates a playlist and sends requests until the end.
+     */
+    private void run(long person, SplittableRandom random, long end) throws InterruptedException {
+        String token;
+        long playlistId;
+        try {
+            token = login(person);
+            playlistId = createPlaylist(token, "load " + person);
+        } catch (IOException e) {
+            failedLogins.incrementAndGet();
+            return;
+        }
+        while (System.nanoTime() < end) {
+            Kind kind = pick(random);
+            HttpRequest request = switch (kind) {
+                case SEARCH -> get("/songs?limit=20&name=" + encode(SEARCH_WORDS.get(random.nextInt(SEARCH_WORDS.size()))))
+                        .build();
+                case ALBUM_PAGE -> get("/albums/" + (idBase + zipf(random, albums)) + "/full").build();
+                case FAVOURITES -> get("/songs/user/" + (idBase + zipf(random, people))).build();
+                case PLAYLIST_EDIT -> HttpRequest.newBuilder(base.resolve("/playlists/" + playlistId + "/songs"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"add\":[" + (idBase + zipf(random, songs))
+                                + "," + (idBase + zipf(random, songs)) + "],\"remove\":[" + (idBase + zipf(random, songs)) + "]}"))
+                        .build();
+                case STREAM -> get("/songs/" + (idBase + zipf(random, songs))).header("Range", STREAM_RANGE).build();
+            };
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+            } catch (IOException e) {
+                ok = false;
+            }
+            if (measuring) {
+                samples.get(kind).add(System.nanoTime() - start, ok);
+            }
+        }
+    }
+
+    private String login(long person) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/auth/authentication?personEmail="
+                        + encode("user" + person + "@load.test") + "&password=" + PASSWORD))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return readJson(request).get("token").asText();
+    }
+
+    private long createPlaylist(String token, String name) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/playlists?playlistName=" + encode(name)))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return readJson(request).get("playlist_id").asLong();
+    }
+
+    private JsonNode readJson(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.uri().getPath() + " responded with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET();
+    }
+
+    private static Kind pick(SplittableRandom random) {
+        int total = Arrays.stream(Kind.values()).mapToInt(kind -> kind.weight).sum();
+        int value = random.nextInt(total);
+        for (Kind kind : Kind.values()) {
+            value -= kind.weight;
+            if (value < 0) {
+                return kind;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Draws a rank from 1 to n with a probability proportional to 1/rank, like {@code pg_temp.zipf} of the seed script.
+     */
+    private static long zipf(SplittableRandom random, long n) {
+        return Math.min(n, (long) Math.floor(Math.exp(random.nextDouble() * Math.log(n + 1))));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void report(Duration duration, int users) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%d users, %d failed to log in, %.0f s measured%n", users, failedLogins.get(), seconds);
+        System.out.printf("%-14s %10s %8s %10s %10s %10s%n", "request", "count", "errors", "req/s", "p50 ms", "p99 ms");
+        long total = 0;
+        for (Kind kind : Kind.values()) {
+            long[] latencies = samples.get(kind).sorted();
+            total += latencies.length;
+            System.out.printf("%-14s %10d %8d %10.1f %10.2f %10.2f%n", kind.name().toLowerCase(), latencies.length,
+                    samples.get(kind).errors(), latencies.length / seconds,
+                    millis(percentile(latencies, 0.5)), millis(percentile(latencies, 0.99)));
+        }
+        System.out.printf("%-14s %10d %8s %10.1f%n", "total", total, "", total / seconds);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted.length == 0 ? 0 : sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Latencies of one kind of request.
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long latency, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.benchmark;
+
+import com.example.dto.album.AlbumResponseDto;
+import com.example.dto.artist.ArtistResponseDto;
+import com.example.dto.playlist.PlaylistResponseDto;
+import com.example.dto.song.SongResponseDto;
+import com.example.dto.song.SongSearchResponseDto;
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Playlist;
+import com.example.model.entity.Song;
+import com.example.service.AlbumService;
+import com.example.service.ArtistService;
+import com.example.service.PlaylistService;
+import com.example.service.SongService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Time to turn a page of entities into the response the controllers return: mapping them to DTOs
+ * the way the services do, and serializing a page of songs to JSON with the Jackson defaults of Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogMappingBenchmark {
+
+    /**
+     * Number of entities of the page; 1000 is the default limit of the search endpoints.
+     */
+    @Param({"1000"})
+    public int limit;
+
+    private List<Song> songs;
+    private List<Album> albums;
+    private List<Artist> artists;
+    private List<Playlist> playlists;
+    private SongSearchResponseDto songPage;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        songs = IntStream.range(0, limit)
+                .mapToObj(i -> new Song(i, "Song " + i, "Artist " + i % 50, "Genre " + i % 10, "song" + i + ".mp3"))
+                .toList();
+        albums = IntStream.range(0, limit).mapToObj(i -> new Album(i, "Album " + i, "Artist " + i % 50, now)).toList();
+        artists = IntStream.range(0, limit).mapToObj(i -> new Artist(i, "Artist " + i)).toList();
+        playlists = IntStream.range(0, limit)
+                .mapToObj(i -> new Playlist((long) i, "Playlist " + i, "User " + i % 100, now, now))
+                .toList();
+        songPage = new SongSearchResponseDto(mapSongs(), limit * 10, 1, 10, "MTAwMA");
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<SongResponseDto> mapSongs() {
+        return songs.stream().map(SongService::mapToDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AlbumResponseDto> mapAlbums() {
+        return albums.stream().map(AlbumService::mapToDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ArtistResponseDto> mapArtists() {
+        return artists.stream().map(ArtistService::mapToDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PlaylistResponseDto> mapPlaylists() {
+        return playlists.stream().map(PlaylistService::mapToDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeSongPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(songPage);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Song;
+import com.example.repository.AlbumSongs;
+import com.example.snapshot.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the reads served by a {@link CatalogSnapshot} of a synthetic catalog shaped like the one of
+ * {@code perf/seed_large_catalog.sql}: one artist per 20 songs, one album per 10 songs with 10 songs each,
+ * and names and URLs of the length of the seeded ones. IDs start at one million with gaps, as in the seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CatalogSnapshotBenchmark {
+
+    private static final int ID_BASE = 1_000_000;
+
+    @Param({"1000000"})
+    public int songs;
+
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        snapshot = synthetic(songs, 42);
+    }
+
+    @Benchmark
+    public Optional<Song> findSongById() {
+        return snapshot.songs().findById(songId(songs));
+    }
+
+    @Benchmark
+    public List<Song> findSongsByArtistId() {
+        return snapshot.findSongsByArtistId(ID_BASE + ThreadLocalRandom.current().nextInt(songs / 20));
+    }
+
+    @Benchmark
+    public Optional<AlbumSongs> findAlbumWithSongs() {
+        return snapshot.findAlbumWithSongs(ID_BASE + ThreadLocalRandom.current().nextInt(songs / 10));
+    }
+
+    @Benchmark
+    public List<Song> findSongsPage() {
+        return snapshot.songs().findAllAfter(songId(songs), 20);
+    }
+
+    @Benchmark
+    public List<Album> findAlbumsPage() {
+        return snapshot.albums().findAll(ThreadLocalRandom.current().nextInt(songs / 10), 20);
+    }
+
+    private static long songId(int songs) {
+        // Every third ID is missing, so a third of the lookups miss
+        return ID_BASE + ThreadLocalRandom.current().nextInt(songs + songs / 2);
+    }
+
+    /**
+     * Builds a synthetic catalog.
+     *
+     * @param songs the number of songs
+     * @param seed  the seed of the random names
+     * @return the snapshot of the catalog
+     */
+    static CatalogSnapshot synthetic(int songs, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        for (int genreId = 1; genreId <= 30; genreId++) {
+            builder.addGenre(genreId, "Genre " + genreId);
+        }
+        int artists = Math.max(1, songs / 20);
+        for (int artist = 0; artist < artists; artist++) {
+            builder.addArtist(ID_BASE + artist, "Artist " + Integer.toString(random.nextInt(1 << 30), 36));
+        }
+        int songId = ID_BASE;
+        int[] songIds = new int[songs];
+        for (int song = 0; song < songs; song++) {
+            songId += song % 2 == 0 ? 1 : 2;
+            songIds[song] = songId;
+            String name = "Song " + Integer.toString(random.nextInt(1 << 30), 36);
+            builder.addSong(songId, name, "seed/" + songId + ".mp3", ID_BASE + random.nextInt(artists),
+                    1 + random.nextInt(30));
+        }
+        int albums = Math.max(1, songs / 10);
+        LocalDateTime date = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int album = 0; album < albums; album++) {
+            builder.addAlbum(ID_BASE + album, "Album " + Integer.toString(random.nextInt(1 << 30), 36),
+                    ID_BASE + random.nextInt(artists), date.plusMinutes(album));
+        }
+        for (int album = 0; album < albums; album++) {
+            for (int track = 0; track < 10; track++) {
+                builder.addAlbumSong(ID_BASE + album, songIds[random.nextInt(songs)]);
+            }
+        }
+        return builder.build();
+    }
+}
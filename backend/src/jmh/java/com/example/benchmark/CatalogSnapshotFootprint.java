@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import com.example.snapshot.CatalogSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Measures the heap held by a {@link CatalogSnapshot} of the synthetic catalog of {@link CatalogSnapshotBenchmark},
+ * and the time taken to build it. The heap is measured after a full collection, before and after the snapshot is built,
+ * and compared with the estimate of {@link CatalogSnapshot#estimateBytes()}.
+ * <p>
+ * The only argument is the list of catalog sizes in songs, separated by commas (1000000,2000000).
+ * Run with a heap large enough for the largest size, for example {@code -Xmx4g}.
+ */
+public final class CatalogSnapshotFootprint {
+
+    private CatalogSnapshotFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] sizes = Arrays.stream((args.length > 0 ? args[0] : "1000000,2000000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        System.out.printf("%10s %12s %12s %14s %10s%n", "songs", "heap MB", "estimate MB", "bytes / song", "build ms");
+        for (int songs : sizes) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            CatalogSnapshot snapshot = CatalogSnapshotBenchmark.synthetic(songs, 42);
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            long used = usedHeap() - before;
+            System.out.printf("%10d %12.1f %12.1f %14d %10d%n", songs, used / 1048576.0,
+                    snapshot.estimateBytes() / 1048576.0, used / songs, buildMillis);
+            // Keeps the snapshot reachable until the heap is measured
+            if (snapshot.songs().size() != songs) {
+                throw new IllegalStateException("Unexpected number of songs: " + snapshot.songs().size());
+            }
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test counting how many MP3 streams a running server serves at the same time.
+ * <p>
+ * Opens the given number of connections at once. Each one downloads the same song and reads it slowly,
+ * the way a player buffers ahead, so the server keeps writing to every connection for the whole test.
+ * With the default Tomcat pool of 200 platform threads, the streams beyond the pool wait for a thread
+ * before their first byte. With {@code VIRTUAL_THREADS_ENABLED=true}, every stream gets a thread of its own.
+ * The song should be larger than what the socket buffers hold, a few megabytes, so that a stream
+ * really holds its thread until it is read.
+ * <p>
+ * Arguments: the URL of the song, the number of streams (1000), the bytes read per second by
+ * each stream (65536) and the duration of the test in seconds (30).
+ */
+public final class ConcurrentStreamsLoadTest {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int RECEIVE_BUFFER_SIZE = 16384;
+
+    private final URI uri;
+    private final Duration chunkInterval;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger starved = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Queue<Long> firstByteNanos = new ConcurrentLinkedQueue<>();
+
+    private ConcurrentStreamsLoadTest(URI uri, int bytesPerSecond) {
+        this.uri = uri;
+        this.chunkInterval = Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) * CHUNK_SIZE / bytesPerSecond);
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int streams = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int bytesPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 65536;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        ConcurrentStreamsLoadTest test = new ConcurrentStreamsLoadTest(uri, bytesPerSecond);
+        Instant deadline = Instant.now().plus(duration);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < streams; i++) {
+                executor.submit(() -> {
+                    test.stream(deadline);
+                    return null;
+                });
+            }
+        }
+        test.report(streams);
+    }
+
+    /**
+     * Downloads the song until the deadline or its end, reading one chunk per interval.
+     */
+    private void stream(Instant deadline) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean started = false;
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(RECEIVE_BUFFER_SIZE);
+            socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort()));
+            socket.setSoTimeout((int) Math.max(1, Duration.between(Instant.now(), deadline).toMillis()));
+            OutputStream out = socket.getOutputStream();
+            out.write(request().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int read = in.readNBytes(chunk, 0, 12);
+            String status = new String(chunk, 0, read, StandardCharsets.US_ASCII);
+            if (read < 12 || !status.startsWith("HTTP/1.") || status.charAt(9) != '2') {
+                failed.incrementAndGet();
+                return;
+            }
+            started = true;
+            firstByteNanos.add(System.nanoTime() - start);
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                while (Instant.now().isBefore(deadline) && in.read(chunk) >= 0) {
+                    Thread.sleep(chunkInterval);
+                }
+            } finally {
+                active.decrementAndGet();
+            }
+        } catch (SocketTimeoutException e) {
+            if (!started) {
+                starved.incrementAndGet();
+            }
+        } catch (IOException e) {
+            failed.incrementAndGet();
+        }
+    }
+
+    private String request() {
+        String target = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+        return "GET " + target + " HTTP/1.1\r\nHost: " + uri.getAuthority() + "\r\nConnection: close\r\n\r\n";
+    }
+
+    private void report(int streams) {
+        long[] firstBytes = firstByteNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("streams: %d, served: %d, starved: %d, failed: %d%n",
+                streams, firstBytes.length, starved.get(), failed.get());
+        System.out.printf("max concurrent streams: %d%n", maxActive.get());
+        if (firstBytes.length > 0) {
+            System.out.printf("time to first byte: p50 %d ms, p99 %d ms, max %d ms%n",
+                    millis(percentile(firstBytes, 0.5)), millis(percentile(firstBytes, 0.99)),
+                    millis(firstBytes[firstBytes.length - 1]));
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
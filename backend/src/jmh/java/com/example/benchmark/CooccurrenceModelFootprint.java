@@ -0,0 +1,79 @@
+package com.example.benchmark;
+
+import com.example.recommendation.Baskets;
+import com.example.recommendation.CooccurrenceModel;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the time taken by a full build of a {@link CooccurrenceModel} and the heap it holds, for baskets shaped
+ * like the playlists and favourites of {@code perf/seed_large_catalog.sql}: 300 000 playlists of 20 songs and
+ * 100 000 users with 30 favourites, drawn from 2 000 000 songs with the same Zipfian skew.
+ * <p>
+ * The only argument is the list of parallelisms to build with, separated by commas (1,4).
+ * Run with a heap of a few gigabytes, for example {@code -Xmx4g}.
+ */
+public final class CooccurrenceModelFootprint {
+
+    private static final int ID_BASE = 1_000_000;
+    private static final int SONGS = 2_000_000;
+
+    private CooccurrenceModelFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] parallelisms = Arrays.stream((args.length > 0 ? args[0] : "1," + Runtime.getRuntime().availableProcessors())
+                        .split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Baskets baskets = synthetic(42);
+        System.out.printf("%12s %10s %12s %12s %14s%n", "parallelism", "songs", "heap MB", "estimate MB", "build ms");
+        for (int parallelism : parallelisms) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            CooccurrenceModel model = CooccurrenceModel.build(baskets, 30, 10, 500, parallelism);
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            long used = usedHeap() - before;
+            System.out.printf("%12d %10d %12.1f %12.1f %14d%n", parallelism, model.songs(), used / 1048576.0,
+                    model.estimateBytes() / 1048576.0, buildMillis);
+        }
+    }
+
+    /**
+     * @param seed the seed of the random draws
+     * @return the playlists and favourites of the seeded catalog
+     */
+    static Baskets synthetic(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Baskets.Builder builder = Baskets.builder();
+        addBaskets(builder, random, 300_000, 20);
+        addBaskets(builder, random, 100_000, 30);
+        return builder.build();
+    }
+
+    private static void addBaskets(Baskets.Builder builder, SplittableRandom random, int baskets, int songs) {
+        for (int basket = 0; basket < baskets; basket++) {
+            for (int song = 0; song < songs; song++) {
+                builder.add(ID_BASE + zipf(random));
+            }
+            builder.next();
+        }
+    }
+
+    /**
+     * @return a rank from 1 to the number of songs, drawn as by {@code pg_temp.zipf} of the seed script
+     */
+    private static int zipf(SplittableRandom random) {
+        return (int) Math.min(SONGS, Math.floor(Math.exp(random.nextDouble() * Math.log(SONGS + 1.0))));
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.model.entity.User;
+import com.example.service.JwtService;
+import com.example.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of issuing a token on login and of checking already parsed claims against the user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+
+    private JwtUtils jwtUtils;
+    private JwtService jwtService;
+    private User user;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 0);
+        jwtService = new JwtService(jwtUtils);
+        user = new User();
+        user.setPersonId(42L);
+        user.setPersonEmail("listener@example.com");
+        claims = jwtUtils.extractAllClaims(jwtService.generateToken(user));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtils.isTokenValid(claims, user);
+    }
+}
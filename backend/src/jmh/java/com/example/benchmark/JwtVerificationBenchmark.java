@@ -0,0 +1,115 @@
+package com.example.benchmark;
+
+import com.example.filter.JwtAuthenticationFilter;
+import com.example.filter.JwtAuthenticationProperties;
+import com.example.model.entity.User;
+import com.example.service.DetailsService;
+import com.example.service.JwtService;
+import com.example.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of verifying the bearer token of a request.
+ * <p>
+ * {@code rebuildParser} is how tokens were verified before the key and parser were shared:
+ * the secret is decoded and a parser built for every token. The filter benchmarks run the whole
+ * {@link JwtAuthenticationFilter} in stateless mode, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+
+    /**
+     * Maximum number of verified tokens remembered; 0 verifies the signature of every request.
+     */
+    @Param({"0", "10000"})
+    public int verifiedTokenCacheSize;
+
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, verifiedTokenCacheSize);
+        User user = new User();
+        user.setPersonId(42L);
+        user.setPersonEmail("listener@example.com");
+        token = new JwtService(jwtUtils).generateToken(user);
+
+        JwtAuthenticationProperties properties = new JwtAuthenticationProperties();
+        properties.setMode(JwtAuthenticationProperties.Mode.STATELESS);
+        filter = new JwtAuthenticationFilter(jwtUtils, new ExistingUsers(), properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Claims rebuildParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtils.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/playlists");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Details service answering that every user exists, standing in for the cached database check.
+     */
+    private static class ExistingUsers extends DetailsService {
+
+        ExistingUsers() {
+            super(null);
+        }
+
+        @Override
+        public boolean isUserExists(String login) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.dto.song.SongSearchResponseDto;
+import com.example.model.entity.Song;
+import com.example.repository.Counted;
+import com.example.repository.SongRepository;
+import com.example.service.CatalogSearch;
+import com.example.service.CatalogSearchProperties;
+import com.example.service.SongService;
+import com.example.snapshot.CatalogSnapshots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of {@link SongService#getAllSongsByName} under contention, with the logs of the services written
+ * synchronously or through the asynchronous appender of {@code logback-spring.xml}, at DEBUG or INFO level.
+ * The repository returns a fixed page from memory, so the difference between the runs is the cost of logging.
+ * <p>
+ * A synchronous run at DEBUG level is the closest to the former INFO lines written on every call;
+ * an asynchronous run at INFO level is the default configuration. The logs are written to a temporary file
+ * so that they do not mix with the output of JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ServiceLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    @Param({"DEBUG", "INFO"})
+    public String level;
+
+    private Path logFile;
+    private LoggerContext loggerContext;
+    private SongService songService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("service-logging", ".log");
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(logFile.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> rootAppender = fileAppender;
+        if (appender.equals("async")) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setName("ASYNC_FILE");
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            rootAppender = asyncAppender;
+        }
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.WARN);
+        root.addAppender(rootAppender);
+        loggerContext.getLogger("com.example.service").setLevel(ch.qos.logback.classic.Level.toLevel(level));
+
+        List<Counted<Song>> page = IntStream.range(0, 20)
+                .mapToObj(i -> new Counted<>(new Song(i, "Black " + i, "Artist " + i % 5, "Rap", "song" + i + ".mp3"), 2000))
+                .toList();
+        SongRepository songRepository = (SongRepository) Proxy.newProxyInstance(SongRepository.class.getClassLoader(),
+                new Class<?>[]{SongRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByNameContainingWithCount")) {
+                        return page;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        songService = new SongService(songRepository, new CatalogSearch(new CatalogSearchProperties()), null,
+                CatalogSnapshots.disabled());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto getAllSongsByName() {
+        return songService.getAllSongsByName("black", 0, 20, null);
+    }
+}
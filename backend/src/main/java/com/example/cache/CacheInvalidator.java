@@ -0,0 +1,15 @@
+package com.example.cache;
+
+/**
+ * Drops the entries of a local cache that the changes made by any backend instance have made stale.
+ * Beans of this type are called by the {@link CatalogChangeListener} with each batch of changes,
+ * one after another, on the thread of the listener.
+ */
+@FunctionalInterface
+public interface CacheInvalidator {
+
+    /**
+     * @param changes the changes made to the database since the previous call
+     */
+    void invalidate(CatalogChanges changes);
+}
@@ -0,0 +1,22 @@
+package com.example.cache;
+
+/**
+ * Names of the caches used by {@link org.springframework.cache.annotation.Cacheable} service methods.
+ * Catalog search results are keyed by the search parameters (name, offset, limit, cursor).
+ */
+public final class CacheNames {
+
+    public static final String SONGS_BY_NAME = "songsByName";
+    public static final String ALBUMS_BY_NAME = "albumsByName";
+    public static final String ARTISTS_BY_NAME = "artistsByName";
+    public static final String PLAYLISTS_BY_NAME = "playlistsByName";
+
+    /**
+     * Whether a user with a given email exists, checked when authenticating by token.
+     * Keep its time-to-live short: it bounds how long a deleted user's tokens are still accepted.
+     */
+    public static final String USER_EXISTS = "userExists";
+
+    private CacheNames() {
+    }
+}
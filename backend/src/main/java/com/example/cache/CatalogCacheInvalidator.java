@@ -0,0 +1,53 @@
+package com.example.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clears the {@link org.springframework.cache.annotation.Cacheable} caches whose entries may hold rows of changed tables.
+ * The search caches are keyed by the search parameters and not by ID, so they are cleared as a whole.
+ */
+public class CatalogCacheInvalidator implements CacheInvalidator {
+
+    /**
+     * Caches holding rows of each table, including the names of the artists and genres shown with songs and albums.
+     */
+    private static final Map<String, List<String>> CACHES_BY_TABLE = Map.of(
+            "song", List.of(CacheNames.SONGS_BY_NAME),
+            "jenre", List.of(CacheNames.SONGS_BY_NAME),
+            "artist", List.of(CacheNames.SONGS_BY_NAME, CacheNames.ALBUMS_BY_NAME, CacheNames.ARTISTS_BY_NAME),
+            "album", List.of(CacheNames.ALBUMS_BY_NAME),
+            "playlist", List.of(CacheNames.PLAYLISTS_BY_NAME),
+            "playlist_songs", List.of(CacheNames.PLAYLISTS_BY_NAME),
+            "person", List.of(CacheNames.USER_EXISTS));
+
+    private final CacheManager cacheManager;
+
+    /**
+     * @param cacheManager the manager of the caches to clear
+     */
+    public CatalogCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void invalidate(CatalogChanges changes) {
+        Set<String> cacheNames = new LinkedHashSet<>();
+        if (changes.all()) {
+            cacheNames.addAll(cacheManager.getCacheNames());
+        } else {
+            changes.tables().keySet().forEach(table -> cacheNames.addAll(CACHES_BY_TABLE.getOrDefault(table, List.of())));
+        }
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.invalidate();
+            }
+        }
+    }
+}
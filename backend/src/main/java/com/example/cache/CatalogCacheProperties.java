@@ -0,0 +1,57 @@
+package com.example.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the catalog caches, bound from the {@code catalog.cache} properties.
+ * Every cache uses the default bounds unless it has its own entry under {@code catalog.cache.caches}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.cache")
+public class CatalogCacheProperties {
+
+    /**
+     * Bounds applied to caches without their own entry.
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * Bounds of individual caches, by cache name.
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    /**
+     * Returns the bounds of the given cache.
+     *
+     * @param cacheName the name of the cache
+     * @return the bounds configured for the cache, or the default ones
+     */
+    public Spec getSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    /**
+     * Size and lifetime bounds of a cache.
+     */
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * Maximum number of entries kept in the cache.
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * Time after which an entry expires, counted from when it was written.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces the payloads of {@code catalog_changes} notifications received within a batch window,
+ * so that a bulk edit sending many notifications invalidates each cache once.
+ * <p>
+ * A payload is the name of a table and the IDs of the changed rows, as in {@code song:12,15},
+ * or {@code song:*} when any row may have changed. Once a table has more changed IDs than the limit,
+ * they are dropped and the whole table is reported as changed. Not thread-safe.
+ */
+@Slf4j
+public class CatalogChangeBatch {
+
+    private static final String ALL_ROWS = "*";
+
+    private final int maximumIdsPerTable;
+    private final Map<String, Set<Long>> tables = new HashMap<>();
+
+    /**
+     * @param maximumIdsPerTable the number of IDs of a table beyond which the whole table is reported as changed
+     */
+    public CatalogChangeBatch(int maximumIdsPerTable) {
+        this.maximumIdsPerTable = maximumIdsPerTable;
+    }
+
+    /**
+     * Adds the changes of a notification. Malformed payloads are logged and ignored.
+     *
+     * @param payload the payload of the notification
+     */
+    public void add(String payload) {
+        int separator = payload == null ? -1 : payload.indexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed change notification: {}", payload);
+            return;
+        }
+        String table = payload.substring(0, separator);
+        String ids = payload.substring(separator + 1);
+        Set<Long> changed = tables.get(table);
+        if (changed != null && changed.isEmpty()) {
+            // The whole table has already changed
+            return;
+        }
+        if (ids.equals(ALL_ROWS)) {
+            tables.put(table, Set.of());
+            return;
+        }
+        Set<Long> parsed = new HashSet<>();
+        try {
+            for (String id : ids.split(",")) {
+                parsed.add(Long.parseLong(id));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed change notification: {}", payload);
+            return;
+        }
+        if (changed == null) {
+            changed = new HashSet<>();
+            tables.put(table, changed);
+        }
+        changed.addAll(parsed);
+        if (changed.size() > maximumIdsPerTable) {
+            tables.put(table, Set.of());
+        }
+    }
+
+    /**
+     * @return whether no change has been added since the batch was last drained
+     */
+    public boolean isEmpty() {
+        return tables.isEmpty();
+    }
+
+    /**
+     * Returns the changes added so far and empties the batch.
+     *
+     * @return the coalesced changes
+     */
+    public CatalogChanges drain() {
+        Map<String, Set<Long>> drained = new HashMap<>();
+        tables.forEach((table, ids) -> drained.put(table, Set.copyOf(ids)));
+        tables.clear();
+        return new CatalogChanges(false, Map.copyOf(drained));
+    }
+}
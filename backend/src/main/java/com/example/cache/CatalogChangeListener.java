@@ -0,0 +1,163 @@
+package com.example.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Listens to the {@code catalog_changes} notifications sent by the triggers of the database
+ * and passes them to the {@link CacheInvalidator}s, so that every instance drops what the
+ * changes made on any instance have made stale.
+ * <p>
+ * The listener holds its own connection, outside the connection pool, as a pooled connection
+ * would stop receiving notifications when returned to the pool. Notifications received within
+ * the batch window after the first one are coalesced into a single {@link CatalogChanges}.
+ * When the connection is lost, the listener connects again after a delay and reports every
+ * table as changed, since the notifications sent in between are lost.
+ */
+@Slf4j
+public class CatalogChangeListener implements AutoCloseable {
+
+    /**
+     * Channel the triggers notify.
+     */
+    public static final String CHANNEL = "catalog_changes";
+
+    private static final int IDLE_POLL_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final List<CacheInvalidator> invalidators;
+    private final CatalogChangeProperties properties;
+    private volatile boolean running;
+    private Thread thread;
+    private volatile Connection connection;
+
+    /**
+     * @param dataSource   the data source the listener connection is opened from, which must connect to the primary
+     * @param invalidators the invalidators of the local caches
+     * @param properties   the batching and reconnection settings
+     */
+    public CatalogChangeListener(DataSource dataSource, List<CacheInvalidator> invalidators,
+                                 CatalogChangeProperties properties) {
+        this.dataSource = dataSource;
+        this.invalidators = List.copyOf(invalidators);
+        this.properties = properties;
+    }
+
+    /**
+     * Starts listening once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "catalog-changes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection listening = dataSource.getConnection()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    log.info("Listening to {} again, invalidating all caches", CHANNEL);
+                    dispatch(CatalogChanges.ALL);
+                }
+                connectedBefore = true;
+                listen(listening.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Lost the connection listening to {}, connecting again in {}", CHANNEL,
+                            properties.getReconnectDelay(), e);
+                    sleep(properties.getReconnectDelay());
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void listen(PGConnection connection) throws SQLException {
+        CatalogChangeBatch batch = new CatalogChangeBatch(properties.getMaximumIdsPerTable());
+        long batchWindow = properties.getBatchWindow().toNanos();
+        long deadline = 0;
+        while (running) {
+            int timeout = batch.isEmpty() ? IDLE_POLL_MILLIS
+                    : (int) Math.max(1, (deadline - System.nanoTime()) / 1_000_000);
+            PGNotification[] notifications = connection.getNotifications(timeout);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    if (batch.isEmpty()) {
+                        deadline = System.nanoTime() + batchWindow;
+                    }
+                    batch.add(notification.getParameter());
+                }
+            }
+            if (!batch.isEmpty() && System.nanoTime() - deadline >= 0) {
+                dispatch(batch.drain());
+            }
+        }
+    }
+
+    /**
+     * Passes the changes to every invalidator. A failing invalidator does not prevent the others from running.
+     *
+     * @param changes the changes
+     */
+    void dispatch(CatalogChanges changes) {
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidating caches for changes to {}", changes.all() ? "all tables" : changes.tables().keySet());
+        }
+        for (CacheInvalidator invalidator : invalidators) {
+            try {
+                invalidator.invalidate(changes);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidator {} failed", invalidator, e);
+            }
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Stops listening and closes the listener connection.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        Connection listening = connection;
+        if (listening != null) {
+            try {
+                listening.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close the connection listening to {}", CHANNEL, e);
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the invalidation of the local caches by the changes made on other instances,
+ * bound from the {@code catalog.changes} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.changes")
+public class CatalogChangeProperties {
+
+    /**
+     * Whether the instance listens to the change notifications of the database.
+     * Only needed when several instances share the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Time during which notifications are gathered after the first one, before the caches are invalidated.
+     */
+    private Duration batchWindow = Duration.ofMillis(200);
+
+    /**
+     * Number of changed IDs of a table in a batch beyond which the whole table is reported as changed.
+     */
+    private int maximumIdsPerTable = 1000;
+
+    /**
+     * Time to wait before connecting again after the listener connection was lost.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
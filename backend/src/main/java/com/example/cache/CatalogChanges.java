@@ -0,0 +1,42 @@
+package com.example.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes to the database received from {@code catalog_changes} notifications, grouped by table.
+ *
+ * @param all    whether any row of any table may have changed, as after notifications were missed
+ * @param tables the IDs of the changed rows by table name; an empty set means that any row of the table may have changed
+ */
+public record CatalogChanges(boolean all, Map<String, Set<Long>> tables) {
+
+    /**
+     * Changes to every table.
+     */
+    public static final CatalogChanges ALL = new CatalogChanges(true, Map.of());
+
+    /**
+     * @param table the name of the table
+     * @return whether rows of the table have changed
+     */
+    public boolean touches(String table) {
+        return all || tables.containsKey(table);
+    }
+
+    /**
+     * @param table the name of the table
+     * @return the IDs of the changed rows of the table, empty if the table has not changed,
+     * or null if any row may have changed
+     */
+    public Set<Long> ids(String table) {
+        if (all) {
+            return null;
+        }
+        Set<Long> ids = tables.get(table);
+        if (ids == null) {
+            return Set.of();
+        }
+        return ids.isEmpty() ? null : ids;
+    }
+}
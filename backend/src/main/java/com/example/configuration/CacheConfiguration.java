@@ -0,0 +1,55 @@
+package com.example.configuration;
+
+import com.example.cache.CacheNames;
+import com.example.cache.CatalogCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration of the caches used by {@link org.springframework.cache.annotation.Cacheable} service methods.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogCacheProperties.class)
+public class CacheConfiguration {
+
+    private static final List<String> CACHE_NAMES = List.of(
+            CacheNames.SONGS_BY_NAME,
+            CacheNames.ALBUMS_BY_NAME,
+            CacheNames.ARTISTS_BY_NAME,
+            CacheNames.PLAYLISTS_BY_NAME,
+            CacheNames.USER_EXISTS);
+
+    /**
+     * Creates a Caffeine cache manager with one bounded cache per name in {@link CacheNames}.
+     * Caches that are not declared there are not created on demand, so a misspelled name fails fast.
+     * <p>
+     * Puts and evictions made inside a transaction are applied when it commits. An eviction applied before
+     * the commit would let a concurrent search load the rows not yet committed over, and cache them for the whole TTL.
+     *
+     * @param properties the cache bounds
+     * @return the configured {@link CacheManager}
+     */
+    @Bean
+    public CacheManager cacheManager(CatalogCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // An empty name list turns off the creation of caches on demand
+        cacheManager.setCacheNames(List.of());
+        for (String cacheName : CACHE_NAMES) {
+            CatalogCacheProperties.Spec spec = properties.getSpec(cacheName);
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getTtl())
+                    .recordStats()
+                    .build());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.configuration;
+
+import com.example.cache.CacheInvalidator;
+import com.example.cache.CatalogCacheInvalidator;
+import com.example.cache.CatalogChangeListener;
+import com.example.cache.CatalogChangeProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Configuration of the invalidation of the local caches by the change notifications of the database,
+ * enabled by {@code catalog.changes.enabled} when several instances share the database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.changes", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(CatalogChangeProperties.class)
+public class CatalogChangeConfiguration {
+
+    /**
+     * Clears the search and user caches when their tables change.
+     *
+     * @param cacheManager the manager of the caches
+     * @return the {@link CatalogCacheInvalidator}
+     */
+    @Bean
+    public CatalogCacheInvalidator catalogCacheInvalidator(CacheManager cacheManager) {
+        return new CatalogCacheInvalidator(cacheManager);
+    }
+
+    /**
+     * Creates the listener of the change notifications, which calls every {@link CacheInvalidator} bean.
+     * Its connection is opened to the primary configured by {@code spring.datasource}, outside the pool,
+     * since notifications are not sent to the replicas.
+     *
+     * @param dataSourceProperties the connection settings of the primary
+     * @param invalidators         the invalidators of the local caches
+     * @param properties           the batching and reconnection settings
+     * @return the {@link CatalogChangeListener}
+     */
+    @Bean
+    public CatalogChangeListener catalogChangeListener(DataSourceProperties dataSourceProperties,
+                                                       ObjectProvider<CacheInvalidator> invalidators,
+                                                       CatalogChangeProperties properties) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        return new CatalogChangeListener(dataSource, invalidators.orderedStream().toList(), properties);
+    }
+}
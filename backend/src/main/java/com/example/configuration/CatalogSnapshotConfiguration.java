@@ -0,0 +1,75 @@
+package com.example.configuration;
+
+import com.example.snapshot.CatalogSnapshot;
+import com.example.snapshot.CatalogSnapshotLoader;
+import com.example.snapshot.CatalogSnapshotProperties;
+import com.example.snapshot.CatalogSnapshots;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the in-memory catalog snapshot. When {@code catalog.snapshot.enabled} is false,
+ * the holder never has a snapshot and the services read everything from the database.
+ * <p>
+ * The snapshot only learns about the catalog changes, including the ones made by this instance, from the change
+ * notifications of the database, so it requires {@code catalog.changes.enabled}. Without them, the snapshot would
+ * be stale until its next scheduled refresh.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+public class CatalogSnapshotConfiguration {
+
+    /**
+     * Creates the holder of the catalog snapshot, which loads the first snapshot when the application is ready.
+     *
+     * @param properties         the snapshot configuration
+     * @param dataSource         the data source of the catalog
+     * @param transactionManager the transaction manager of the data source
+     * @param environment        the environment telling whether the change notifications are enabled
+     * @return the {@link CatalogSnapshots}
+     * @throws IllegalStateException if the snapshot is enabled without the change notifications
+     */
+    @Bean
+    public CatalogSnapshots catalogSnapshots(CatalogSnapshotProperties properties, DataSource dataSource,
+                                             PlatformTransactionManager transactionManager,
+                                             Environment environment) {
+        if (!properties.isEnabled()) {
+            return CatalogSnapshots.disabled();
+        }
+        if (!environment.getProperty("catalog.changes.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("catalog.snapshot.enabled requires catalog.changes.enabled, "
+                    + "otherwise the snapshot misses the catalog changes until its next refresh");
+        }
+        return new CatalogSnapshots(new CatalogSnapshotLoader(dataSource, transactionManager, properties.getFetchSize()),
+                properties.getRefreshInterval());
+    }
+
+    /**
+     * Publishes the number of songs and the estimated size of the current snapshot as meters.
+     *
+     * @param catalogSnapshots the holder of the snapshot
+     * @return the {@link MeterBinder} of the snapshot
+     */
+    @Bean
+    public MeterBinder catalogSnapshotMetrics(CatalogSnapshots catalogSnapshots) {
+        return registry -> {
+            Gauge.builder("catalog.snapshot.songs", catalogSnapshots,
+                            snapshots -> snapshots.current().map(snapshot -> snapshot.songs().size()).orElse(0))
+                    .description("Number of songs in the catalog snapshot")
+                    .register(registry);
+            Gauge.builder("catalog.snapshot.size", catalogSnapshots,
+                            snapshots -> snapshots.current().map(CatalogSnapshot::estimateBytes).orElse(0L))
+                    .description("Estimated memory held by the catalog snapshot")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+        };
+    }
+}
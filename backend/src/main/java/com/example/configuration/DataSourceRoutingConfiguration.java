@@ -0,0 +1,102 @@
+package com.example.configuration;
+
+import com.example.datasource.DataSourceRoutingProperties;
+import com.example.datasource.ReadWriteRoutingDataSource;
+import com.example.datasource.ReadYourWritesWindow;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration of the routing of read-only transactions to the replicas listed in {@code datasource.routing.replicas}.
+ * Without replicas, the data source auto-configured from {@code spring.datasource} is used for everything.
+ * <p>
+ * The primary and every replica get their own HikariCP pool, configured by {@code spring.datasource.hikari},
+ * whose metrics are tagged with the name of the route: {@code primary}, {@code replica-1}, and so on.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "replicas[0].url")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfiguration {
+
+    /**
+     * Creates the pools of the primary and of the replicas, and routes the connections between them.
+     * The pools are closed with this bean.
+     *
+     * @param dataSourceProperties the connection settings of the primary
+     * @param routingProperties    the replicas and the read-your-writes window
+     * @param environment          the environment the pool settings are bound from
+     * @param meterRegistry        the registry of the pool metrics, if metrics are enabled
+     * @return the {@link ReadWriteRoutingDataSource}
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        DataSourceRoutingProperties routingProperties,
+                                                        Environment environment,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HikariDataSource primary = pool(ReadWriteRoutingDataSource.PRIMARY, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                dataSourceProperties, binder, registry);
+        List<DataSource> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            HikariDataSource pool = pool(ReadWriteRoutingDataSource.replicaKey(replicas.size() + 1), replica.getUrl(),
+                    Objects.requireNonNullElse(replica.getUsername(), dataSourceProperties.determineUsername()),
+                    Objects.requireNonNullElse(replica.getPassword(), dataSourceProperties.determinePassword()),
+                    dataSourceProperties, binder, registry);
+            if (replica.getMaximumPoolSize() != null) {
+                pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            }
+            replicas.add(pool);
+        }
+        ReadYourWritesWindow window = new ReadYourWritesWindow(routingProperties.getReadYourWritesWindow(),
+                routingProperties.getReadYourWritesMaximumUsers());
+        return new ReadWriteRoutingDataSource(primary, replicas, window);
+    }
+
+    /**
+     * Defers the choice of the route to the first statement of each transaction,
+     * when it is known whether the transaction is read-only.
+     *
+     * @param routingDataSource the routing data source
+     * @return the {@link DataSource} used by the repositories and the transaction manager
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         DataSourceProperties dataSourceProperties, Binder binder,
+                                         MeterRegistry registry) {
+        HikariDataSource pool = new HikariDataSource();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        if (registry != null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return pool;
+    }
+}
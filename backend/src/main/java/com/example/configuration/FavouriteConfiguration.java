@@ -0,0 +1,29 @@
+package com.example.configuration;
+
+import com.example.favourite.FavouriteSongs;
+import com.example.favourite.FavouriteSongsProperties;
+import com.example.repository.SongRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the favourite songs of the users kept in memory.
+ */
+@Configuration
+@EnableConfigurationProperties(FavouriteSongsProperties.class)
+public class FavouriteConfiguration {
+
+    /**
+     * Creates the favourite songs kept in memory, which are also dropped by the change notifications
+     * when {@code catalog.changes.enabled} is set.
+     *
+     * @param songRepository the repository the favourites are read from
+     * @param properties     the bounds of the cache
+     * @return the {@link FavouriteSongs}
+     */
+    @Bean
+    public FavouriteSongs favouriteSongs(SongRepository songRepository, FavouriteSongsProperties properties) {
+        return new FavouriteSongs(songRepository, properties);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.configuration;
+
+import com.example.recommendation.BasketLoader;
+import com.example.recommendation.CooccurrenceModel;
+import com.example.recommendation.RecommendationProperties;
+import com.example.recommendation.SongRecommendations;
+import com.example.repository.PlaylistRepository;
+import com.example.repository.SongRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the song recommendations. When {@code recommendations.enabled} is false,
+ * no model is built and no song has any similar song.
+ */
+@Configuration
+@EnableConfigurationProperties(RecommendationProperties.class)
+public class RecommendationConfiguration {
+
+    /**
+     * Creates the holder of the co-occurrence model, which builds the first model when the application is ready.
+     *
+     * @param properties         the recommendation configuration
+     * @param dataSource         the data source of the playlists and favourites
+     * @param transactionManager the transaction manager of the data source
+     * @param playlistRepository the repository the songs of a changed playlist are read from
+     * @param songRepository     the repository the favourites of a user are read from
+     * @return the {@link SongRecommendations}
+     */
+    @Bean
+    public SongRecommendations songRecommendations(RecommendationProperties properties, DataSource dataSource,
+                                                   PlatformTransactionManager transactionManager,
+                                                   PlaylistRepository playlistRepository, SongRepository songRepository) {
+        if (!properties.isEnabled()) {
+            return SongRecommendations.disabled();
+        }
+        return new SongRecommendations(new BasketLoader(dataSource, transactionManager, properties.getFetchSize()),
+                playlistRepository, songRepository, properties);
+    }
+
+    /**
+     * Publishes the number of songs and the estimated size of the current model as meters.
+     *
+     * @param songRecommendations the holder of the model
+     * @return the {@link MeterBinder} of the model
+     */
+    @Bean
+    public MeterBinder recommendationMetrics(SongRecommendations songRecommendations) {
+        return registry -> {
+            Gauge.builder("recommendations.songs", songRecommendations,
+                            recommendations -> recommendations.current().map(CooccurrenceModel::songs).orElse(0))
+                    .description("Number of songs of the co-occurrence model")
+                    .register(registry);
+            Gauge.builder("recommendations.size", songRecommendations,
+                            recommendations -> recommendations.current().map(CooccurrenceModel::estimateBytes).orElse(0L))
+                    .description("Estimated memory held by the co-occurrence model")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.configuration;
+
+import com.example.service.CatalogSearchProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the catalog search.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogSearchProperties.class)
+public class SearchConfiguration {
+}
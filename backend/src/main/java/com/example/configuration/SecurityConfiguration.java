@@ -1,7 +1,9 @@
 package com.example.configuration;
 
 import com.example.filter.JwtAuthenticationFilter;
+import com.example.filter.JwtAuthenticationProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
@@ -26,6 +28,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 @RequiredArgsConstructor
 @EnableMethodSecurity(securedEnabled = true)
+@EnableConfigurationProperties(JwtAuthenticationProperties.class)
 public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
@@ -0,0 +1,73 @@
+package com.example.configuration;
+
+import com.example.storage.CachingSongStorage;
+import com.example.storage.MappedSongStorage;
+import com.example.storage.ShardedSongStorage;
+import com.example.storage.SongCacheProperties;
+import com.example.storage.SongStorage;
+import com.example.storage.SongStorageMetrics;
+import com.example.storage.SongStorageProperties;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the storage backend for song audio files.
+ */
+@Configuration
+@EnableConfigurationProperties({SongStorageProperties.class, SongCacheProperties.class})
+public class StorageConfiguration {
+
+    /**
+     * Creates the {@link SongStorage} selected by {@code songs.storage.type}, wrapped in a
+     * {@link CachingSongStorage} unless {@code songs.cache.enabled} is false.
+     * The storages own their executors, which are not exposed as beans so that they do not
+     * replace the application task executor.
+     *
+     * @param storageProperties the storage configuration
+     * @param cacheProperties   the cache configuration
+     * @return the configured {@link SongStorage}
+     */
+    @Bean
+    public SongStorage songStorage(SongStorageProperties storageProperties, SongCacheProperties cacheProperties) {
+        ExecutorService prefetchExecutor = boundedExecutor("song-prefetch-",
+                storageProperties.getPrefetchThreads(), storageProperties.getPrefetchQueueCapacity());
+        SongStorage storage = switch (storageProperties.getType()) {
+            case MAPPED -> new MappedSongStorage(storageProperties.getLocations().get(0), prefetchExecutor);
+            case SHARDED -> new ShardedSongStorage(storageProperties.getLocations(), prefetchExecutor);
+        };
+        if (!cacheProperties.isEnabled()) {
+            return storage;
+        }
+        return new CachingSongStorage(storage, cacheProperties.getMaxSize().toBytes(), cacheProperties.getWindowRatio(),
+                boundedExecutor("song-cache-", 1, cacheProperties.getLoadQueueCapacity()));
+    }
+
+    /**
+     * Publishes the read and cache statistics of the song storage as meters.
+     *
+     * @param songStorage the song storage
+     * @return the {@link MeterBinder} of the storage statistics
+     */
+    @Bean
+    public MeterBinder songStorageMetrics(SongStorage songStorage) {
+        return new SongStorageMetrics(songStorage);
+    }
+
+    /**
+     * Creates a fixed-size pool of daemon threads whose queue rejects tasks once full.
+     */
+    private static ExecutorService boundedExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    }
+}
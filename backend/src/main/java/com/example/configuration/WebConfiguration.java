@@ -74,10 +74,13 @@ public class WebConfiguration implements WebMvcConfigurer {
      * Creates a utility for working with JWT (JSON Web Token).
      *
      * @param secret the secret key for signing tokens, retrieved from the application configuration.
+     * @param verifiedTokenCacheSize the maximum number of verified tokens remembered.
      * @return the {@link JwtUtils} object used for working with JWT.
      */
     @Bean
-    public JwtUtils jwtUtils(@Value("${jwt.secret}") String secret) {
-        return new JwtUtils(secret);
+    public JwtUtils jwtUtils(@Value("${jwt.secret}") String secret,
+                             @Value("${jwt.verified-token-cache-size:" + JwtUtils.DEFAULT_VERIFIED_TOKEN_CACHE_SIZE + "}")
+                             int verifiedTokenCacheSize) {
+        return new JwtUtils(secret, verifiedTokenCacheSize);
     }
 }
@@ -1,8 +1,11 @@
 package com.example.controller;
 
+import com.example.dto.album.AlbumDetailResponseDto;
 import com.example.dto.album.AlbumResponseDto;
 import com.example.dto.album.AlbumSearchResponseDto;
+import com.example.dto.album.AlbumWithSongsResponseDto;
 import com.example.service.AlbumService;
+import com.example.service.FavouriteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,24 +13,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 /**
  * Controller for handling requests related to albums.
- * Provides APIs to retrieve album information by name and artist.
+ * Provides APIs to retrieve album information by name, artist and ID.
  */
 @RestController
+@Validated
 @RequestMapping("/albums")
 @RequiredArgsConstructor
 @Tag(name = "albums", description = "Controller for managing albums")
 public class AlbumController {
 
     private final AlbumService albumService;
+    private final FavouriteService favouriteService;
 
     /**
      * Returns a list of albums matching the specified name.
@@ -35,6 +41,7 @@ public class AlbumController {
      * @param name   (optional) the name of the album to search for.
      * @param offset the offset for pagination (default is 0).
      * @param limit  the maximum number of results (default is 1000).
+     * @param cursor (optional) the cursor of the next page returned with the previous page.
      * @return a {@link ResponseEntity} containing {@link AlbumSearchResponseDto} with search results.
      */
     @GetMapping
@@ -44,18 +51,61 @@ public class AlbumController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AlbumSearchResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters", content = @Content)
     })
-    @Cacheable
     public ResponseEntity<AlbumSearchResponseDto> getAllAlbumsByName(
             @Parameter(description = "The name of the album to search for", example = "Thriller")
             @RequestParam(required = false) String name,
             @Parameter(description = "The offset for pagination", example = "0")
             @RequestParam(defaultValue = "0") int offset,
             @Parameter(description = "The maximum number of results", example = "1000")
-            @RequestParam(defaultValue = "1000") int limit) {
-        AlbumSearchResponseDto albums = albumService.getAllAlbumsByName(name, offset, limit);
+            @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Cursor returned as nextCursor with the previous page; when set, offset is ignored")
+            @RequestParam(required = false) String cursor) {
+        AlbumSearchResponseDto albums = albumService.getAllAlbumsByName(name, offset, limit, cursor);
         return ResponseEntity.ok(albums);
     }
 
+    /**
+     * Returns the albums with the specified identifiers together with their songs, fetched with a single query.
+     *
+     * @param ids the identifiers of the albums, at most 200.
+     * @return a {@link ResponseEntity} containing a list of {@link AlbumWithSongsResponseDto} in the order of the identifiers.
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get albums with their songs by IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the albums, in the order of the IDs, skipping unknown IDs",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AlbumWithSongsResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content)
+    })
+    public ResponseEntity<List<AlbumWithSongsResponseDto>> getAlbumsWithSongsByIds(
+            @Parameter(description = "Comma-separated album IDs, at most 200", example = "1,2,3")
+            @RequestParam @Size(max = 200, message = "At most 200 IDs can be requested at once") List<Long> ids) {
+        List<AlbumWithSongsResponseDto> albums = albumService.getAlbumsWithSongsByIds(ids);
+        albums.forEach(album -> album.setSongs(favouriteService.markFavourites(album.getSongs())));
+        return ResponseEntity.ok(albums);
+    }
+
+    /**
+     * Returns the album with the specified identifier together with its creator and songs, fetched with a single query.
+     *
+     * @param albumId the identifier of the album.
+     * @return a {@link ResponseEntity} containing the {@link AlbumDetailResponseDto}.
+     */
+    @GetMapping("/{albumId}/full")
+    @Operation(summary = "Get an album with its creator and songs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the album",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AlbumDetailResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Album not found", content = @Content)
+    })
+    public ResponseEntity<AlbumDetailResponseDto> getAlbumDetail(
+            @Parameter(description = "The identifier of the album", example = "1")
+            @PathVariable long albumId) {
+        AlbumDetailResponseDto album = albumService.getAlbumDetail(albumId);
+        album.setSongs(favouriteService.markFavourites(album.getSongs()));
+        return ResponseEntity.ok(album);
+    }
+
     /**
      * Returns a list of albums associated with the specified artist.
      *
@@ -10,16 +10,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Controller for handling requests related to artists.
  * Provides APIs to retrieve information about artists by name or identifier.
  */
 @RestController
+@Validated
 @RequestMapping("/artists")
 @RequiredArgsConstructor
 @Tag(name = "artists", description = "Controller for managing artists")
@@ -33,6 +37,7 @@ public class ArtistController {
      * @param name   (optional) the name of the artist to search for.
      * @param offset the offset for pagination (default is 0).
      * @param limit  the maximum number of results (default is 1000).
+     * @param cursor (optional) the cursor of the next page returned with the previous page.
      * @return a {@link ResponseEntity} containing {@link ArtistSearchResponseDto} with search results.
      */
     @GetMapping
@@ -42,15 +47,36 @@ public class ArtistController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArtistSearchResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters", content = @Content)
     })
-    @Cacheable
     public ResponseEntity<ArtistSearchResponseDto> getAllArtistsByName(
             @Parameter(description = "The name of the artist to search for", example = "Michael Jackson")
             @RequestParam(required = false) String name,
             @Parameter(description = "The offset for pagination", example = "0")
             @RequestParam(defaultValue = "0") int offset,
             @Parameter(description = "The maximum number of results", example = "1000")
-            @RequestParam(defaultValue = "1000") int limit) {
-        ArtistSearchResponseDto artists = artistService.getAllArtistsByName(name, offset, limit);
+            @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Cursor returned as nextCursor with the previous page; when set, offset is ignored")
+            @RequestParam(required = false) String cursor) {
+        ArtistSearchResponseDto artists = artistService.getAllArtistsByName(name, offset, limit, cursor);
+        return ResponseEntity.ok(artists);
+    }
+
+    /**
+     * Returns the artists with the specified identifiers, fetched with a single query.
+     *
+     * @param ids the identifiers of the artists, at most 200.
+     * @return a {@link ResponseEntity} containing a list of {@link ArtistResponseDto} in the order of the identifiers.
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get artists by IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the artists, in the order of the IDs, skipping unknown IDs",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArtistResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content)
+    })
+    public ResponseEntity<List<ArtistResponseDto>> getArtistsByIds(
+            @Parameter(description = "Comma-separated artist IDs, at most 200", example = "1,2,3")
+            @RequestParam @Size(max = 200, message = "At most 200 IDs can be requested at once") List<Long> ids) {
+        List<ArtistResponseDto> artists = artistService.getArtistsByIds(ids);
         return ResponseEntity.ok(artists);
     }
 
@@ -3,12 +3,15 @@ package com.example.controller;
 import com.example.dto.playlist.PlaylistCreationResponseDto;
 import com.example.dto.playlist.PlaylistResponseDto;
 import com.example.dto.playlist.PlaylistSearchResponseDto;
+import com.example.dto.playlist.PlaylistSongsUpdateRequestDto;
+import com.example.dto.playlist.PlaylistSongsUpdateResponseDto;
 import com.example.service.PlaylistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -39,8 +42,9 @@ public class PlaylistController {
     public ResponseEntity<PlaylistSearchResponseDto> getAllPlaylistsByName(
             @Parameter(description = "Playlist name to search for") @RequestParam(required = false) String name,
             @Parameter(description = "Pagination offset (default 0)") @RequestParam(defaultValue = "0") int offset,
-            @Parameter(description = "Maximum number of results (default 1000)") @RequestParam(defaultValue = "1000") int limit) {
-        PlaylistSearchResponseDto playlists = playlistService.getAllPlaylistsByName(name, offset, limit);
+            @Parameter(description = "Maximum number of results (default 1000)") @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Cursor returned as nextCursor with the previous page; when set, offset is ignored") @RequestParam(required = false) String cursor) {
+        PlaylistSearchResponseDto playlists = playlistService.getAllPlaylistsByName(name, offset, limit, cursor);
         return ResponseEntity.ok(playlists);
     }
 
@@ -60,7 +64,10 @@ public class PlaylistController {
     @Operation(summary = "Add a song to a playlist", description = "Adds a music track to the specified playlist.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Track successfully added"),
-            @ApiResponse(responseCode = "401", description = "User not authorized")
+            @ApiResponse(responseCode = "401", description = "User not authorized"),
+            @ApiResponse(responseCode = "403", description = "Playlist belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Track or playlist not found"),
+            @ApiResponse(responseCode = "409", description = "Track already in the playlist")
     })
     public ResponseEntity<Void> addMusicToPlaylist(
             @Parameter(description = "Playlist ID") @PathVariable long playlistId,
@@ -78,7 +85,9 @@ public class PlaylistController {
     @Operation(summary = "Remove a song from a playlist", description = "Removes a music track from the specified playlist.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Track successfully removed"),
-            @ApiResponse(responseCode = "401", description = "User not authorized")
+            @ApiResponse(responseCode = "401", description = "User not authorized"),
+            @ApiResponse(responseCode = "403", description = "Playlist belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Track or playlist not found")
     })
     public ResponseEntity<Void> removeMusicFromPlaylist(
             @Parameter(description = "Playlist ID") @PathVariable long playlistId,
@@ -92,6 +101,27 @@ public class PlaylistController {
         }
     }
 
+    @PatchMapping("/{playlistId}/songs")
+    @Operation(summary = "Change the songs of a playlist",
+            description = "Removes, adds and moves many music tracks of the specified playlist at once, and reports what happened to each of them.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tracks successfully changed"),
+            @ApiResponse(responseCode = "400", description = "Too many tracks in a list"),
+            @ApiResponse(responseCode = "401", description = "User not authorized"),
+            @ApiResponse(responseCode = "403", description = "Playlist belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Playlist not found")
+    })
+    public ResponseEntity<PlaylistSongsUpdateResponseDto> updatePlaylistSongs(
+            @Parameter(description = "Playlist ID") @PathVariable long playlistId,
+            @Valid @RequestBody PlaylistSongsUpdateRequestDto request) {
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
+            UserDetails user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            return ResponseEntity.ok(playlistService.updatePlaylistSongs(playlistId, request, user.getUsername()));
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Create a new playlist", description = "Creates a new playlist on behalf of the current user.")
     @ApiResponses({
@@ -2,30 +2,47 @@ package com.example.controller;
 
 import com.example.dto.song.SongResponseDto;
 import com.example.dto.song.SongSearchResponseDto;
+import com.example.service.FavouriteService;
+import com.example.service.RecommendationService;
 import com.example.service.SongService;
+import com.example.utils.ResourceRangeWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * Controller for managing music tracks.
  */
 @RestController
+@Validated
 @RequestMapping("/songs")
 @Tag(name = "songs", description = "API for managing music tracks")
 @RequiredArgsConstructor
 public class SongController {
 
     private final SongService songService;
+    private final FavouriteService favouriteService;
+    private final RecommendationService recommendationService;
+    private final ResourceRangeWriter resourceRangeWriter;
 
     @GetMapping
     @Operation(summary = "Get a list of songs", description = "Returns a list of songs matching the provided name.")
@@ -33,13 +50,28 @@ public class SongController {
             @ApiResponse(responseCode = "200", description = "List of songs successfully retrieved"),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters")
     })
-    @Cacheable
     public ResponseEntity<SongSearchResponseDto> getAllSongsByName(
             @Parameter(description = "Song name to search for (optional)") @RequestParam(required = false) String name,
             @Parameter(description = "Pagination offset (default 0)") @RequestParam(defaultValue = "0") int offset,
-            @Parameter(description = "Maximum number of results (default 1000)") @RequestParam(defaultValue = "1000") int limit) {
-        SongSearchResponseDto songs = songService.getAllSongsByName(name, offset, limit);
-        return ResponseEntity.ok(songs);
+            @Parameter(description = "Maximum number of results (default 1000)") @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Cursor returned as nextCursor with the previous page; when set, offset is ignored") @RequestParam(required = false) String cursor) {
+        SongSearchResponseDto songs = songService.getAllSongsByName(name, offset, limit, cursor);
+        // The page may come from the cache shared by all users, so it is copied rather than marked
+        return ResponseEntity.ok(new SongSearchResponseDto(favouriteService.markFavourites(songs.getValues()),
+                songs.getCount(), songs.getCurrentPage(), songs.getTotalPages(), songs.getNextCursor()));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get songs by IDs", description = "Returns the songs with the given IDs in the same order, skipping unknown IDs.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of songs successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<SongResponseDto>> getSongsByIds(
+            @Parameter(description = "Comma-separated song IDs, at most 200") @RequestParam
+            @Size(max = 200, message = "At most 200 IDs can be requested at once") List<Long> ids) {
+        List<SongResponseDto> songs = songService.getSongsByIds(ids);
+        return ResponseEntity.ok(favouriteService.markFavourites(songs));
     }
 
     @GetMapping("/artist/{artistId}")
@@ -51,7 +83,7 @@ public class SongController {
     public ResponseEntity<List<SongResponseDto>> getAllSongsByArtist(
             @Parameter(description = "Artist ID") @PathVariable long artistId) {
         List<SongResponseDto> songs = songService.getAllSongsByArtist(artistId);
-        return ResponseEntity.ok(songs);
+        return ResponseEntity.ok(favouriteService.markFavourites(songs));
     }
 
     @GetMapping("/album/{albumId}")
@@ -63,7 +95,7 @@ public class SongController {
     public ResponseEntity<List<SongResponseDto>> getAllSongsByAlbum(
             @Parameter(description = "Album ID") @PathVariable long albumId) {
         List<SongResponseDto> songs = songService.getAllSongsByAlbum(albumId);
-        return ResponseEntity.ok(songs);
+        return ResponseEntity.ok(favouriteService.markFavourites(songs));
     }
 
     @GetMapping("/user/{userId}")
@@ -75,20 +107,96 @@ public class SongController {
     public ResponseEntity<List<SongResponseDto>> getAllSongsByUser(
             @Parameter(description = "User ID") @PathVariable long userId) {
         List<SongResponseDto> songs = songService.getAllSongsByUser(userId);
-        return ResponseEntity.ok(songs);
+        return ResponseEntity.ok(favouriteService.markFavourites(songs));
+    }
+
+    @PostMapping("/{songId}/favourite")
+    @Operation(summary = "Like a song", description = "Adds the song to the favourites of the current user. Liking a song twice is not an error.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Song successfully added to the favourites"),
+            @ApiResponse(responseCode = "400", description = "Invalid song ID"),
+            @ApiResponse(responseCode = "401", description = "User not authorized"),
+            @ApiResponse(responseCode = "404", description = "Song not found")
+    })
+    public ResponseEntity<Void> addFavourite(
+            @Parameter(description = "Song ID") @PathVariable int songId) {
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
+            UserDetails user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            favouriteService.addFavourite(songId, user);
+            return ResponseEntity.status(HttpStatus.OK).build();
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @DeleteMapping("/{songId}/favourite")
+    @Operation(summary = "Unlike a song", description = "Removes the song from the favourites of the current user. Unliking a song that is not a favourite is not an error.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Song successfully removed from the favourites"),
+            @ApiResponse(responseCode = "400", description = "Invalid song ID"),
+            @ApiResponse(responseCode = "401", description = "User not authorized")
+    })
+    public ResponseEntity<Void> removeFavourite(
+            @Parameter(description = "Song ID") @PathVariable int songId) {
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
+            UserDetails user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            favouriteService.removeFavourite(songId, user);
+            return ResponseEntity.status(HttpStatus.OK).build();
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @GetMapping("/{songId}/similar")
+    @Operation(summary = "Get similar songs", description = "Returns the songs most often found in the same playlists and favourites as the song, most similar first.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of songs successfully retrieved, empty if the song has no similar songs")
+    })
+    public ResponseEntity<List<SongResponseDto>> getSimilarSongs(
+            @Parameter(description = "Song ID") @PathVariable long songId,
+            @Parameter(description = "Maximum number of results (default 10, at most the number of similar songs kept per song)")
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SongResponseDto> songs = recommendationService.getSimilarSongs(songId, limit);
+        return ResponseEntity.ok(favouriteService.markFavourites(songs));
+    }
+
+    @PostMapping("/similar/rebuild")
+    @Secured("ROLE_ADMIN")
+    @Operation(summary = "Rebuild the similar songs", description = "Starts a full build of the similar songs from all the playlists and favourites, in the background.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Build started"),
+            @ApiResponse(responseCode = "403", description = "User is not an administrator"),
+            @ApiResponse(responseCode = "503", description = "Recommendations are disabled")
+    })
+    public ResponseEntity<Void> rebuildSimilarSongs() {
+        if (recommendationService.rebuildRecommendations()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        } else {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @GetMapping("/{songId}")
-    @Operation(summary = "Get MP3 file by song ID", description = "Returns the MP3 file of the song by its ID.")
+    @Operation(summary = "Get MP3 file by song ID",
+            description = "Streams the MP3 file of the song by its ID. Supports the Range and If-Range headers. "
+                    + "When the song starts playing from a playlist, the next song of the playlist is loaded in advance.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "MP3 file successfully retrieved"),
-            @ApiResponse(responseCode = "404", description = "Song not found")
+            @ApiResponse(responseCode = "206", description = "Requested part of the MP3 file successfully retrieved"),
+            @ApiResponse(responseCode = "404", description = "Song not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
     })
-    public ResponseEntity<byte[]> getMp3ById(
-            @Parameter(description = "Song ID") @PathVariable long songId) {
-        byte[] songData = songService.getMp3ById(songId);
-        return ResponseEntity.ok()
-                .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM_VALUE)
-                .body(songData);
+    public void getMp3ById(
+            @Parameter(description = "Song ID") @PathVariable long songId,
+            @Parameter(description = "ID of the playlist the song is played from (optional)")
+            @RequestParam(required = false) Long playlistId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Resource songData = songService.getMp3ById(songId);
+        // Players send a range request per chunk and per seek, so the next song is only looked up when playback starts
+        if (playlistId != null && ResourceRangeWriter.isFromStart(request)) {
+            songService.prefetchNextInPlaylist(playlistId, songId);
+        }
+        resourceRangeWriter.write(songData, MediaType.APPLICATION_OCTET_STREAM, request, response);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the read replicas, bound from the {@code datasource.routing} properties.
+ * The primary is the one configured by {@code spring.datasource}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Replicas serving the read-only transactions, in turn. Without replicas, all transactions use the primary.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long a user keeps reading from the primary after committing a read-write transaction.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of users whose recent writes are remembered.
+     */
+    private long readYourWritesMaximumUsers = 100_000;
+
+    /**
+     * Connection settings of a replica. The settings that are not given are taken from {@code spring.datasource}.
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Maximum size of the connection pool of the replica.
+         */
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Sends the read-only transactions to the replicas, in turn, and everything else to the primary.
+ * <p>
+ * A user who committed a read-write transaction reads from the primary for the duration of the
+ * {@link ReadYourWritesWindow}, so that they see their own changes while the replicas catch up.
+ * <p>
+ * The route is chosen when the connection is requested, so the transaction must already be known to be read-only
+ * by then: this data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which only asks for the connection
+ * at the first statement of the transaction.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * Name of the route to the primary, which is also the name of its connection pool.
+     */
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * @param primary              the data source of the primary
+     * @param replicas             the data sources of the replicas
+     * @param readYourWritesWindow the users who must read from the primary
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      ReadYourWritesWindow readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.replicaKeys = IntStream.rangeClosed(1, replicas.size())
+                .mapToObj(ReadWriteRoutingDataSource::replicaKey)
+                .toList();
+        this.readYourWritesWindow = readYourWritesWindow;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKeys.get(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * @param number the number of the replica, from 1
+     * @return the name of the route to the replica, which is also the name of its connection pool
+     */
+    public static String replicaKey(int number) {
+        return "replica-" + number;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesWindow.recordWrite(username);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || (username != null && readYourWritesWindow.isOpen(username))) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * @return the name of the authenticated user of the current request, or null if the request is anonymous
+     */
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (Objects.isNull(authentication) || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Closes the connection pools of the primary and of the replicas.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
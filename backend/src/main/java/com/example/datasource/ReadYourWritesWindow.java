@@ -0,0 +1,42 @@
+package com.example.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Users who recently committed a write, and must keep reading from the primary until the replicas have caught up.
+ */
+public class ReadYourWritesWindow {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    /**
+     * @param window       how long a user reads from the primary after a write
+     * @param maximumUsers maximum number of users remembered; the oldest writers are forgotten first
+     */
+    public ReadYourWritesWindow(Duration window, long maximumUsers) {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumUsers)
+                .build();
+    }
+
+    /**
+     * Starts or restarts the window of a user.
+     *
+     * @param username the name of the user who committed a write
+     */
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    /**
+     * @param username the name of the user
+     * @return true if the user committed a write less than a window ago
+     */
+    public boolean isOpen(String username) {
+        return recentWriters.getIfPresent(username) != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.dto.album;
+
+import com.example.dto.artist.ArtistResponseDto;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for representing everything the album page shows: the album, its creator and its songs.
+ */
+@Getter
+@Setter
+public class AlbumDetailResponseDto extends AlbumWithSongsResponseDto {
+
+    /**
+     * Artist who created the album.
+     */
+    private ArtistResponseDto creator;
+}
@@ -0,0 +1,20 @@
+package com.example.dto.album;
+
+import com.example.dto.song.SongResponseDto;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for representing album information together with the songs of the album.
+ */
+@Getter
+@Setter
+public class AlbumWithSongsResponseDto extends AlbumResponseDto {
+
+    /**
+     * Songs of the album, in the order they were added to it.
+     */
+    private List<SongResponseDto> songs;
+}
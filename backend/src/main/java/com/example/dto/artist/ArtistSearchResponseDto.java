@@ -26,6 +26,7 @@ public class ArtistSearchResponseDto {
 
     /**
      * Current page of the results.
+     * Zero when the page was fetched by cursor, as its position is not known.
      */
     private int currentPage;
 
@@ -33,4 +34,10 @@ public class ArtistSearchResponseDto {
      * Total number of pages of results.
      */
     private int totalPages;
+
+    /**
+     * Cursor of the next page, or null if this is the last page.
+     * Passed back as the {@code cursor} parameter to fetch the next page by keyset.
+     */
+    private String nextCursor;
 }
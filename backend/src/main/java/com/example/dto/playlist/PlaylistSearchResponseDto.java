@@ -28,6 +28,7 @@ public class PlaylistSearchResponseDto {
 
     /**
      * Current page of the results.
+     * Zero when the page was fetched by cursor, as its position is not known.
      */
     private int currentPage;
 
@@ -35,4 +36,10 @@ public class PlaylistSearchResponseDto {
      * Total number of result pages.
      */
     private int totalPages;
+
+    /**
+     * Cursor of the next page, or null if this is the last page.
+     * Passed back as the {@code cursor} parameter to fetch the next page by keyset.
+     */
+    private String nextCursor;
 }
@@ -0,0 +1,27 @@
+package com.example.dto.playlist;
+
+import com.example.model.enumeration.PlaylistSongOutcome;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for representing the outcome of changing a single song in a bulk change of a playlist.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class PlaylistSongResultDto {
+
+    /**
+     * Unique identifier of the song.
+     */
+    @JsonProperty("song_id")
+    private long songId;
+
+    /**
+     * What happened to the song.
+     */
+    private PlaylistSongOutcome outcome;
+}
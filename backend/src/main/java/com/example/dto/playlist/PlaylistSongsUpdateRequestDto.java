@@ -0,0 +1,36 @@
+package com.example.dto.playlist;
+
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for representing a bulk change of the songs in a playlist.
+ * Songs are removed first, then added, then moved, so a song added by the same request can also be moved.
+ */
+@Getter
+@Setter
+public class PlaylistSongsUpdateRequestDto {
+
+    /**
+     * IDs of the songs to append to the playlist, in order.
+     */
+    @Size(max = 1000, message = "At most 1000 songs can be added at once")
+    private List<Long> add = new ArrayList<>();
+
+    /**
+     * IDs of the songs to remove from the playlist.
+     */
+    @Size(max = 1000, message = "At most 1000 songs can be removed at once")
+    private List<Long> remove = new ArrayList<>();
+
+    /**
+     * IDs of the songs to put at the beginning of the playlist, in this order.
+     * The other songs keep their order after them.
+     */
+    @Size(max = 1000, message = "At most 1000 songs can be moved at once")
+    private List<Long> order = new ArrayList<>();
+}
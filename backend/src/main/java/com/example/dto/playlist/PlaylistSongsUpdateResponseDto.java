@@ -0,0 +1,32 @@
+package com.example.dto.playlist;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for representing the outcome of a bulk change of the songs in a playlist,
+ * with one result per distinct song of each list of the request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class PlaylistSongsUpdateResponseDto {
+
+    /**
+     * Outcomes of the songs to add.
+     */
+    private List<PlaylistSongResultDto> add;
+
+    /**
+     * Outcomes of the songs to remove.
+     */
+    private List<PlaylistSongResultDto> remove;
+
+    /**
+     * Outcomes of the songs to move.
+     */
+    private List<PlaylistSongResultDto> order;
+}
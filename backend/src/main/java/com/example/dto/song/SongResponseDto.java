@@ -1,5 +1,6 @@
 package com.example.dto.song;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -29,4 +30,10 @@ public class SongResponseDto {
      * Genre of the song.
      */
     private String genre;
+
+    /**
+     * Whether the song is a favourite of the current user; always false for anonymous requests.
+     */
+    @JsonProperty("isFavourite")
+    private boolean favourite;
 }
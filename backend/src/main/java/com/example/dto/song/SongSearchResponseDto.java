@@ -28,6 +28,7 @@ public class SongSearchResponseDto {
 
     /**
      * Current page of results.
+     * Zero when the page was fetched by cursor, as its position is not known.
      */
     private int currentPage;
 
@@ -35,4 +36,10 @@ public class SongSearchResponseDto {
      * Total number of pages of results.
      */
     private int totalPages;
+
+    /**
+     * Cursor of the next page, or null if this is the last page.
+     * Passed back as the {@code cursor} parameter to fetch the next page by keyset.
+     */
+    private String nextCursor;
 }
@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a pagination cursor sent by the client cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructor that accepts an error message.
+     *
+     * @param message the message that will be passed to the parent constructor.
+     */
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.exception.handler;
 import com.example.exception.AccessForbiddenException;
 import com.example.exception.AlreadyInPlaylistException;
 import com.example.exception.EntityNotFoundException;
+import com.example.exception.InvalidCursorException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,7 +13,7 @@ import java.util.Map;
 
 /**
  * Class for handling exceptions in the API.
- * Handles exceptions related to access, missing entities, and already added items in a playlist.
+ * Handles exceptions related to access, missing entities, already added items in a playlist and invalid cursors.
  */
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -49,4 +50,15 @@ public class ApiExceptionHandler {
     public ResponseEntity<Map<String, String>> handleAlreadyInPlaylistException(AlreadyInPlaylistException exception) {
         return new ResponseEntity<>(Map.of("error", exception.getMessage()), HttpStatus.CONFLICT);
     }
+
+    /**
+     * Exception handler for when a pagination cursor cannot be decoded.
+     *
+     * @param exception the exception related to the invalid cursor.
+     * @return ResponseEntity with an error message and a 400 status.
+     */
+    @ExceptionHandler(value = InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException exception) {
+        return new ResponseEntity<>(Map.of("error", exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.favourite;
+
+import com.example.cache.CacheInvalidator;
+import com.example.cache.CatalogChanges;
+import com.example.repository.SongRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Favourite songs of the users, kept in memory as one {@link SongIdBitmap} per user.
+ * <p>
+ * The favourites of a user are read from the database the first time they are needed, then kept up to date
+ * by {@link #added} and {@link #removed} as the user likes and unlikes songs. They are read again when
+ * they expire, and when change notifications report that another instance changed them.
+ */
+public class FavouriteSongs implements CacheInvalidator {
+
+    private static final String FAVOURITES_TABLE = "person_favourite_song";
+    private static final String USERS_TABLE = "person";
+
+    private final LoadingCache<Long, SongIdBitmap> bitmaps;
+
+    /**
+     * @param songRepository the repository the favourites are read from
+     * @param properties     the bounds of the cache
+     */
+    public FavouriteSongs(SongRepository songRepository, FavouriteSongsProperties properties) {
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumUsers())
+                .expireAfterWrite(properties.getTtl())
+                .build(userId -> SongIdBitmap.of(songRepository.findFavouriteSongIds(userId).stream()
+                        .mapToInt(Integer::intValue)
+                        .toArray()));
+    }
+
+    /**
+     * @param userId the ID of the user
+     * @return the IDs of the favourite songs of the user
+     */
+    public SongIdBitmap get(long userId) {
+        return bitmaps.get(userId);
+    }
+
+    /**
+     * Records that a user liked a song. Users whose favourites are not in memory are left to be read later.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     */
+    public void added(long userId, int songId) {
+        bitmaps.asMap().computeIfPresent(userId, (id, bitmap) -> bitmap.with(songId));
+    }
+
+    /**
+     * Records that a user unliked a song.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     */
+    public void removed(long userId, int songId) {
+        bitmaps.asMap().computeIfPresent(userId, (id, bitmap) -> bitmap.without(songId));
+    }
+
+    /**
+     * Drops the favourites of the users whose favourites were changed or who were deleted.
+     *
+     * @param changes the changes made to the database
+     */
+    @Override
+    public void invalidate(CatalogChanges changes) {
+        for (String table : List.of(FAVOURITES_TABLE, USERS_TABLE)) {
+            if (!changes.touches(table)) {
+                continue;
+            }
+            Set<Long> userIds = changes.ids(table);
+            if (userIds == null) {
+                bitmaps.invalidateAll();
+                return;
+            }
+            bitmaps.invalidateAll(userIds);
+        }
+    }
+}
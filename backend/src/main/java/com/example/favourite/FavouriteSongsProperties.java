@@ -0,0 +1,27 @@
+package com.example.favourite;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-memory favourite songs of the users, bound from the {@code favourites} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "favourites")
+public class FavouriteSongsProperties {
+
+    /**
+     * Maximum number of users whose favourite songs are kept in memory.
+     */
+    private long maximumUsers = 100_000;
+
+    /**
+     * Time after which the favourite songs of a user are read again from the database, counted from when they
+     * were read. Bounds how long changes made on another instance go unseen when change notifications are disabled.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
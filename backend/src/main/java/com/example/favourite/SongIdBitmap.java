@@ -0,0 +1,233 @@
+package com.example.favourite;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of song IDs compressed as a Roaring bitmap.
+ * <p>
+ * The IDs are split by their upper 16 bits into chunks of 65536 IDs. A chunk holding few IDs keeps their lower
+ * 16 bits in a sorted array, 2 bytes per ID; a chunk holding more than 4096 IDs keeps a bitmap of 8 KB, which
+ * is then smaller. Lookups are a binary search over the chunks and one within the chunk.
+ * <p>
+ * Adding or removing an ID returns a new set that shares the unchanged chunks with this one, so readers
+ * never see a set being changed.
+ */
+public final class SongIdBitmap {
+
+    private static final int ARRAY_MAXIMUM_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final SongIdBitmap EMPTY = new SongIdBitmap(new char[0], new Object[0], 0);
+
+    /**
+     * Upper 16 bits of the IDs of each chunk, in ascending order.
+     */
+    private final char[] keys;
+
+    /**
+     * Lower 16 bits of the IDs of each chunk, either as a sorted {@code char[]} or as a {@code long[]} bitmap.
+     */
+    private final Object[] chunks;
+    private final int cardinality;
+
+    private SongIdBitmap(char[] keys, Object[] chunks, int cardinality) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @return the empty set
+     */
+    public static SongIdBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param ids the IDs, in any order and possibly repeated
+     * @return the set of the IDs
+     */
+    public static SongIdBitmap of(int[] ids) {
+        // Flipping the sign bit sorts the IDs as unsigned, which is the order of the chunks
+        int[] sorted = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            sorted[i] = ids[i] ^ Integer.MIN_VALUE;
+        }
+        Arrays.sort(sorted);
+        char[] keys = new char[ids.length];
+        Object[] chunks = new Object[ids.length];
+        int chunkCount = 0;
+        int cardinality = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            char key = (char) ((sorted[start] ^ Integer.MIN_VALUE) >>> 16);
+            char[] values = new char[Math.min(sorted.length - start, 65536)];
+            int size = 0;
+            int end = start;
+            while (end < sorted.length && (char) ((sorted[end] ^ Integer.MIN_VALUE) >>> 16) == key) {
+                char value = (char) sorted[end];
+                if (size == 0 || values[size - 1] != value) {
+                    values[size++] = value;
+                }
+                end++;
+            }
+            keys[chunkCount] = key;
+            chunks[chunkCount++] = size > ARRAY_MAXIMUM_SIZE ? toBitmap(values, size) : Arrays.copyOf(values, size);
+            cardinality += size;
+            start = end;
+        }
+        return new SongIdBitmap(Arrays.copyOf(keys, chunkCount), Arrays.copyOf(chunks, chunkCount), cardinality);
+    }
+
+    /**
+     * @param id the ID of the song
+     * @return whether the set contains the ID
+     */
+    public boolean contains(long id) {
+        if (id != (int) id) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, (char) (id >>> 16));
+        return index >= 0 && chunkContains(chunks[index], (char) id);
+    }
+
+    /**
+     * @param id the ID to add
+     * @return a set with the IDs of this one and the given one
+     */
+    public SongIdBitmap with(int id) {
+        char key = (char) (id >>> 16);
+        char value = (char) id;
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            if (chunkContains(chunks[index], value)) {
+                return this;
+            }
+            Object[] newChunks = chunks.clone();
+            newChunks[index] = add(chunks[index], value);
+            return new SongIdBitmap(keys, newChunks, cardinality + 1);
+        }
+        int insertion = -index - 1;
+        char[] newKeys = new char[keys.length + 1];
+        Object[] newChunks = new Object[chunks.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertion);
+        System.arraycopy(chunks, 0, newChunks, 0, insertion);
+        newKeys[insertion] = key;
+        newChunks[insertion] = new char[]{value};
+        System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+        System.arraycopy(chunks, insertion, newChunks, insertion + 1, chunks.length - insertion);
+        return new SongIdBitmap(newKeys, newChunks, cardinality + 1);
+    }
+
+    /**
+     * @param id the ID to remove
+     * @return a set with the IDs of this one but the given one
+     */
+    public SongIdBitmap without(int id) {
+        char value = (char) id;
+        int index = Arrays.binarySearch(keys, (char) (id >>> 16));
+        if (index < 0 || !chunkContains(chunks[index], value)) {
+            return this;
+        }
+        Object chunk = remove(chunks[index], value);
+        if (chunk != null) {
+            Object[] newChunks = chunks.clone();
+            newChunks[index] = chunk;
+            return new SongIdBitmap(keys, newChunks, cardinality - 1);
+        }
+        char[] newKeys = new char[keys.length - 1];
+        Object[] newChunks = new Object[chunks.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(chunks, 0, newChunks, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        System.arraycopy(chunks, index + 1, newChunks, index, newChunks.length - index);
+        return new SongIdBitmap(newKeys, newChunks, cardinality - 1);
+    }
+
+    /**
+     * @return the number of IDs in the set
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return the number of bytes of the arrays of the set, without the object headers
+     */
+    public long estimateBytes() {
+        long bytes = (long) keys.length * Character.BYTES + (long) chunks.length * Integer.BYTES;
+        for (Object chunk : chunks) {
+            bytes += chunk instanceof char[] values ? (long) values.length * Character.BYTES : (long) BITMAP_WORDS * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private static boolean chunkContains(Object chunk, char value) {
+        if (chunk instanceof char[] values) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+        return (((long[]) chunk)[value >>> 6] & (1L << value)) != 0;
+    }
+
+    private static Object add(Object chunk, char value) {
+        if (chunk instanceof char[] values) {
+            if (values.length == ARRAY_MAXIMUM_SIZE) {
+                long[] bits = toBitmap(values, values.length);
+                bits[value >>> 6] |= 1L << value;
+                return bits;
+            }
+            int insertion = -Arrays.binarySearch(values, value) - 1;
+            char[] newValues = new char[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, insertion);
+            newValues[insertion] = value;
+            System.arraycopy(values, insertion, newValues, insertion + 1, values.length - insertion);
+            return newValues;
+        }
+        long[] bits = ((long[]) chunk).clone();
+        bits[value >>> 6] |= 1L << value;
+        return bits;
+    }
+
+    /**
+     * @return the chunk without the value, or null if the chunk is left empty
+     */
+    private static Object remove(Object chunk, char value) {
+        if (chunk instanceof char[] values) {
+            if (values.length == 1) {
+                return null;
+            }
+            int index = Arrays.binarySearch(values, value);
+            char[] newValues = new char[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, newValues.length - index);
+            return newValues;
+        }
+        long[] bits = ((long[]) chunk).clone();
+        bits[value >>> 6] &= ~(1L << value);
+        int size = 0;
+        for (long word : bits) {
+            size += Long.bitCount(word);
+        }
+        return size > ARRAY_MAXIMUM_SIZE ? bits : toArray(bits, size);
+    }
+
+    private static long[] toBitmap(char[] values, int size) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < size; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int size) {
+        char[] values = new char[size];
+        int index = 0;
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                values[index++] = (char) (word * 64 + Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+        return values;
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.filter;
 
+import com.example.service.DetailsService;
 import com.example.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,20 +14,22 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;  // Utility for extracting and validating JWT
-    private final UserDetailsService userDetailsService;  // Service to load user details
+    private final DetailsService detailsService;  // Service to load user details
+    private final JwtAuthenticationProperties properties;  // Where the authenticated user is taken from
+    private final MeterRegistry meterRegistry;  // Registry of the jwt.authentication timer
 
     /**
      * Method that is called for each incoming HTTP request to check the JWT and authenticate the user.
@@ -51,34 +57,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extract the JWT token from the header (remove the "Bearer " prefix)
-        jwt = authHeader.substring(7);
-        // Extract the user's email from the JWT
-        userEmail = jwtUtils.extractEmail(jwt);
+        // Time the authentication, tagged with its outcome; a token that cannot be verified counts as invalid
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            // Extract the JWT token from the header (remove the "Bearer " prefix)
+            jwt = authHeader.substring(7);
+            // Verify the token once and read all of its claims
+            final Claims claims = jwtUtils.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
+            outcome = "rejected";
 
-        // If the email is not null and the user is not authenticated
-        if (!Objects.isNull(userEmail) && Objects.isNull(SecurityContextHolder.getContext().getAuthentication())) {
-            // Load user details from the database or other source
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // If the email is not null and the user is not authenticated
+            if (!Objects.isNull(userEmail) && Objects.isNull(SecurityContextHolder.getContext().getAuthentication())) {
+                UserDetails userDetails = loadUser(claims);
 
-            // If the token is valid, authenticate the user
-            if (jwtUtils.isTokenValid(jwt, userDetails)) {
-                // Create an authentication token for the user
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,  // No password information
-                        userDetails.getAuthorities()  // User's roles and permissions
-                );
+                if (!Objects.isNull(userDetails)) {
+                    // Create an authentication token for the user
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,  // No password information
+                            userDetails.getAuthorities()  // User's roles and permissions
+                    );
 
-                // Set the authentication details (e.g., request details)
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    // Set the authentication details (e.g., request details)
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                // Set the security context with the user's authentication
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                    // Set the security context with the user's authentication
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
+                }
             }
+        } finally {
+            sample.stop(meterRegistry.timer("jwt.authentication", "outcome", outcome));
         }
 
         // Continue with the filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Finds the user the verified token was issued to.
+     * In stateless mode the user is built from the token claims and the database is only asked,
+     * through a short-lived cache, whether the user still exists.
+     *
+     * @param claims the claims of the verified token
+     * @return the user details, or null if the user no longer exists
+     */
+    private UserDetails loadUser(Claims claims) {
+        String userEmail = claims.getSubject();
+        if (properties.getMode() == JwtAuthenticationProperties.Mode.STATELESS) {
+            Optional<JwtPrincipal> principal = JwtPrincipal.fromClaims(claims);
+            if (principal.isPresent()) {
+                return detailsService.isUserExists(userEmail) ? principal.get() : null;
+            }
+        }
+        // Load user details from the database and check the token against them
+        UserDetails userDetails = detailsService.loadUserByUsername(userEmail);
+        return jwtUtils.isTokenValid(claims, userDetails) ? userDetails : null;
+    }
 }
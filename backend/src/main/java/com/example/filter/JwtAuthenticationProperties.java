@@ -0,0 +1,33 @@
+package com.example.filter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the JWT authentication, bound from the {@code jwt.authentication} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jwt.authentication")
+public class JwtAuthenticationProperties {
+
+    /**
+     * Where the authenticated user is taken from.
+     */
+    private Mode mode = Mode.DATABASE;
+
+    public enum Mode {
+        /**
+         * Load the user from the database on every request.
+         */
+        DATABASE,
+        /**
+         * Build the user from the ID and roles signed into the token, and only check that the user still exists.
+         * Tokens issued without these claims are still authenticated against the database.
+         * The tokens do not expire, so a change of the roles of a user is not seen until a new token is issued;
+         * deployments opt in to this mode.
+         */
+        STATELESS
+    }
+}
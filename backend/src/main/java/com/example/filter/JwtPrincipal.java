@@ -0,0 +1,81 @@
+package com.example.filter;
+
+import com.example.model.enumeration.Role;
+import com.example.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Authenticated user built from the claims of a JWT token instead of the database.
+ * Carries no password, as the token has already been verified.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JwtPrincipal implements UserDetails {
+
+    /**
+     * Unique identifier for the user.
+     */
+    private final long id;
+
+    /**
+     * User's email.
+     */
+    private final String username;
+
+    /**
+     * User's roles.
+     */
+    private final List<Role> authorities;
+
+    /**
+     * Builds the user from the claims of a verified token.
+     *
+     * @param claims the claims of the token
+     * @return the user, or empty if the token was issued without the user ID or roles
+     */
+    public static Optional<JwtPrincipal> fromClaims(Claims claims) {
+        Long id = claims.get(JwtUtils.USER_ID_CLAIM, Long.class);
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+        if (Objects.isNull(id) || Objects.isNull(roles) || Objects.isNull(claims.getSubject())) {
+            return Optional.empty();
+        }
+        List<Role> authorities = roles.stream()
+                .map(String::valueOf)
+                .map(Role::fromAuthority)
+                .flatMap(Optional::stream)
+                .toList();
+        return Optional.of(new JwtPrincipal(id, claims.getSubject(), authorities));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
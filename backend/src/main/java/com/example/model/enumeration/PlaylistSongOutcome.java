@@ -0,0 +1,31 @@
+package com.example.model.enumeration;
+
+/**
+ * Outcome of adding, removing or moving a single song in a bulk change of a playlist.
+ */
+public enum PlaylistSongOutcome {
+    /**
+     * The song was added to the end of the playlist.
+     */
+    ADDED,
+    /**
+     * The song was removed from the playlist.
+     */
+    REMOVED,
+    /**
+     * The song was put at the requested place in the playlist.
+     */
+    MOVED,
+    /**
+     * The song was not added because it is already in the playlist.
+     */
+    ALREADY_IN_PLAYLIST,
+    /**
+     * The song was not removed or moved because it is not in the playlist.
+     */
+    NOT_IN_PLAYLIST,
+    /**
+     * There is no song with the given ID.
+     */
+    SONG_NOT_FOUND
+}
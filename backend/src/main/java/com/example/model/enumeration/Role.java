@@ -3,6 +3,9 @@ package com.example.model.enumeration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Enumeration representing user roles in the system.
  * Implements the {@link GrantedAuthority} interface, allowing its use in security contexts.
@@ -22,6 +25,15 @@ public enum Role implements GrantedAuthority {
 
     private final String value;
 
+    /**
+     * Find the role with the given string representation.
+     * @param authority the string value of the role, for example {@code ROLE_USER}
+     * @return the role, or empty if there is no role with this value
+     */
+    public static Optional<Role> fromAuthority(String authority) {
+        return Arrays.stream(values()).filter(role -> role.value.equals(authority)).findFirst();
+    }
+
     /**
      * Get the string representation of the role.
      * @return the string value of the role
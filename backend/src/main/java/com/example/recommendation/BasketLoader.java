@@ -0,0 +1,84 @@
+package com.example.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the baskets the {@link CooccurrenceModel} is built from: the songs of every playlist
+ * and the favourite songs of every user.
+ * <p>
+ * Both tables are read in one read-only transaction at the REPEATABLE READ isolation level, and rows
+ * are streamed with the configured fetch size, ordered so that the songs of a basket come one after another.
+ */
+@Slf4j
+public class BasketLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param dataSource         the data source of the playlists and favourites
+     * @param transactionManager the transaction manager of the data source
+     * @param fetchSize          the number of rows fetched from the database at a time
+     */
+    public BasketLoader(DataSource dataSource, PlatformTransactionManager transactionManager, int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * @return the playlists and the favourites of the users as baskets
+     */
+    public Baskets load() {
+        long start = System.nanoTime();
+        Baskets baskets = transactionTemplate.execute(status -> {
+            Baskets.Builder builder = Baskets.builder();
+            jdbcTemplate.query("select playlist_id, song_id from playlist_songs order by playlist_id",
+                    new BasketHandler(builder));
+            jdbcTemplate.query("select person_id, song_id from person_favourite_song order by person_id",
+                    new BasketHandler(builder));
+            return builder.build();
+        });
+        log.info("Loaded {} baskets in {} ms", baskets.count(), (System.nanoTime() - start) / 1_000_000);
+        return baskets;
+    }
+
+    /**
+     * Starts a new basket whenever the key of the rows changes. Rows without a song are skipped.
+     */
+    private static final class BasketHandler implements RowCallbackHandler {
+
+        private final Baskets.Builder builder;
+        private boolean first = true;
+        private int key;
+
+        BasketHandler(Baskets.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int rowKey = rs.getInt(1);
+            if (first || rowKey != key) {
+                builder.next();
+                first = false;
+                key = rowKey;
+            }
+            int songId = rs.getInt(2);
+            if (!rs.wasNull()) {
+                builder.add(songId);
+            }
+        }
+    }
+}
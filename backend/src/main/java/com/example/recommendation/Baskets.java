@@ -0,0 +1,115 @@
+package com.example.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Sets of songs that go together, such as the songs of a playlist or the favourite songs of a user,
+ * from which the {@link CooccurrenceModel} is built.
+ * <p>
+ * The songs of all baskets are stored one basket after the other in a single int array, with the offset
+ * of each basket in another, so millions of baskets are held without an object per basket.
+ */
+public final class Baskets {
+
+    private final int[] offsets;
+    private final int[] songs;
+    private final int count;
+
+    private Baskets(int[] offsets, int[] songs, int count) {
+        this.offsets = offsets;
+        this.songs = songs;
+        this.count = count;
+    }
+
+    /**
+     * @return a builder of baskets
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of baskets
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param basket the index of the basket
+     * @return the number of songs of the basket
+     */
+    public int size(int basket) {
+        return offsets[basket + 1] - offsets[basket];
+    }
+
+    /**
+     * @param basket the index of the basket
+     * @param i      the index of the song within the basket
+     * @return the ID of the song
+     */
+    public int song(int basket, int i) {
+        return songs[offsets[basket] + i];
+    }
+
+    /**
+     * Builder adding the songs of the baskets one basket after the other.
+     * Songs added twice to the same basket are kept once.
+     */
+    public static final class Builder {
+
+        private int[] offsets = new int[1024];
+        private int[] songs = new int[1024];
+        private int count;
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Ends the current basket and starts a new one. A basket with no songs is not kept.
+         *
+         * @return this builder
+         */
+        public Builder next() {
+            if (size > offsets[count]) {
+                int from = offsets[count];
+                Arrays.sort(songs, from, size);
+                int kept = from;
+                for (int i = from; i < size; i++) {
+                    if (i == from || songs[i] != songs[i - 1]) {
+                        songs[kept++] = songs[i];
+                    }
+                }
+                size = kept;
+                if (++count + 1 == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[count] = size;
+            }
+            return this;
+        }
+
+        /**
+         * @param songId the ID of a song of the current basket
+         * @return this builder
+         */
+        public Builder add(int songId) {
+            if (size == songs.length) {
+                songs = Arrays.copyOf(songs, songs.length * 2);
+            }
+            songs[size++] = songId;
+            return this;
+        }
+
+        /**
+         * Ends the current basket and builds the baskets.
+         *
+         * @return the baskets
+         */
+        public Baskets build() {
+            next();
+            return new Baskets(Arrays.copyOf(offsets, count + 1), Arrays.copyOf(songs, size), count);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.recommendation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Item-to-item co-occurrence model: for every song, the songs found most often in the same baskets.
+ * <p>
+ * Each song has a row of at most {@code candidates} other songs with the number of baskets they share,
+ * stored as longs packing the count in the high half and the song ID in the low half, and kept sorted
+ * by decreasing count. The first {@code neighbours} entries of a row are the similar songs, so a lookup
+ * is a hash lookup and a copy of a few ints, whatever the size of the model. Ties go to the lower song ID.
+ * <p>
+ * A full build counts every pair of songs exactly, in parallel, and keeps the best candidates of each row.
+ * The model is then kept up to date one basket change at a time by {@link #added} and {@link #removed}.
+ * As a row cannot hold every song ever paired with its song, a new pair replaces the least frequent
+ * candidate of a full row and starts from its count, as in the Space-Saving algorithm: frequent pairs
+ * stay in the rows, at the price of overestimating the counts of the new ones until the next build.
+ * <p>
+ * Changes are made by one thread at a time under a write lock. Lookups do not lock: they read optimistically
+ * and only read again under the read lock when a change was made meanwhile.
+ */
+public final class CooccurrenceModel {
+
+    private static final int[] NONE = {};
+    private static final int INITIAL_ROW_CAPACITY = 4;
+    private static final int SONGS_PER_TASK = 64;
+
+    private final int candidates;
+    private final int neighbours;
+    private final int maximumBasketSize;
+    private final StampedLock lock = new StampedLock();
+    private final IntRowMap rowOf;
+    private long[][] rows;
+    private int rowCount;
+
+    private CooccurrenceModel(int candidates, int neighbours, int maximumBasketSize,
+                              IntRowMap rowOf, long[][] rows, int rowCount) {
+        this.candidates = candidates;
+        this.neighbours = neighbours;
+        this.maximumBasketSize = maximumBasketSize;
+        this.rowOf = rowOf;
+        this.rows = rows;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @param candidates        the number of songs kept in the row of each song, at least the number of neighbours
+     * @param neighbours        the number of similar songs returned for each song
+     * @param maximumBasketSize the number of songs above which a basket is ignored
+     * @return a model without songs
+     */
+    public static CooccurrenceModel empty(int candidates, int neighbours, int maximumBasketSize) {
+        checkSizes(candidates, neighbours);
+        return new CooccurrenceModel(candidates, neighbours, maximumBasketSize, new IntRowMap(0), new long[16][], 0);
+    }
+
+    /**
+     * Builds the model from all the baskets, counting the pairs of songs of several rows at once
+     * with the given parallelism. Baskets of a single song or of more than the maximum size are ignored.
+     *
+     * @param baskets           the baskets
+     * @param candidates        the number of songs kept in the row of each song, at least the number of neighbours
+     * @param neighbours        the number of similar songs returned for each song
+     * @param maximumBasketSize the number of songs above which a basket is ignored
+     * @param parallelism       the number of threads counting the pairs
+     * @return the model
+     */
+    public static CooccurrenceModel build(Baskets baskets, int candidates, int neighbours, int maximumBasketSize,
+                                          int parallelism) {
+        checkSizes(candidates, neighbours);
+        Build build = new Build(baskets, candidates, maximumBasketSize);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(build.new RowTask(0, build.songIds.length));
+        } finally {
+            // The pool is dropped with the counting arrays of its threads
+            pool.shutdown();
+        }
+        return new CooccurrenceModel(candidates, neighbours, maximumBasketSize,
+                build.rowOf, build.rows, build.songIds.length);
+    }
+
+    /**
+     * @param songId the ID of the song
+     * @param limit  the maximum number of songs to return, capped to the number of neighbours
+     * @return the IDs of the songs most often found in the same baskets as the given one, most frequent first,
+     * or none if the song is not in the model
+     */
+    public int[] similar(long songId, int limit) {
+        int max = Math.min(limit, neighbours);
+        long stamp = lock.tryOptimisticRead();
+        int[] similar = readSimilar(songId, max);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                similar = readSimilar(songId, max);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return similar;
+    }
+
+    private int[] readSimilar(long songId, int max) {
+        // Every read is bounds-checked, as an optimistic read may see the arrays while they are being changed
+        int row = rowOf.get(songId);
+        long[][] rows = this.rows;
+        if (row < 0 || row >= rows.length || rows[row] == null || max <= 0) {
+            return NONE;
+        }
+        long[] entries = rows[row];
+        int size = Math.min(max, size(entries));
+        int[] similar = new int[size];
+        for (int i = 0; i < size; i++) {
+            similar[i] = songId(entries[i]);
+        }
+        return similar;
+    }
+
+    /**
+     * Counts the pairs formed by songs added to a basket. Ignored if the basket has more than the maximum size.
+     *
+     * @param basket the songs of the basket after the change, including the added ones
+     * @param added  the distinct songs added to the basket
+     */
+    public void added(int[] basket, int[] added) {
+        change(basket, added, basket.length, 1);
+    }
+
+    /**
+     * Uncounts the pairs formed by songs removed from a basket. Ignored if the basket had more than the maximum size.
+     *
+     * @param basket  the songs of the basket after the change
+     * @param removed the distinct songs removed from the basket
+     */
+    public void removed(int[] basket, int[] removed) {
+        change(basket, removed, basket.length + removed.length, -1);
+    }
+
+    private void change(int[] basket, int[] changed, int size, int delta) {
+        if (changed.length == 0 || size > maximumBasketSize) {
+            return;
+        }
+        int[] sortedChanged = changed.clone();
+        Arrays.sort(sortedChanged);
+        int[] others = Arrays.stream(basket)
+                .filter(songId -> Arrays.binarySearch(sortedChanged, songId) < 0)
+                .toArray();
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < changed.length; i++) {
+                for (int other : others) {
+                    pair(changed[i], other, delta);
+                }
+                for (int j = i + 1; j < changed.length; j++) {
+                    pair(changed[i], changed[j], delta);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void pair(int songId, int otherId, int delta) {
+        if (songId != otherId) {
+            count(songId, otherId, delta);
+            count(otherId, songId, delta);
+        }
+    }
+
+    private void count(int songId, int otherId, int delta) {
+        int row = rowOf.get(songId);
+        if (row < 0) {
+            if (delta < 0) {
+                return;
+            }
+            row = addRow(songId);
+        }
+        long[] entries = rows[row];
+        int size = size(entries);
+        int at = 0;
+        while (at < size && songId(entries[at]) != otherId) {
+            at++;
+        }
+        if (at < size) {
+            long count = count(entries[at]) + delta;
+            if (count <= 0) {
+                System.arraycopy(entries, at + 1, entries, at, size - at - 1);
+                entries[size - 1] = 0;
+            } else {
+                entries[at] = entry(count, otherId);
+                reorder(entries, at, size);
+            }
+        } else if (delta > 0) {
+            if (size == entries.length && size < candidates) {
+                entries = Arrays.copyOf(entries, Math.min(candidates, Math.max(INITIAL_ROW_CAPACITY, size * 2)));
+                rows[row] = entries;
+            }
+            if (size < entries.length) {
+                entries[size] = entry(delta, otherId);
+                reorder(entries, size, size + 1);
+            } else {
+                // The least frequent candidate makes room for the new one, which inherits its count
+                entries[size - 1] = entry(count(entries[size - 1]) + delta, otherId);
+                reorder(entries, size - 1, size);
+            }
+        }
+    }
+
+    private int addRow(int songId) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[rowCount] = new long[Math.min(INITIAL_ROW_CAPACITY, candidates)];
+        rowOf.put(songId, rowCount);
+        return rowCount++;
+    }
+
+    /**
+     * @return the number of songs with a row
+     */
+    public int songs() {
+        long stamp = lock.readLock();
+        try {
+            return rowCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return an estimate of the number of bytes held by the model, with compressed references
+     */
+    public long estimateBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = rowOf.estimateBytes() + 16 + (long) rows.length * 4;
+            for (int row = 0; row < rowCount; row++) {
+                bytes += 16 + (long) rows[row].length * Long.BYTES;
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Moves the entry at the given index to keep the row sorted by decreasing entry.
+     */
+    private static void reorder(long[] entries, int at, int size) {
+        while (at > 0 && entries[at - 1] < entries[at]) {
+            swap(entries, at - 1, at);
+            at--;
+        }
+        while (at + 1 < size && entries[at + 1] > entries[at]) {
+            swap(entries, at, at + 1);
+            at++;
+        }
+    }
+
+    private static void swap(long[] entries, int i, int j) {
+        long entry = entries[i];
+        entries[i] = entries[j];
+        entries[j] = entry;
+    }
+
+    /**
+     * @return the number of entries of a row, which ends at its first zero entry
+     */
+    private static int size(long[] entries) {
+        int size = 0;
+        while (size < entries.length && entries[size] != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Packs a count and a song ID so that entries sort by count, then by lower song ID. The entry is never zero,
+     * as the count is at least one.
+     */
+    private static long entry(long count, int songId) {
+        return Math.min(count, Integer.MAX_VALUE) << 32 | (~songId & 0xFFFFFFFFL);
+    }
+
+    private static long count(long entry) {
+        return entry >>> 32;
+    }
+
+    private static int songId(long entry) {
+        return ~(int) entry;
+    }
+
+    private static void checkSizes(int candidates, int neighbours) {
+        if (neighbours < 1 || candidates < neighbours) {
+            throw new IllegalArgumentException("Expected 1 <= neighbours <= candidates, got " + neighbours
+                    + " neighbours and " + candidates + " candidates");
+        }
+    }
+
+    /**
+     * State of a full build. Songs are numbered densely in ascending order of ID, and both the songs of each basket
+     * and the baskets of each song are stored as offsets into a single int array.
+     */
+    private static final class Build {
+
+        private final int candidates;
+        private final int[] songIds;
+        private final IntRowMap rowOf;
+        private final int[] basketOffsets;
+        private final int[] basketSongs;
+        private final int[] songOffsets;
+        private final int[] songBaskets;
+        private final long[][] rows;
+        private final ThreadLocal<Counts> counts;
+
+        Build(Baskets baskets, int candidates, int maximumBasketSize) {
+            this.candidates = candidates;
+            int kept = 0;
+            int total = 0;
+            for (int basket = 0; basket < baskets.count(); basket++) {
+                int size = baskets.size(basket);
+                if (size > 1 && size <= maximumBasketSize) {
+                    kept++;
+                    total += size;
+                }
+            }
+            basketOffsets = new int[kept + 1];
+            basketSongs = new int[total];
+            for (int basket = 0, next = 0, at = 0; basket < baskets.count(); basket++) {
+                int size = baskets.size(basket);
+                if (size > 1 && size <= maximumBasketSize) {
+                    for (int i = 0; i < size; i++) {
+                        basketSongs[at++] = baskets.song(basket, i);
+                    }
+                    basketOffsets[++next] = at;
+                }
+            }
+
+            songIds = Arrays.stream(basketSongs).sorted().distinct().toArray();
+            rowOf = new IntRowMap(songIds.length);
+            for (int row = 0; row < songIds.length; row++) {
+                rowOf.put(songIds[row], row);
+            }
+            for (int i = 0; i < basketSongs.length; i++) {
+                basketSongs[i] = rowOf.get(basketSongs[i]);
+            }
+
+            songOffsets = new int[songIds.length + 1];
+            for (int song : basketSongs) {
+                songOffsets[song + 1]++;
+            }
+            for (int song = 0; song < songIds.length; song++) {
+                songOffsets[song + 1] += songOffsets[song];
+            }
+            songBaskets = new int[basketSongs.length];
+            int[] filled = Arrays.copyOf(songOffsets, songIds.length);
+            for (int basket = 0; basket < kept; basket++) {
+                for (int i = basketOffsets[basket]; i < basketOffsets[basket + 1]; i++) {
+                    songBaskets[filled[basketSongs[i]]++] = basket;
+                }
+            }
+
+            rows = new long[Math.max(16, songIds.length)][];
+            counts = ThreadLocal.withInitial(() -> new Counts(songIds.length, candidates));
+        }
+
+        /**
+         * Counts the songs sharing a basket with the given one, then keeps the most frequent in its row.
+         */
+        private void buildRow(int song) {
+            Counts scratch = counts.get();
+            int[] count = scratch.counts;
+            int touched = 0;
+            for (int i = songOffsets[song]; i < songOffsets[song + 1]; i++) {
+                int basket = songBaskets[i];
+                for (int j = basketOffsets[basket]; j < basketOffsets[basket + 1]; j++) {
+                    int other = basketSongs[j];
+                    if (other != song && count[other]++ == 0) {
+                        touched = scratch.touch(touched, other);
+                    }
+                }
+            }
+
+            // Min-heap of the best entries so far, whose root is the first to be replaced
+            long[] heap = scratch.heap;
+            int size = 0;
+            for (int i = 0; i < touched; i++) {
+                int other = scratch.touched[i];
+                long entry = entry(count[other], songIds[other]);
+                count[other] = 0;
+                if (size < candidates) {
+                    heap[size] = entry;
+                    siftUp(heap, size++);
+                } else if (entry > heap[0]) {
+                    heap[0] = entry;
+                    siftDown(heap, size);
+                }
+            }
+            long[] row = Arrays.copyOf(heap, size);
+            Arrays.sort(row);
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                swap(row, i, j);
+            }
+            rows[song] = row;
+        }
+
+        private static void siftUp(long[] heap, int at) {
+            while (at > 0 && heap[(at - 1) / 2] > heap[at]) {
+                swap(heap, (at - 1) / 2, at);
+                at = (at - 1) / 2;
+            }
+        }
+
+        private static void siftDown(long[] heap, int size) {
+            int at = 0;
+            while (true) {
+                int smallest = at;
+                int left = 2 * at + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (left + 1 < size && heap[left + 1] < heap[smallest]) {
+                    smallest = left + 1;
+                }
+                if (smallest == at) {
+                    return;
+                }
+                swap(heap, at, smallest);
+                at = smallest;
+            }
+        }
+
+        /**
+         * Builds the rows of a range of songs, splitting the range until it is small enough.
+         * Popular songs share many baskets and cost the most, so ranges are kept small for the idle
+         * threads to steal the remaining ones.
+         */
+        private final class RowTask extends RecursiveAction {
+
+            private final int from;
+            private final int to;
+
+            RowTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= SONGS_PER_TASK) {
+                    for (int song = from; song < to; song++) {
+                        buildRow(song);
+                    }
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(from, middle), new RowTask(middle, to));
+            }
+        }
+    }
+
+    /**
+     * Counting arrays of one build thread, sized for every song, cleared after each row.
+     */
+    private static final class Counts {
+
+        private final int[] counts;
+        private final long[] heap;
+        private int[] touched = new int[1024];
+
+        Counts(int songs, int candidates) {
+            counts = new int[songs];
+            heap = new long[candidates];
+        }
+
+        int touch(int touchedCount, int song) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touched.length * 2);
+            }
+            touched[touchedCount] = song;
+            return touchedCount + 1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.recommendation;
+
+/**
+ * Map from song IDs to the rows of a {@link CooccurrenceModel}, with open addressing and linear probing.
+ * The table grows to stay at most half full.
+ * <p>
+ * Keys and rows are interleaved in a single array, replaced as a whole when the table grows, so a reader
+ * racing with the writer always probes a consistent array, even if it may miss a key that is being added.
+ * The row is stored plus one, so that zero marks a free slot.
+ */
+final class IntRowMap {
+
+    private int[] table;
+    private int size;
+
+    /**
+     * @param expected the expected number of keys
+     */
+    IntRowMap(int expected) {
+        table = new int[2 * capacity(expected)];
+    }
+
+    /**
+     * @param songId the ID of the song
+     * @return the row of the song, or -1 if it has none
+     */
+    int get(long songId) {
+        if (songId < Integer.MIN_VALUE || songId > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int key = (int) songId;
+        int[] table = this.table;
+        int mask = table.length / 2 - 1;
+        for (int slot = slot(key, mask); table[2 * slot + 1] != 0; slot = (slot + 1) & mask) {
+            if (table[2 * slot] == key) {
+                return table[2 * slot + 1] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Maps a song to a row. Must not be called for a song that already has one.
+     *
+     * @param songId the ID of the song
+     * @param row    the row of the song
+     */
+    void put(int songId, int row) {
+        if (2 * (size + 1) > table.length / 2) {
+            grow();
+        }
+        insert(table, songId, row + 1);
+        size++;
+    }
+
+    /**
+     * @return the number of bytes of the table
+     */
+    long estimateBytes() {
+        return (long) table.length * Integer.BYTES;
+    }
+
+    private void grow() {
+        int[] grown = new int[table.length * 2];
+        for (int slot = 0; slot < table.length / 2; slot++) {
+            if (table[2 * slot + 1] != 0) {
+                insert(grown, table[2 * slot], table[2 * slot + 1]);
+            }
+        }
+        table = grown;
+    }
+
+    private static void insert(int[] table, int key, int value) {
+        int mask = table.length / 2 - 1;
+        int slot = slot(key, mask);
+        while (table[2 * slot + 1] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[2 * slot] = key;
+        table[2 * slot + 1] = value;
+    }
+
+    private static int capacity(int expected) {
+        return Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+    }
+
+    private static int slot(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.recommendation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the song recommendations, bound from the {@code recommendations} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recommendations")
+public class RecommendationProperties {
+
+    /**
+     * Whether the co-occurrence model is built and similar songs are returned. When disabled, no song has any.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of similar songs kept ready for each song, which is the most a request can get.
+     */
+    private int neighbours = 10;
+
+    /**
+     * Number of songs tracked for each song, of which the most frequent are its similar songs.
+     * More candidates keep the similar songs accurate for longer between two builds, at the cost of memory.
+     */
+    private int candidates = 30;
+
+    /**
+     * Number of songs above which a playlist or the favourites of a user are ignored. The pairs of a basket grow
+     * with the square of its size, and a huge basket says little about which songs go together.
+     */
+    private int maximumBasketSize = 500;
+
+    /**
+     * Time between two full builds of the model, which drop the drift of the incremental updates
+     * and take in the changes made on other instances.
+     */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /**
+     * Number of threads of a full build.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of basket changes waiting to be applied above which new ones are dropped until the next build.
+     */
+    private int maximumPendingUpdates = 10_000;
+
+    /**
+     * Number of rows fetched from the database at a time while loading the baskets.
+     */
+    private int fetchSize = 10_000;
+}
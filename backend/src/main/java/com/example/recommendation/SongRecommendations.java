@@ -0,0 +1,264 @@
+package com.example.recommendation;
+
+import com.example.repository.PlaylistRepository;
+import com.example.repository.SongRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link CooccurrenceModel} of the songs, rebuilds it at a fixed interval or on request,
+ * and applies the changes of the playlists and favourites to it in between.
+ * <p>
+ * Builds and changes run one after another on a single thread, so a change made while a build is running
+ * is applied to the new model once it replaces the previous one. A change is applied after its transaction
+ * commits, reading the songs of the basket again, so requests never wait for the model. Changes made while
+ * a build is loading the baskets may be counted twice, and changes made on other instances are only seen
+ * at the next build. Until the first model is built, and when recommendations are disabled, no song has
+ * any similar song.
+ */
+@Slf4j
+public class SongRecommendations implements AutoCloseable {
+
+    private static final int[] NONE = {};
+
+    private final BasketLoader loader;
+    private final PlaylistRepository playlistRepository;
+    private final SongRepository songRepository;
+    private final RecommendationProperties properties;
+    private final AtomicReference<CooccurrenceModel> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicInteger pendingUpdates = new AtomicInteger();
+    private volatile ScheduledExecutorService executor;
+
+    /**
+     * @param loader             the loader of the baskets, or null if recommendations are disabled
+     * @param playlistRepository the repository the songs of a changed playlist are read from
+     * @param songRepository     the repository the favourites of a user are read from
+     * @param properties         the recommendation configuration
+     */
+    public SongRecommendations(BasketLoader loader, PlaylistRepository playlistRepository,
+                               SongRepository songRepository, RecommendationProperties properties) {
+        this.loader = loader;
+        this.playlistRepository = playlistRepository;
+        this.songRepository = songRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * @return recommendations that never have a model
+     */
+    public static SongRecommendations disabled() {
+        return new SongRecommendations(null, null, null, null);
+    }
+
+    /**
+     * @return the current model, or empty if none is built
+     */
+    public Optional<CooccurrenceModel> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Replaces the current model.
+     *
+     * @param model the new model
+     */
+    public void install(CooccurrenceModel model) {
+        current.set(model);
+    }
+
+    /**
+     * @param songId the ID of the song
+     * @param limit  the maximum number of songs to return
+     * @return the IDs of the songs most often found with the given one, most frequent first
+     */
+    public int[] similar(long songId, int limit) {
+        CooccurrenceModel model = current.get();
+        return model == null ? NONE : model.similar(songId, limit);
+    }
+
+    /**
+     * Builds a new model from all the baskets and replaces the current one with it.
+     * Does nothing if recommendations are disabled.
+     */
+    public void rebuild() {
+        if (loader == null) {
+            return;
+        }
+        Baskets baskets = loader.load();
+        long start = System.nanoTime();
+        CooccurrenceModel model = CooccurrenceModel.build(baskets, properties.getCandidates(),
+                properties.getNeighbours(), properties.getMaximumBasketSize(), properties.getParallelism());
+        install(model);
+        log.info("Built the recommendations of {} songs in {} ms", model.songs(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Starts a new build, unless one is already waiting to start.
+     *
+     * @return false if recommendations are disabled or not started yet, otherwise true
+     */
+    public boolean requestRebuild() {
+        ScheduledExecutorService executor = this.executor;
+        if (executor == null) {
+            return false;
+        }
+        if (rebuildRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildRequested.set(false);
+                rebuildSafely();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Counts the songs added to a playlist and uncounts the ones removed from it once the current transaction commits.
+     *
+     * @param playlistId the ID of the playlist
+     * @param added      the IDs of the songs that were added
+     * @param removed    the IDs of the songs that were removed
+     */
+    public void playlistSongsChanged(long playlistId, Collection<Long> added, Collection<Long> removed) {
+        update(() -> ids(playlistRepository.findAllSongIds(playlistId)), added, removed);
+    }
+
+    /**
+     * Counts a song added to the favourites of a user once the current transaction commits.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     */
+    public void favouriteAdded(long userId, long songId) {
+        update(() -> ids(songRepository.findFavouriteSongIds(userId)), List.of(songId), List.of());
+    }
+
+    /**
+     * Uncounts a song removed from the favourites of a user once the current transaction commits.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     */
+    public void favouriteRemoved(long userId, long songId) {
+        update(() -> ids(songRepository.findFavouriteSongIds(userId)), List.of(), List.of(songId));
+    }
+
+    private void update(Supplier<int[]> basket, Collection<Long> addedIds, Collection<Long> removedIds) {
+        if (executor == null || (addedIds.isEmpty() && removedIds.isEmpty())) {
+            return;
+        }
+        int[] added = addedIds.stream().mapToInt(Math::toIntExact).toArray();
+        int[] removed = removedIds.stream().mapToInt(Math::toIntExact).toArray();
+        Runnable enqueue = () -> {
+            ScheduledExecutorService executor = this.executor;
+            if (executor == null) {
+                return;
+            }
+            if (pendingUpdates.incrementAndGet() > properties.getMaximumPendingUpdates()) {
+                pendingUpdates.decrementAndGet();
+                log.debug("Too many pending recommendation updates, leaving the change to the next build");
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    pendingUpdates.decrementAndGet();
+                    apply(basket, added, removed);
+                });
+            } catch (RejectedExecutionException e) {
+                // The application is shutting down
+                pendingUpdates.decrementAndGet();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue.run();
+            }
+        });
+    }
+
+    /**
+     * Applies a change to the current model, removals first: the removed songs are uncounted against
+     * the basket as it was before the songs were added.
+     */
+    private void apply(Supplier<int[]> basket, int[] added, int[] removed) {
+        CooccurrenceModel model = current.get();
+        if (model == null) {
+            return;
+        }
+        try {
+            int[] songs = basket.get();
+            if (removed.length > 0) {
+                Set<Integer> addedSongs = Arrays.stream(added).boxed().collect(Collectors.toSet());
+                model.removed(Arrays.stream(songs).filter(songId -> !addedSongs.contains(songId)).toArray(), removed);
+            }
+            if (added.length > 0) {
+                model.added(songs, added);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update the recommendations, leaving the change to the next build", e);
+        }
+    }
+
+    private static int[] ids(List<? extends Number> songIds) {
+        return songIds.stream().mapToInt(Number::intValue).toArray();
+    }
+
+    /**
+     * Builds the first model once the application has started, then schedules the rebuilds.
+     * Until the first model is built, no song has any similar song.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (loader == null || executor != null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("recommendations-");
+        threadFactory.setDaemon(true);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::rebuildSafely, 0, properties.getRebuildInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to build the recommendations, keeping the previous ones", e);
+        }
+    }
+
+    /**
+     * Stops the builds and the updates.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -12,7 +12,7 @@ import java.util.Optional;
  * Repository for working with the {@link Album} entity.
  * This interface provides methods for performing various operations on album data.
  */
-public interface AlbumRepository extends Repository<Album, Long> {
+public interface AlbumRepository extends Repository<Album, Long>, CatalogRepository<Album> {
 
     /**
      * Find an album by its ID.
@@ -23,6 +23,40 @@ public interface AlbumRepository extends Repository<Album, Long> {
     @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE album_id = :albumId")
     Optional<Album> findById(@Param("albumId") long albumId);
 
+    /**
+     * Find an album together with its creator and songs, in a single query.
+     *
+     * @param albumId the ID of the album
+     * @return a list holding the album with its songs, or an empty list if the album is not found
+     */
+    @Query(value = "select album.*, creator.nickname as album_creator_name, song.song_id, song.song_name, song.song_url, " +
+            "performer.nickname as artist_name, jenre.jenre_name as jenre_name from album " +
+            "join artist as creator on creator.artist_id = album.album_creator " +
+            "left join album_songs on album_songs.album_id = album.album_id " +
+            "left join song on song.song_id = album_songs.song_id " +
+            "left join artist as performer on performer.artist_id = song.artist_id " +
+            "left join jenre on jenre.jenre_id = song.jenre_id " +
+            "where album.album_id = :albumId order by album_songs.id",
+            resultSetExtractorClass = AlbumSongsExtractor.class)
+    List<AlbumSongs> findWithSongsById(@Param("albumId") long albumId);
+
+    /**
+     * Find albums by their IDs together with their songs, in a single query.
+     *
+     * @param albumIds the IDs of the albums
+     * @return the albums with the given IDs and their songs, in the order of the album IDs; IDs without an album are skipped
+     */
+    @Query(value = "select album.*, creator.nickname as album_creator_name, song.song_id, song.song_name, song.song_url, " +
+            "performer.nickname as artist_name, jenre.jenre_name as jenre_name from album " +
+            "join artist as creator on creator.artist_id = album.album_creator " +
+            "left join album_songs on album_songs.album_id = album.album_id " +
+            "left join song on song.song_id = album_songs.song_id " +
+            "left join artist as performer on performer.artist_id = song.artist_id " +
+            "left join jenre on jenre.jenre_id = song.jenre_id " +
+            "where album.album_id = any(cast(:albumIds as int[])) order by album.album_id, album_songs.id",
+            resultSetExtractorClass = AlbumSongsExtractor.class)
+    List<AlbumSongs> findAllWithSongsByIds(@Param("albumIds") long[] albumIds);
+
     /**
      * Count the total number of albums in the database.
      *
@@ -32,12 +66,20 @@ public interface AlbumRepository extends Repository<Album, Long> {
     int count();
 
     /**
-     * Count the number of albums whose name contains the given string.
+     * Estimate the total number of albums from the planner statistics of the table, without scanning it.
+     *
+     * @return the estimated number of albums, or a negative number if the table has never been analyzed
+     */
+    @Query("select reltuples::int from pg_class where oid = 'album'::regclass")
+    int estimateCount();
+
+    /**
+     * Count the number of albums whose name contains the given string, ignoring case.
      *
      * @param name part of the album name to search for
      * @return the number of albums whose name contains the given string
      */
-    @Query("select count(*) from album where name like '%' || :name || '%' ")
+    @Query("select count(*) from album where name ilike '%' || :name || '%' ")
     int countByNameContaining(String name);
 
     /**
@@ -46,20 +88,42 @@ public interface AlbumRepository extends Repository<Album, Long> {
      * @param artistId the ID of the artist
      * @return a list of albums created by the given artist
      */
-    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE creator_id = :artistId")
+    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE album_creator = :artistId")
     List<Album> findByArtistId(@Param("artistId") long artistId);
 
     /**
-     * Find albums whose name contains the given string, with the option to specify
-     * a limit and offset for pagination.
+     * Find albums whose name contains the given string, ignoring case, together with
+     * the number of all matching albums, with the option to specify a limit and offset for pagination.
      *
      * @param name part of the album name to search for
      * @param offset the offset for pagination
      * @param limit the limit of results
+     * @return a page of albums whose name contains the given string, each with the total count
+     */
+    @Query(value = "select album.*, artist.nickname as album_creator_name, count(*) over() as total_count from album join artist on album_creator=artist_id WHERE name ilike '%' || :name || '%' ORDER BY album_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Albums.class)
+    List<Counted<Album>> findByNameContainingWithCount(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Find albums whose name contains the given string, ignoring case, that follow the given ID,
+     * in the order of their IDs. Used for keyset pagination.
+     *
+     * @param name the string to search in the album names
+     * @param afterId the ID of the last album of the previous page
+     * @param limit the limit of results
      * @return a list of albums whose name contains the given string
      */
-    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE name like '%' || :name || '%' LIMIT :limit OFFSET :offset")
-    List<Album> findByNameContaining(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE name ilike '%' || :name || '%' AND album_id > :afterId ORDER BY album_id LIMIT :limit")
+    List<Album> findByNameContainingAfter(@Param("name") String name, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Retrieve all albums with pagination, together with the total number of albums.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return a page of albums, each with the total count
+     */
+    @Query(value = "select album.*, artist.nickname as album_creator_name, count(*) over() as total_count from album join artist on album_creator=artist_id ORDER BY album_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Albums.class)
+    List<Counted<Album>> findAllWithCount(@Param("offset") int offset, @Param("limit") int limit);
 
     /**
      * Retrieve all albums with the option to specify a limit and offset for pagination.
@@ -68,6 +132,16 @@ public interface AlbumRepository extends Repository<Album, Long> {
      * @param limit the limit of results
      * @return a list of all albums
      */
-    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id LIMIT :limit OFFSET :offset")
+    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id ORDER BY album_id LIMIT :limit OFFSET :offset")
     List<Album> findAll(@Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Retrieve the albums that follow the given ID, in the order of their IDs. Used for keyset pagination.
+     *
+     * @param afterId the ID of the last album of the previous page
+     * @param limit the limit of results
+     * @return a list of albums
+     */
+    @Query("select album.*, artist.nickname as album_creator_name from album join artist on album_creator=artist_id WHERE album_id > :afterId ORDER BY album_id LIMIT :limit")
+    List<Album> findAllAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 }
@@ -0,0 +1,17 @@
+package com.example.repository;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Song;
+
+import java.util.List;
+
+/**
+ * Album together with its creator and songs, read by a single query.
+ *
+ * @param album the album
+ * @param creator the artist who created the album
+ * @param songs the songs of the album, in the order they were added to it
+ */
+public record AlbumSongs(Album album, Artist creator, List<Song> songs) {
+}
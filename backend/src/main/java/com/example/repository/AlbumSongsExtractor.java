@@ -0,0 +1,46 @@
+package com.example.repository;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Song;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the rows of a query joining albums with their songs into {@link AlbumSongs}.
+ * The rows must be ordered by album, and an album without songs must come as a single row
+ * with a null {@code song_id}, as a left join produces. Columns are mapped to the properties
+ * of {@link Album} and {@link Song} by name, and the creator is read from {@code album_creator}
+ * and {@code album_creator_name}.
+ */
+public class AlbumSongsExtractor implements ResultSetExtractor<List<AlbumSongs>> {
+
+    private final RowMapper<Album> albumMapper = new BeanPropertyRowMapper<>(Album.class);
+    private final RowMapper<Song> songMapper = new BeanPropertyRowMapper<>(Song.class);
+
+    @Override
+    public List<AlbumSongs> extractData(ResultSet rs) throws SQLException {
+        List<AlbumSongs> albums = new ArrayList<>();
+        AlbumSongs current = null;
+        int rowNum = 0;
+        while (rs.next()) {
+            long albumId = rs.getLong("album_id");
+            if (current == null || current.album().getAlbumId() != albumId) {
+                Artist creator = new Artist(rs.getLong("album_creator"), rs.getString("album_creator_name"));
+                current = new AlbumSongs(albumMapper.mapRow(rs, rowNum), creator, new ArrayList<>());
+                albums.add(current);
+            }
+            if (rs.getObject("song_id") != null) {
+                current.songs().add(songMapper.mapRow(rs, rowNum));
+            }
+            rowNum++;
+        }
+        return albums;
+    }
+}
@@ -12,7 +12,7 @@ import java.util.Optional;
  * Repository for working with the {@link Artist} entity.
  * This interface provides methods for performing various operations on artist data.
  */
-public interface ArtistRepository extends Repository<Artist, Long> {
+public interface ArtistRepository extends Repository<Artist, Long>, CatalogRepository<Artist> {
 
     /**
      * Find an artist by their ID.
@@ -23,6 +23,15 @@ public interface ArtistRepository extends Repository<Artist, Long> {
     @Query("SELECT * FROM artist WHERE artist_id = :artistId")
     Optional<Artist> findById(@Param("artistId") long artistId);
 
+    /**
+     * Find artists by their IDs.
+     *
+     * @param artistIds the IDs of the artists
+     * @return the artists with the given IDs, in no particular order; IDs without an artist are skipped
+     */
+    @Query("SELECT * FROM artist WHERE artist_id = any(cast(:artistIds as int[]))")
+    List<Artist> findAllByIds(@Param("artistIds") long[] artistIds);
+
     /**
      * Count the total number of artists in the database.
      *
@@ -32,25 +41,55 @@ public interface ArtistRepository extends Repository<Artist, Long> {
     int count();
 
     /**
-     * Count the number of artists whose name (or nickname) contains the given string.
+     * Estimate the total number of artists from the planner statistics of the table, without scanning it.
+     *
+     * @return the estimated number of artists, or a negative number if the table has never been analyzed
+     */
+    @Query("select reltuples::int from pg_class where oid = 'artist'::regclass")
+    int estimateCount();
+
+    /**
+     * Count the number of artists whose name (or nickname) contains the given string, ignoring case.
      *
      * @param name part of the artist's name to search for
      * @return the number of artists whose name contains the given string
      */
-    @Query("select count(*) from artist where nickname like '%' || :name || '%' ")
+    @Query("select count(*) from artist where nickname ilike '%' || :name || '%' ")
     int countByNameContaining(String name);
 
     /**
-     * Find artists whose name contains the given string, with the option to specify
-     * a limit and offset for pagination.
+     * Find artists whose name contains the given string, ignoring case, together with
+     * the number of all matching artists, with the option to specify a limit and offset for pagination.
      *
      * @param name part of the artist's name to search for
      * @param offset the offset for pagination
      * @param limit the limit of results
+     * @return a page of artists whose name contains the given string, each with the total count
+     */
+    @Query(value = "SELECT *, count(*) over() AS total_count FROM artist WHERE nickname ilike '%' || :name || '%' ORDER BY artist_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Artists.class)
+    List<Counted<Artist>> findByNameContainingWithCount(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Find artists whose name contains the given string, ignoring case, that follow the given ID,
+     * in the order of their IDs. Used for keyset pagination.
+     *
+     * @param name the string to search in the artist names
+     * @param afterId the ID of the last artist of the previous page
+     * @param limit the limit of results
      * @return a list of artists whose name contains the given string
      */
-    @Query("SELECT * FROM artist WHERE nickname LIKE '%' || :name || '%' LIMIT :limit OFFSET :offset")
-    List<Artist> findByNameContaining(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+    @Query("SELECT * FROM artist WHERE nickname ilike '%' || :name || '%' AND artist_id > :afterId ORDER BY artist_id LIMIT :limit")
+    List<Artist> findByNameContainingAfter(@Param("name") String name, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Retrieve all artists with pagination, together with the total number of artists.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return a page of artists, each with the total count
+     */
+    @Query(value = "SELECT *, count(*) over() AS total_count FROM artist ORDER BY artist_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Artists.class)
+    List<Counted<Artist>> findAllWithCount(@Param("offset") int offset, @Param("limit") int limit);
 
     /**
      * Retrieve all artists with the option to specify a limit and offset for pagination.
@@ -59,6 +98,16 @@ public interface ArtistRepository extends Repository<Artist, Long> {
      * @param limit the limit of results
      * @return a list of all artists
      */
-    @Query("SELECT * FROM artist LIMIT :limit OFFSET :offset")
+    @Query("SELECT * FROM artist ORDER BY artist_id LIMIT :limit OFFSET :offset")
     List<Artist> findAll(@Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Retrieve the artists that follow the given ID, in the order of their IDs. Used for keyset pagination.
+     *
+     * @param afterId the ID of the last artist of the previous page
+     * @param limit the limit of results
+     * @return a list of artists
+     */
+    @Query("SELECT * FROM artist WHERE artist_id > :afterId ORDER BY artist_id LIMIT :limit")
+    List<Artist> findAllAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 }
@@ -0,0 +1,83 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * Queries shared by the repositories of the searchable catalog entities (songs, albums, artists and playlists).
+ * Each repository declares the SQL of these methods with {@code @Query}; this interface lets the search
+ * and pagination logic be written once.
+ *
+ * @param <T> the type of the entity
+ */
+public interface CatalogRepository<T> {
+
+    /**
+     * Count all entities exactly.
+     *
+     * @return the number of entities
+     */
+    int count();
+
+    /**
+     * Estimate the number of entities from the planner statistics, without scanning the table.
+     *
+     * @return the estimated number of entities, or a negative number if the table has never been analyzed
+     */
+    int estimateCount();
+
+    /**
+     * Count the entities whose name contains the given string, ignoring case.
+     *
+     * @param name the string to search in the names
+     * @return the number of matching entities
+     */
+    int countByNameContaining(String name);
+
+    /**
+     * Find a page of entities whose name contains the given string, ignoring case,
+     * together with the total number of matching entities.
+     *
+     * @param name the string to search in the names
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return the entities of the page with the total count
+     */
+    List<Counted<T>> findByNameContainingWithCount(String name, int offset, int limit);
+
+    /**
+     * Find a page of entities together with the total number of entities.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return the entities of the page with the total count
+     */
+    List<Counted<T>> findAllWithCount(int offset, int limit);
+
+    /**
+     * Find a page of entities without counting them.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return the entities of the page
+     */
+    List<T> findAll(int offset, int limit);
+
+    /**
+     * Find entities whose name contains the given string, ignoring case, that follow the given ID.
+     *
+     * @param name the string to search in the names
+     * @param afterId the ID of the last entity of the previous page
+     * @param limit the limit of results
+     * @return the entities of the page
+     */
+    List<T> findByNameContainingAfter(String name, long afterId, int limit);
+
+    /**
+     * Find the entities that follow the given ID.
+     *
+     * @param afterId the ID of the last entity of the previous page
+     * @param limit the limit of results
+     * @return the entities of the page
+     */
+    List<T> findAllAfter(long afterId, int limit);
+}
@@ -0,0 +1,25 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * Row of a paged query together with the total number of rows matching the query,
+ * computed by the database with {@code count(*) over()} in the same statement.
+ *
+ * @param value      the mapped row
+ * @param totalCount the number of rows matching the query before LIMIT and OFFSET
+ * @param <T>        the type of the row
+ */
+public record Counted<T>(T value, int totalCount) {
+
+    /**
+     * Extracts the mapped rows of a page.
+     *
+     * @param rows the rows of the page
+     * @param <T>  the type of the rows
+     * @return the rows without their counts
+     */
+    public static <T> List<T> values(List<Counted<T>> rows) {
+        return rows.stream().map(Counted::value).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.repository;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Playlist;
+import com.example.model.entity.Song;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the rows of a query selecting {@code count(*) over() as total_count} next to the columns of an entity.
+ * The entity columns are mapped to its properties by name, as Spring Data JDBC does for plain queries.
+ * The nested subclasses exist because {@code @Query(rowMapperClass = ...)} needs a class with a no-argument constructor.
+ *
+ * @param <T> the type of the entity
+ */
+public abstract class CountedRowMapper<T> implements RowMapper<Counted<T>> {
+
+    /**
+     * Name of the column holding the total number of matching rows.
+     */
+    public static final String TOTAL_COUNT_COLUMN = "total_count";
+
+    private final RowMapper<T> entityMapper;
+
+    protected CountedRowMapper(Class<T> entityClass) {
+        this.entityMapper = new BeanPropertyRowMapper<>(entityClass);
+    }
+
+    @Override
+    public Counted<T> mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Counted<>(entityMapper.mapRow(rs, rowNum), rs.getInt(TOTAL_COUNT_COLUMN));
+    }
+
+    public static class Songs extends CountedRowMapper<Song> {
+        public Songs() {
+            super(Song.class);
+        }
+    }
+
+    public static class Albums extends CountedRowMapper<Album> {
+        public Albums() {
+            super(Album.class);
+        }
+    }
+
+    public static class Artists extends CountedRowMapper<Artist> {
+        public Artists() {
+            super(Artist.class);
+        }
+    }
+
+    public static class Playlists extends CountedRowMapper<Playlist> {
+        public Playlists() {
+            super(Playlist.class);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for working with the {@link Playlist} entity.
@@ -14,18 +15,31 @@ import java.util.List;
  * such as searching by name, counting, and adding/removing songs from playlists.
  */
 @RepositoryDefinition(domainClass = Playlist.class, idClass = Long.class)
-public interface PlaylistRepository {
+public interface PlaylistRepository extends CatalogRepository<Playlist> {
 
     /**
-     * Find playlists whose name contains the given string.
+     * Find playlists whose name contains the given string, ignoring case,
+     * together with the number of all matching playlists.
      *
      * @param name the string to search in the playlist names
      * @param offset the offset for pagination
      * @param limit the limit of results
+     * @return a page of playlists whose name contains the given string, each with the total count
+     */
+    @Query(value = "select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time, count(*) over() as total_count from playlist join person on creator_id=person_id  where playlist_name ilike '%' || :name || '%' order by playlist_id limit :limit offset :offset", rowMapperClass = CountedRowMapper.Playlists.class)
+    List<Counted<Playlist>> findByNameContainingWithCount(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Find playlists whose name contains the given string, ignoring case, that follow the given ID,
+     * in the order of their IDs. Used for keyset pagination.
+     *
+     * @param name the string to search in the playlist names
+     * @param afterId the ID of the last playlist of the previous page
+     * @param limit the limit of results
      * @return a list of playlists whose name contains the given string
      */
-    @Query("select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time from playlist join person on creator_id=person_id  where playlist_name like '%' || :name || '%' limit :limit offset :offset")
-    List<Playlist> findByNameContaining(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+    @Query("select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time from playlist join person on creator_id=person_id  where playlist_name ilike '%' || :name || '%' and playlist_id > :afterId order by playlist_id limit :limit")
+    List<Playlist> findByNameContainingAfter(@Param("name") String name, @Param("afterId") long afterId, @Param("limit") int limit);
 
     /**
      * Count the total number of playlists in the database.
@@ -36,14 +50,32 @@ public interface PlaylistRepository {
     int count();
 
     /**
-     * Count the number of playlists whose name contains the given string.
+     * Estimate the total number of playlists from the planner statistics of the table, without scanning it.
+     *
+     * @return the estimated number of playlists, or a negative number if the table has never been analyzed
+     */
+    @Query("select reltuples::int from pg_class where oid = 'playlist'::regclass")
+    int estimateCount();
+
+    /**
+     * Count the number of playlists whose name contains the given string, ignoring case.
      *
      * @param name the string to search in the playlist names
      * @return the number of playlists whose name contains the given string
      */
-    @Query("select count(*) from playlist where playlist_name like '%' || :name || '%'")
+    @Query("select count(*) from playlist where playlist_name ilike '%' || :name || '%'")
     int countByNameContaining(@Param("name") String name);
 
+    /**
+     * Retrieve all playlists with pagination, together with the total number of playlists.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return a page of playlists, each with the total count
+     */
+    @Query(value = "select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time, count(*) over() as total_count from playlist join person on creator_id=person_id order by playlist_id limit :limit offset :offset", rowMapperClass = CountedRowMapper.Playlists.class)
+    List<Counted<Playlist>> findAllWithCount(@Param("offset") int offset, @Param("limit") int limit);
+
     /**
      * Retrieve all playlists with the option to specify a limit and offset for pagination.
      *
@@ -51,9 +83,19 @@ public interface PlaylistRepository {
      * @param limit the limit of results
      * @return a list of all playlists
      */
-    @Query("select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time from playlist join person on creator_id=person_id limit :limit offset :offset")
+    @Query("select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time from playlist join person on creator_id=person_id order by playlist_id limit :limit offset :offset")
     List<Playlist> findAll(@Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * Retrieve the playlists that follow the given ID, in the order of their IDs. Used for keyset pagination.
+     *
+     * @param afterId the ID of the last playlist of the previous page
+     * @param limit the limit of results
+     * @return a list of playlists
+     */
+    @Query("select playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time from playlist join person on creator_id=person_id where playlist_id > :afterId order by playlist_id limit :limit")
+    List<Playlist> findAllAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
     /**
      * Find playlists by the creator's ID.
      *
@@ -74,24 +116,172 @@ public interface PlaylistRepository {
     boolean existsSongInPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId);
 
     /**
-     * Add a song to a playlist.
+     * Outcome of {@link #addSongToPlaylist} and {@link #removeSongFromPlaylist}: the change was made.
+     */
+    int CHANGED = 0;
+
+    /**
+     * Outcome of a playlist change: there is no song with the given ID.
+     */
+    int SONG_NOT_FOUND = 1;
+
+    /**
+     * Outcome of a playlist change: there is no playlist with the given ID.
+     */
+    int PLAYLIST_NOT_FOUND = 2;
+
+    /**
+     * Outcome of a playlist change: the playlist belongs to another user.
+     */
+    int NOT_OWNER = 3;
+
+    /**
+     * Outcome of {@link #addSongToPlaylist}: the song is already in the playlist.
+     */
+    int ALREADY_IN_PLAYLIST = 4;
+
+    /**
+     * Outcome of {@link #removeSongFromPlaylist}: the song is not in the playlist.
+     */
+    int NOT_IN_PLAYLIST = 5;
+
+    /**
+     * Add a song to a playlist if the song exists and the playlist belongs to the given user,
+     * checking both and inserting in a single statement.
      *
      * @param playlistId the ID of the playlist
      * @param songId the ID of the song
+     * @param email the email of the user making the change
+     * @return {@link #CHANGED}, {@link #SONG_NOT_FOUND}, {@link #PLAYLIST_NOT_FOUND}, {@link #NOT_OWNER}
+     * or {@link #ALREADY_IN_PLAYLIST}
      */
-    @Modifying
-    @Query("insert into playlist_songs (playlist_id, song_id) values (:playlistId, :songId)")
-    void addSongToPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId);
+    @Query("with target as (select exists(select 1 from song where song_id = :songId) as song_found, " +
+            "playlist.playlist_id is not null as playlist_found, coalesce(person.person_email = :email, false) as owned " +
+            "from (select 1) as one left join playlist on playlist.playlist_id = :playlistId left join person on person.person_id = playlist.creator_id), " +
+            "added as (insert into playlist_songs (playlist_id, song_id) select :playlistId, :songId from target where song_found and owned " +
+            "on conflict (playlist_id, song_id) do nothing returning id) " +
+            "select case when not song_found then 1 when not playlist_found then 2 when not owned then 3 " +
+            "when not exists(select 1 from added) then 4 else 0 end from target")
+    int addSongToPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId, @Param("email") String email);
 
     /**
-     * Remove a song from a playlist.
+     * Remove a song from a playlist if the song exists and the playlist belongs to the given user,
+     * checking both and deleting in a single statement.
      *
      * @param playlistId the ID of the playlist
      * @param songId the ID of the song
+     * @param email the email of the user making the change
+     * @return {@link #CHANGED}, {@link #SONG_NOT_FOUND}, {@link #PLAYLIST_NOT_FOUND}, {@link #NOT_OWNER}
+     * or {@link #NOT_IN_PLAYLIST}
+     */
+    @Query("with target as (select exists(select 1 from song where song_id = :songId) as song_found, " +
+            "playlist.playlist_id is not null as playlist_found, coalesce(person.person_email = :email, false) as owned " +
+            "from (select 1) as one left join playlist on playlist.playlist_id = :playlistId left join person on person.person_id = playlist.creator_id), " +
+            "removed as (delete from playlist_songs using target where target.song_found and target.owned " +
+            "and playlist_songs.playlist_id = :playlistId and playlist_songs.song_id = :songId returning playlist_songs.id) " +
+            "select case when not song_found then 1 when not playlist_found then 2 when not owned then 3 " +
+            "when not exists(select 1 from removed) then 5 else 0 end from target")
+    int removeSongFromPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId, @Param("email") String email);
+
+    /**
+     * Find the email of the user who owns a playlist, locking the playlist until the end of the transaction
+     * so that concurrent changes of its songs are applied one after another.
+     *
+     * @param playlistId the ID of the playlist
+     * @return an Optional containing the email of the owner, or empty if the playlist is not found
+     */
+    @Query("select person.person_email from playlist join person on person.person_id = playlist.creator_id where playlist_id = :playlistId for update of playlist")
+    Optional<String> findOwnerEmailForUpdate(@Param("playlistId") long playlistId);
+
+    /**
+     * Stop touching the playlists changed by the following statements of the current transaction,
+     * until {@link #resumePlaylistTouch} is called.
+     *
+     * @return the new value of the setting
+     */
+    @Query("select set_config('playlist.touch_deferred', 'on', true)")
+    String deferPlaylistTouch();
+
+    /**
+     * Touch again the playlists changed by the following statements of the current transaction.
+     *
+     * @return the new value of the setting
+     */
+    @Query("select set_config('playlist.touch_deferred', 'off', true)")
+    String resumePlaylistTouch();
+
+    /**
+     * Set the update time of a playlist to now.
+     *
+     * @param playlistId the ID of the playlist
      */
     @Modifying
-    @Query("delete from playlist_songs where playlist_id = :playlistId and song_id = :songId")
-    void removeSongFromPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId);
+    @Query("update playlist set update_time = current_timestamp where playlist_id = :playlistId")
+    void touchPlaylist(@Param("playlistId") long playlistId);
+
+    /**
+     * Find which of the given songs are in a playlist.
+     *
+     * @param playlistId the ID of the playlist
+     * @param songIds the IDs of the songs
+     * @return the IDs of the given songs that are in the playlist
+     */
+    @Query("select song_id from playlist_songs where playlist_id = :playlistId and song_id = any(cast(:songIds as int[]))")
+    List<Long> findSongIdsInPlaylist(@Param("playlistId") long playlistId, @Param("songIds") long[] songIds);
+
+    /**
+     * Find the IDs of all the songs of a playlist.
+     *
+     * @param playlistId the ID of the playlist
+     * @return the IDs of the songs of the playlist, in no particular order
+     */
+    @Query("select song_id from playlist_songs where playlist_id = :playlistId and song_id is not null")
+    List<Long> findAllSongIds(@Param("playlistId") long playlistId);
+
+    /**
+     * Append songs to the end of a playlist in the given order, skipping the ones already in it, in a single statement.
+     * The caller is expected to have checked that the songs exist and the playlist belongs to the user.
+     *
+     * @param playlistId the ID of the playlist
+     * @param songIds the IDs of the songs, without duplicates
+     * @return the IDs of the songs that were added
+     */
+    @Query("insert into playlist_songs (playlist_id, song_id) " +
+            "select :playlistId, ids.song_id from unnest(cast(:songIds as int[])) with ordinality as ids(song_id, n) order by ids.n " +
+            "on conflict (playlist_id, song_id) do nothing returning song_id")
+    List<Long> addSongsToPlaylist(@Param("playlistId") long playlistId, @Param("songIds") long[] songIds);
+
+    /**
+     * Remove songs from a playlist in a single statement.
+     * The caller is expected to have checked that the playlist belongs to the user.
+     *
+     * @param playlistId the ID of the playlist
+     * @param songIds the IDs of the songs
+     * @return the IDs of the songs that were removed
+     */
+    @Query("delete from playlist_songs where playlist_id = :playlistId and song_id = any(cast(:songIds as int[])) returning song_id")
+    List<Long> removeSongsFromPlaylist(@Param("playlistId") long playlistId, @Param("songIds") long[] songIds);
+
+    /**
+     * Move songs to the beginning of a playlist in the given order, keeping the order of the other songs,
+     * in a single statement. The positions already used by the playlist are handed out again in the new order,
+     * and only the songs whose position changes are updated.
+     * The caller is expected to have checked that the playlist belongs to the user.
+     *
+     * @param playlistId the ID of the playlist
+     * @param songIds the IDs of the songs in their new order, without duplicates
+     * @return the IDs of the songs whose position changed
+     */
+    @Query("update playlist_songs set position = target.position from (" +
+            "select ranked.song_id, slots.position from (" +
+            "select existing.song_id, row_number() over (order by ids.n, existing.position) as slot from playlist_songs as existing " +
+            "left join unnest(cast(:songIds as int[])) with ordinality as ids(song_id, n) on ids.song_id = existing.song_id " +
+            "where existing.playlist_id = :playlistId) as ranked " +
+            "join (select position, row_number() over (order by position) as slot from playlist_songs where playlist_id = :playlistId) as slots " +
+            "on slots.slot = ranked.slot) as target " +
+            "where playlist_songs.playlist_id = :playlistId and playlist_songs.song_id = target.song_id " +
+            "and playlist_songs.position <> target.position returning playlist_songs.song_id")
+    List<Long> moveSongsToFront(@Param("playlistId") long playlistId, @Param("songIds") long[] songIds);
 
     /**
      * Create a new playlist.
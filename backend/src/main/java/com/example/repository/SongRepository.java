@@ -1,6 +1,8 @@
 package com.example.repository;
 
+import com.example.cache.CacheNames;
 import com.example.model.entity.Song;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.RepositoryDefinition;
@@ -15,7 +17,7 @@ import java.util.Optional;
  * artist, album, as well as adding and removing songs from the database.
  */
 @RepositoryDefinition(domainClass = Song.class, idClass = Long.class)
-public interface SongRepository {
+public interface SongRepository extends CatalogRepository<Song> {
 
     /**
      * Find a song by its ID.
@@ -35,6 +37,24 @@ public interface SongRepository {
     @Query("select exists(select 1 from song where song_id = :songId)")
     boolean existsById(@Param("songId") long songId);
 
+    /**
+     * Find songs by their IDs.
+     *
+     * @param songIds the IDs of the songs
+     * @return the songs with the given IDs, in no particular order; IDs without a song are skipped
+     */
+    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) where song_id = any(cast(:songIds as int[]))")
+    List<Song> findAllByIds(@Param("songIds") long[] songIds);
+
+    /**
+     * Find which of the given song IDs exist.
+     *
+     * @param songIds the IDs of the songs
+     * @return the IDs of the songs that exist
+     */
+    @Query("select song_id from song where song_id = any(cast(:songIds as int[]))")
+    List<Long> findExistingIds(@Param("songIds") long[] songIds);
+
     /**
      * Count the total number of songs in the database.
      *
@@ -44,12 +64,20 @@ public interface SongRepository {
     int count();
 
     /**
-     * Count the number of songs whose name contains the given string.
+     * Estimate the total number of songs from the planner statistics of the table, without scanning it.
+     *
+     * @return the estimated number of songs, or a negative number if the table has never been analyzed
+     */
+    @Query("select reltuples::int from pg_class where oid = 'song'::regclass")
+    int estimateCount();
+
+    /**
+     * Count the number of songs whose name contains the given string, ignoring case.
      *
      * @param name the string to search in the song names
      * @return the number of songs whose name contains the given string
      */
-    @Query("select count(*) from song where song_name like '%' || :name || '%' ")
+    @Query("select count(*) from song where song_name ilike '%' || :name || '%' ")
     int countByNameContaining(String name);
 
     /**
@@ -80,15 +108,97 @@ public interface SongRepository {
     List<Song> findByUserId(@Param("userId") long userId);
 
     /**
-     * Find songs whose name contains the given string with pagination.
+     * Find the IDs of the favourite songs of a user.
+     *
+     * @param userId the ID of the user
+     * @return the IDs of the user's favourite songs, in no particular order
+     */
+    @Query("select song_id from person_favourite_song where person_id = :userId")
+    List<Integer> findFavouriteSongIds(@Param("userId") long userId);
+
+    /**
+     * Outcome of {@link #addFavourite}: the song was added to the favourites.
+     */
+    int FAVOURITE_ADDED = 0;
+
+    /**
+     * Outcome of {@link #addFavourite}: there is no song with the given ID.
+     */
+    int FAVOURITE_SONG_NOT_FOUND = 1;
+
+    /**
+     * Outcome of {@link #addFavourite}: the song is already a favourite of the user.
+     */
+    int ALREADY_FAVOURITE = 2;
+
+    /**
+     * Add a song to the favourites of a user if the song exists, checking and inserting in a single statement.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     * @return {@link #FAVOURITE_ADDED}, {@link #FAVOURITE_SONG_NOT_FOUND} or {@link #ALREADY_FAVOURITE}
+     */
+    @Query("with target as (select exists(select 1 from song where song_id = :songId) as song_found), " +
+            "added as (insert into person_favourite_song (person_id, song_id) select :userId, :songId from target where song_found " +
+            "on conflict (person_id, song_id) do nothing returning id) " +
+            "select case when not song_found then 1 when not exists(select 1 from added) then 2 else 0 end from target")
+    int addFavourite(@Param("userId") long userId, @Param("songId") long songId);
+
+    /**
+     * Remove a song from the favourites of a user. Removing a song that is not a favourite is not an error.
+     *
+     * @param userId the ID of the user
+     * @param songId the ID of the song
+     * @return true if the song was a favourite of the user, otherwise false
+     */
+    @Modifying
+    @Query("delete from person_favourite_song where person_id = :userId and song_id = :songId")
+    boolean removeFavourite(@Param("userId") long userId, @Param("songId") long songId);
+
+    /**
+     * Find the song that follows the given song in a playlist, in the order of the playlist.
+     *
+     * @param playlistId the ID of the playlist
+     * @param songId the ID of the current song
+     * @return an Optional containing the next song or empty if the given song is the last one
+     */
+    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from playlist_songs join song using (song_id) join artist using (artist_id) join jenre using (jenre_id) " +
+            "where playlist_id = :playlistId and position > (select position from playlist_songs where playlist_id = :playlistId and song_id = :songId) order by position limit 1")
+    Optional<Song> findNextInPlaylist(@Param("playlistId") long playlistId, @Param("songId") long songId);
+
+    /**
+     * Find songs whose name contains the given string, ignoring case, with pagination,
+     * together with the number of all matching songs.
      *
      * @param name the string to search in the song names
      * @param offset the offset for pagination
      * @param limit the limit of results
+     * @return a page of songs whose name contains the given string, each with the total count
+     */
+    @Query(value = "select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name, count(*) over() as total_count from song join artist using (artist_id) join jenre using (jenre_id) WHERE song_name ilike '%' || :name || '%' ORDER BY song_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Songs.class)
+    List<Counted<Song>> findByNameContainingWithCount(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * Find songs whose name contains the given string, ignoring case, that follow the given ID,
+     * in the order of their IDs. Used for keyset pagination.
+     *
+     * @param name the string to search in the song names
+     * @param afterId the ID of the last song of the previous page
+     * @param limit the limit of results
      * @return a list of songs whose name contains the given string
      */
-    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) WHERE song_name like '%' || :name || '%' LIMIT :limit OFFSET :offset")
-    List<Song> findByNameContaining(@Param("name") String name, @Param("offset") int offset, @Param("limit") int limit);
+    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) WHERE song_name ilike '%' || :name || '%' AND song_id > :afterId ORDER BY song_id LIMIT :limit")
+    List<Song> findByNameContainingAfter(@Param("name") String name, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Retrieve all songs with pagination, together with the total number of songs.
+     *
+     * @param offset the offset for pagination
+     * @param limit the limit of results
+     * @return a page of songs, each with the total count
+     */
+    @Query(value = "select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name, count(*) over() as total_count from song join artist using (artist_id) join jenre using (jenre_id) ORDER BY song_id LIMIT :limit OFFSET :offset", rowMapperClass = CountedRowMapper.Songs.class)
+    List<Counted<Song>> findAllWithCount(@Param("offset") int offset, @Param("limit") int limit);
 
     /**
      * Retrieve all songs with pagination.
@@ -97,9 +207,19 @@ public interface SongRepository {
      * @param limit the limit of results
      * @return a list of all songs
      */
-    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) LIMIT :limit OFFSET :offset")
+    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) ORDER BY song_id LIMIT :limit OFFSET :offset")
     List<Song> findAll(@Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * Retrieve the songs that follow the given ID, in the order of their IDs. Used for keyset pagination.
+     *
+     * @param afterId the ID of the last song of the previous page
+     * @param limit the limit of results
+     * @return a list of songs
+     */
+    @Query("select song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name from song join artist using (artist_id) join jenre using (jenre_id) WHERE song_id > :afterId ORDER BY song_id LIMIT :limit")
+    List<Song> findAllAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
     /**
      * Save a new song to the database.
      *
@@ -109,7 +229,8 @@ public interface SongRepository {
      * @param genreId the ID of the genre
      */
     @Modifying
-    @Query("insert into song (song_id, song_name, artist_id, genre_id) values (:songId, :songName, :artistId, :genreId)")
+    @CacheEvict(cacheNames = CacheNames.SONGS_BY_NAME, allEntries = true)
+    @Query("insert into song (song_id, song_name, artist_id, jenre_id) values (:songId, :songName, :artistId, :genreId)")
     void save(@Param("songId") long songId, @Param("songName") String songName, @Param("artistId") long artistId, @Param("genreId") long genreId);
 
     /**
@@ -118,6 +239,7 @@ public interface SongRepository {
      * @param songId the ID of the song
      */
     @Modifying
+    @CacheEvict(cacheNames = CacheNames.SONGS_BY_NAME, allEntries = true)
     @Query("delete from song where song_id = :songId")
     void deleteById(@Param("songId") long songId);
 }
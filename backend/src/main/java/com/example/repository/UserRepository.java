@@ -22,7 +22,7 @@ public interface UserRepository {
      * @param email the email address of the user
      * @return an Optional containing the user with the specified email, or empty if the user is not found
      */
-    @Query("select person.person_email as person_email, p.password as password from person " +
+    @Query("select person.person_id as person_id, person.person_email as person_email, p.password as password from person " +
             "join users_password p on person.person_id = p.person_id " +
             "where person_email = :email")
     Optional<User> findByEmail(@Param("email") String email);
@@ -1,55 +1,62 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
+import com.example.dto.album.AlbumDetailResponseDto;
 import com.example.dto.album.AlbumResponseDto;
 import com.example.dto.album.AlbumSearchResponseDto;
+import com.example.dto.album.AlbumWithSongsResponseDto;
+import com.example.exception.EntityNotFoundException;
+import com.example.exception.InvalidCursorException;
 import com.example.model.entity.Album;
 import com.example.repository.AlbumRepository;
+import com.example.repository.AlbumSongs;
+import com.example.snapshot.CatalogSnapshot;
+import com.example.snapshot.CatalogSnapshots;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service for working with albums.
  * Provides methods for retrieving information about albums, including searching by name and getting all albums
  * by an artist.
+ * Reads that do not search by name are served from the {@link CatalogSnapshots catalog snapshot} when one is loaded.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class AlbumService {
 
-
-
     private final AlbumRepository albumRepository;
+    private final CatalogSearch catalogSearch;
+    private final CatalogSnapshots catalogSnapshots;
 
     /**
      * Get all albums matching the search query by name.
      *
      * @param name the name of the album to search for (can be null or empty to retrieve all albums)
-     * @param offset the offset for pagination
+     * @param offset the offset for pagination, ignored when a cursor is given
      * @param limit the number of items per page
+     * @param cursor the cursor returned with the previous page, or null to paginate by offset
      * @return an {@link AlbumSearchResponseDto} object containing the list of albums and pagination information
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public AlbumSearchResponseDto getAllAlbumsByName(String name, int offset, int limit) {
-        log.info("Fetching albums by name: {}, offset: {}, limit: {}", name, offset, limit);
-        int count = (name != null && !name.isEmpty()) ?
-                albumRepository.countByNameContaining(name) :
-                albumRepository.count();
-        List<Album> albums = (name != null && !name.isEmpty()) ?
-                albumRepository.findByNameContaining(name, offset, limit) :
-                albumRepository.findAll(offset, limit);
-        int totalPages = count / limit;
-        if (count % limit != 0) {
-            totalPages++;
+    @Cacheable(cacheNames = CacheNames.ALBUMS_BY_NAME, sync = true)
+    public AlbumSearchResponseDto getAllAlbumsByName(String name, int offset, int limit, String cursor) {
+        CatalogPage<Album> page = catalogSearch.search(catalogSnapshots.albums(albumRepository), Album::getAlbumId, name, offset, limit, cursor);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} albums by name: {}, offset: {}, limit: {}, cursor: {}", page.count(), name, offset, limit, cursor);
         }
-        int currentPage = offset / limit + 1;
-        log.info("Found {} albums, current page: {}, total pages: {}", count, currentPage, totalPages);
-        return new AlbumSearchResponseDto(albums.stream().map(this::mapToDto).collect(Collectors.toList()), count, currentPage, totalPages);
+        return new AlbumSearchResponseDto(page.values().stream().map(AlbumService::mapToDto).collect(Collectors.toList()),
+                page.count(), page.currentPage(), page.totalPages(), page.nextCursor());
     }
 
     /**
@@ -59,10 +66,63 @@ public class AlbumService {
      * @return a list of {@link AlbumResponseDto} containing information about the artist's albums
      */
     public List<AlbumResponseDto> getAllAlbumsByArtist(long artistId) {
-        log.info("Fetching albums by artist ID: {}", artistId);
-        List<Album> albums = albumRepository.findByArtistId(artistId);
-        log.info("Found {} albums for artist ID: {}", albums.size(), artistId);
-        return albums.stream().map(this::mapToDto).collect(Collectors.toList());
+        List<Album> albums = catalogSnapshots.current()
+                .map(snapshot -> snapshot.findAlbumsByArtistId(artistId))
+                .orElseGet(() -> albumRepository.findByArtistId(artistId));
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} albums for artist ID: {}", albums.size(), artistId);
+        }
+        return albums.stream().map(AlbumService::mapToDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Get an album together with its creator and songs, with a single query.
+     *
+     * @param albumId the ID of the album
+     * @return an {@link AlbumDetailResponseDto} with the album, its creator and its songs in the order they were added
+     * @throws EntityNotFoundException if the album does not exist
+     */
+    public AlbumDetailResponseDto getAlbumDetail(long albumId) {
+        // An album added after the snapshot was loaded is looked up in the database
+        AlbumSongs albumSongs = catalogSnapshots.current()
+                .flatMap(snapshot -> snapshot.findAlbumWithSongs(albumId))
+                .or(() -> albumRepository.findWithSongsById(albumId).stream().findFirst())
+                .orElseThrow(() -> {
+                    log.error("Album not found: ID {}", albumId);
+                    return new EntityNotFoundException("Album not found");
+                });
+        AlbumDetailResponseDto dto = new AlbumDetailResponseDto();
+        fillDto(dto, albumSongs);
+        dto.setCreator(ArtistService.mapToDto(albumSongs.creator()));
+        if (log.isDebugEnabled()) {
+            log.debug("Found album ID: {} with {} songs", albumId, albumSongs.songs().size());
+        }
+        return dto;
+    }
+
+    /**
+     * Get albums by their IDs together with their songs, with a single query.
+     *
+     * @param albumIds the IDs of the albums
+     * @return a list of {@link AlbumWithSongsResponseDto} in the order of the IDs, without the IDs no album was found for
+     */
+    public List<AlbumWithSongsResponseDto> getAlbumsWithSongsByIds(List<Long> albumIds) {
+        long[] ids = BatchIds.distinct(albumIds);
+        Optional<CatalogSnapshot> snapshot = catalogSnapshots.current();
+        List<AlbumSongs> albums = ids.length == 0 ? List.of() : snapshot.isPresent() ?
+                BatchIds.withMissing(ids, snapshot.get().findAlbumsWithSongsByIds(ids),
+                        albumSongs -> albumSongs.album().getAlbumId(), albumRepository::findAllWithSongsByIds)
+                : albumRepository.findAllWithSongsByIds(ids);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} albums", albums.size());
+        }
+        return BatchIds.inRequestOrder(ids, albums, albumSongs -> albumSongs.album().getAlbumId()).stream()
+                .map(albumSongs -> {
+                    AlbumWithSongsResponseDto dto = new AlbumWithSongsResponseDto();
+                    fillDto(dto, albumSongs);
+                    return dto;
+                })
+                .toList();
     }
 
     /**
@@ -71,12 +131,33 @@ public class AlbumService {
      * @param album the album to convert
      * @return an {@link AlbumResponseDto} object
      */
-    private AlbumResponseDto mapToDto(Album album) {
+    public static AlbumResponseDto mapToDto(Album album) {
         AlbumResponseDto dto = new AlbumResponseDto();
+        fillDto(dto, album);
+        return dto;
+    }
+
+    /**
+     * Copies the information about an album into a DTO.
+     *
+     * @param dto the DTO to fill
+     * @param album the album to copy
+     */
+    private static void fillDto(AlbumResponseDto dto, Album album) {
         dto.setId(album.getAlbumId());
         dto.setName(album.getName());
         dto.setArtist(album.getAlbumCreatorName());
         dto.setCreationDate(album.getCreationDate().toString());
-        return dto;
+    }
+
+    /**
+     * Copies the information about an album and its songs into a DTO.
+     *
+     * @param dto the DTO to fill
+     * @param albumSongs the album and its songs to copy
+     */
+    private void fillDto(AlbumWithSongsResponseDto dto, AlbumSongs albumSongs) {
+        fillDto(dto, albumSongs.album());
+        dto.setSongs(albumSongs.songs().stream().map(SongService::mapToDto).toList());
     }
 }
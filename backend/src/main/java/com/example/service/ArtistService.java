@@ -1,51 +1,58 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
 import com.example.dto.artist.ArtistResponseDto;
 import com.example.dto.artist.ArtistSearchResponseDto;
 import com.example.exception.EntityNotFoundException;
+import com.example.exception.InvalidCursorException;
 import com.example.model.entity.Artist;
 import com.example.repository.ArtistRepository;
+import com.example.snapshot.CatalogSnapshot;
+import com.example.snapshot.CatalogSnapshots;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service for working with artists.
  * Provides methods for retrieving information about artists, including searching by name and getting an artist by ID.
+ * Reads that do not search by name are served from the {@link CatalogSnapshots catalog snapshot} when one is loaded.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class ArtistService {
 
     private final ArtistRepository artistRepository;
+    private final CatalogSearch catalogSearch;
+    private final CatalogSnapshots catalogSnapshots;
 
     /**
      * Get all artists matching the search query by name.
      *
      * @param name the name of the artist to search for (can be null or empty to retrieve all artists)
-     * @param offset the offset for pagination
+     * @param offset the offset for pagination, ignored when a cursor is given
      * @param limit the number of items per page
+     * @param cursor the cursor returned with the previous page, or null to paginate by offset
      * @return an {@link ArtistSearchResponseDto} object containing the list of artists and pagination information
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public ArtistSearchResponseDto getAllArtistsByName(String name, int offset, int limit) {
-        log.info("Fetching artists by name: {}, offset: {}, limit: {}", name, offset, limit);
-        int count = (name != null && !name.isEmpty()) ?
-                artistRepository.countByNameContaining(name) :
-                artistRepository.count();
-        int totalPages = count / limit;
-        if (count % limit != 0) {
-            totalPages++;
+    @Cacheable(cacheNames = CacheNames.ARTISTS_BY_NAME, sync = true)
+    public ArtistSearchResponseDto getAllArtistsByName(String name, int offset, int limit, String cursor) {
+        CatalogPage<Artist> page = catalogSearch.search(catalogSnapshots.artists(artistRepository), Artist::getArtistId, name, offset, limit, cursor);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} artists by name: {}, offset: {}, limit: {}, cursor: {}", page.count(), name, offset, limit, cursor);
         }
-        int currentPage = offset / limit + 1;
-        List<Artist> artists = (name != null && !name.isEmpty()) ?
-                artistRepository.findByNameContaining(name, offset, limit) :
-                artistRepository.findAll(offset, limit);
-        log.info("Found {} artists, current page: {}, total pages: {}", count, currentPage, totalPages);
-        return new ArtistSearchResponseDto(artists.stream().map(this::mapToDto).collect(Collectors.toList()), count, currentPage, totalPages);
+        return new ArtistSearchResponseDto(page.values().stream().map(ArtistService::mapToDto).collect(Collectors.toList()),
+                page.count(), page.currentPage(), page.totalPages(), page.nextCursor());
     }
 
     /**
@@ -56,20 +63,40 @@ public class ArtistService {
      * @throws EntityNotFoundException if no artist with the given ID is found
      */
     public ArtistResponseDto getArtistById(long artistId) {
-        log.info("Fetching artist by ID: {}", artistId);
-        Artist artist = artistRepository.findById(artistId)
+        // An artist added after the snapshot was loaded is looked up in the database
+        Artist artist = catalogSnapshots.current()
+                .flatMap(snapshot -> snapshot.artists().findById(artistId))
+                .or(() -> artistRepository.findById(artistId))
                 .orElseThrow(() -> new EntityNotFoundException("Artist not found"));
-        log.info("Found artist: {}", artist.getNickname());
+        log.debug("Found artist: {}", artist.getNickname());
         return mapToDto(artist);
     }
 
+    /**
+     * Get artists by their IDs with a single query.
+     *
+     * @param artistIds the IDs of the artists
+     * @return a list of {@link ArtistResponseDto} in the order of the IDs, without the IDs no artist was found for
+     */
+    public List<ArtistResponseDto> getArtistsByIds(List<Long> artistIds) {
+        long[] ids = BatchIds.distinct(artistIds);
+        Optional<CatalogSnapshot> snapshot = catalogSnapshots.current();
+        List<Artist> artists = ids.length == 0 ? List.of() : snapshot.isPresent() ?
+                BatchIds.withMissing(ids, snapshot.get().artists().findAllByIds(ids), Artist::getArtistId, artistRepository::findAllByIds)
+                : artistRepository.findAllByIds(ids);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} artists", artists.size());
+        }
+        return BatchIds.inRequestOrder(ids, artists, Artist::getArtistId).stream().map(ArtistService::mapToDto).toList();
+    }
+
     /**
      * Converts the {@link Artist} entity to an {@link ArtistResponseDto} object.
      *
      * @param artist the artist to convert
      * @return an {@link ArtistResponseDto} object
      */
-    private ArtistResponseDto mapToDto(Artist artist) {
+    public static ArtistResponseDto mapToDto(Artist artist) {
         ArtistResponseDto dto = new ArtistResponseDto();
         dto.setId(artist.getArtistId());
         dto.setName(artist.getNickname());
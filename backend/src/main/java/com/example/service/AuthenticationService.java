@@ -1,9 +1,11 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
 import com.example.exception.EntityNotFoundException;
 import com.example.model.entity.User;
 import com.example.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,6 +29,7 @@ public class AuthenticationService {
      *
      * @param user the user object that should be registered
      */
+    @CacheEvict(cacheNames = CacheNames.USER_EXISTS, key = "#user.personEmail")
     public void register(User user) {
         // Encode the password
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -0,0 +1,90 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Helpers for the requests that name many entities by ID at once.
+ */
+final class BatchIds {
+
+    private BatchIds() {
+    }
+
+    /**
+     * Returns the distinct IDs of a list in their original order. The ID columns are int columns,
+     * so the IDs out of the int range, which can never match, are dropped rather than sent to the database.
+     *
+     * @param ids the IDs, may be null or contain nulls
+     * @return the distinct non-null IDs in the int range
+     */
+    static long[] distinct(List<Long> ids) {
+        return inIntRange(distinctAll(ids));
+    }
+
+    /**
+     * Returns the distinct IDs of a list in their original order, including the IDs out of the int range,
+     * for the requests that report an outcome for every ID.
+     *
+     * @param ids the IDs, may be null or contain nulls
+     * @return the distinct non-null IDs
+     */
+    static long[] distinctAll(List<Long> ids) {
+        if (Objects.isNull(ids)) {
+            return new long[0];
+        }
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    /**
+     * @param ids IDs
+     * @return the IDs that fit the int ID columns, in the same order
+     */
+    static long[] inIntRange(long[] ids) {
+        return LongStream.of(ids).filter(id -> id >= Integer.MIN_VALUE && id <= Integer.MAX_VALUE).toArray();
+    }
+
+    /**
+     * Completes the entities found in a snapshot with the ones added since it was loaded,
+     * looking up in the database only the IDs the snapshot had nothing for.
+     *
+     * @param ids    the requested IDs
+     * @param found  the entities found in the snapshot
+     * @param idOf   the function returning the ID of an entity
+     * @param lookup the lookup of entities by ID in the database
+     * @param <T>    the type of the entities
+     * @return the entities found in the snapshot or in the database, in any order
+     */
+    static <T> List<T> withMissing(long[] ids, List<T> found, ToLongFunction<T> idOf, Function<long[], List<T>> lookup) {
+        Set<Long> foundIds = found.stream().map(idOf::applyAsLong).collect(Collectors.toSet());
+        long[] missing = LongStream.of(ids).filter(id -> !foundIds.contains(id)).toArray();
+        if (missing.length == 0) {
+            return found;
+        }
+        List<T> all = new ArrayList<>(found);
+        all.addAll(lookup.apply(missing));
+        return all;
+    }
+
+    /**
+     * Puts entities fetched by ID in the order of the requested IDs, skipping the IDs nothing was found for.
+     *
+     * @param ids   the requested IDs
+     * @param found the entities found, in any order
+     * @param idOf  the function returning the ID of an entity
+     * @param <T>   the type of the entities
+     * @return the entities in the order of their IDs
+     */
+    static <T> List<T> inRequestOrder(long[] ids, Collection<T> found, ToLongFunction<T> idOf) {
+        Map<Long, T> byId = found.stream().collect(Collectors.toMap(idOf::applyAsLong, Function.identity()));
+        return LongStream.of(ids).mapToObj(byId::get).filter(Objects::nonNull).toList();
+    }
+}
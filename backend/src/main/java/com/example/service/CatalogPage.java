@@ -0,0 +1,16 @@
+package com.example.service;
+
+import java.util.List;
+
+/**
+ * Page of catalog search results with its pagination information.
+ *
+ * @param values      the entities of the page
+ * @param count       the total number of matching entities
+ * @param currentPage the number of the page, starting from 1, or 0 if the page was fetched by cursor
+ * @param totalPages  the total number of pages
+ * @param nextCursor  the cursor of the next page, or null if this is the last page
+ * @param <T>         the type of the entities
+ */
+public record CatalogPage<T>(List<T> values, int count, int currentPage, int totalPages, String nextCursor) {
+}
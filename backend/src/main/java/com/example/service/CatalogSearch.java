@@ -0,0 +1,91 @@
+package com.example.service;
+
+import com.example.exception.InvalidCursorException;
+import com.example.repository.CatalogRepository;
+import com.example.repository.Counted;
+import com.example.utils.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Search and pagination of the catalog entities, shared by the song, album, artist and playlist services.
+ * <p>
+ * Pages requested by offset are fetched in one statement that also counts the matching rows with
+ * {@code count(*) over()}, so a page costs a single round trip. Pages requested by cursor are fetched
+ * by keyset and counted separately, as the window would only count the rows after the cursor.
+ * With {@link CatalogSearchProperties.CountMode#ESTIMATED}, listings that are not filtered by name
+ * are not counted at all and report the row count estimated by the planner instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogSearch {
+
+    private final CatalogSearchProperties properties;
+
+    /**
+     * Fetches a page of entities whose name contains the given string, or of all entities if the name is empty.
+     *
+     * @param repository the repository of the entities
+     * @param idOf       the function returning the ID of an entity, used to build the next cursor
+     * @param name       the string to search in the names, or null to list all entities
+     * @param offset     the offset for pagination, ignored when a cursor is given
+     * @param limit      the limit for pagination
+     * @param cursor     the cursor returned with the previous page, or null to paginate by offset
+     * @param <T>        the type of the entities
+     * @return the page with its pagination information
+     * @throws InvalidCursorException if the cursor cannot be decoded
+     */
+    public <T> CatalogPage<T> search(CatalogRepository<T> repository, ToLongFunction<T> idOf,
+                                     String name, int offset, int limit, String cursor) {
+        boolean byName = name != null && !name.isEmpty();
+        int count;
+        int currentPage;
+        List<T> values;
+        if (cursor != null) {
+            long afterId = PageCursor.decode(cursor);
+            currentPage = 0;
+            count = count(repository, name);
+            values = byName ?
+                    repository.findByNameContainingAfter(name, afterId, limit) :
+                    repository.findAllAfter(afterId, limit);
+        } else if (!byName && properties.getCountMode() == CatalogSearchProperties.CountMode.ESTIMATED) {
+            currentPage = offset / limit + 1;
+            count = count(repository, name);
+            values = repository.findAll(offset, limit);
+        } else {
+            currentPage = offset / limit + 1;
+            List<Counted<T>> rows = byName ?
+                    repository.findByNameContainingWithCount(name, offset, limit) :
+                    repository.findAllWithCount(offset, limit);
+            values = Counted.values(rows);
+            if (!rows.isEmpty()) {
+                count = rows.get(0).totalCount();
+            } else {
+                // An empty page past the end does not tell how many rows there are
+                count = offset > 0 ? count(repository, name) : 0;
+            }
+        }
+        int totalPages = count / limit;
+        if (count % limit != 0) {
+            totalPages++;
+        }
+        String nextCursor = values.size() == limit ? PageCursor.encode(idOf.applyAsLong(values.get(values.size() - 1))) : null;
+        return new CatalogPage<>(values, count, currentPage, totalPages, nextCursor);
+    }
+
+    private <T> int count(CatalogRepository<T> repository, String name) {
+        if (name != null && !name.isEmpty()) {
+            return repository.countByNameContaining(name);
+        }
+        if (properties.getCountMode() == CatalogSearchProperties.CountMode.ESTIMATED) {
+            int estimate = repository.estimateCount();
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+        return repository.count();
+    }
+}
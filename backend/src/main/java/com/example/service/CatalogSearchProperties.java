@@ -0,0 +1,31 @@
+package com.example.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the catalog search, bound from the {@code catalog.search} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.search")
+public class CatalogSearchProperties {
+
+    /**
+     * How the total number of results is computed for listings that are not filtered by name.
+     */
+    private CountMode countMode = CountMode.EXACT;
+
+    public enum CountMode {
+        /**
+         * Count the rows in the same statement as the page.
+         */
+        EXACT,
+        /**
+         * Read the row count estimated by the planner statistics, which is updated by ANALYZE and autovacuum,
+         * and fetch the page without counting. Listings filtered by name are always counted exactly.
+         */
+        ESTIMATED
+    }
+}
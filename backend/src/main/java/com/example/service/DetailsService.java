@@ -1,9 +1,11 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
 import com.example.exception.EntityNotFoundException;
 import com.example.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -36,10 +38,12 @@ public class DetailsService implements UserDetailsService {
 
     /**
      * Checks if a user exists with the given login (email).
+     * The answer is cached for a short time, as it is checked on every request authenticated by token.
      *
      * @param login the user's email
      * @return true if the user exists, otherwise false
      */
+    @Cacheable(cacheNames = CacheNames.USER_EXISTS)
     public boolean isUserExists(String login) {
         return userRepository.isUserExists(login);
     }
@@ -0,0 +1,135 @@
+package com.example.service;
+
+import com.example.dto.song.SongResponseDto;
+import com.example.exception.EntityNotFoundException;
+import com.example.favourite.FavouriteSongs;
+import com.example.favourite.SongIdBitmap;
+import com.example.filter.JwtPrincipal;
+import com.example.recommendation.SongRecommendations;
+import com.example.model.entity.User;
+import com.example.repository.SongRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service for the favourite songs of the users.
+ * Likes and unlikes songs, and marks the songs of responses that are favourites of the current user,
+ * using the favourites kept in memory by {@link FavouriteSongs} instead of a query per song.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FavouriteService {
+
+    private final SongRepository songRepository;
+    private final FavouriteSongs favouriteSongs;
+    private final DetailsService detailsService;
+    private final SongRecommendations songRecommendations;
+
+    /**
+     * Adds a song to the favourites of a user. Adding a song that is already a favourite is not an error.
+     *
+     * @param songId the ID of the song
+     * @param user   the user
+     * @throws EntityNotFoundException if the song does not exist
+     */
+    @Transactional
+    public void addFavourite(int songId, UserDetails user) {
+        long userId = userId(user);
+        int outcome = songRepository.addFavourite(userId, songId);
+        if (outcome == SongRepository.FAVOURITE_SONG_NOT_FOUND) {
+            log.error("Song not found: ID {}", songId);
+            throw new EntityNotFoundException("Song not found");
+        }
+        afterCommit(() -> favouriteSongs.added(userId, songId));
+        if (outcome == SongRepository.FAVOURITE_ADDED) {
+            songRecommendations.favouriteAdded(userId, songId);
+        }
+        log.info("Song ID: {} added to the favourites of user ID: {}", songId, userId);
+    }
+
+    /**
+     * Removes a song from the favourites of a user. Removing a song that is not a favourite is not an error.
+     *
+     * @param songId the ID of the song
+     * @param user   the user
+     */
+    @Transactional
+    public void removeFavourite(int songId, UserDetails user) {
+        long userId = userId(user);
+        boolean removed = songRepository.removeFavourite(userId, songId);
+        afterCommit(() -> favouriteSongs.removed(userId, songId));
+        if (removed) {
+            songRecommendations.favouriteRemoved(userId, songId);
+        }
+        log.info("Song ID: {} removed from the favourites of user ID: {}", songId, userId);
+    }
+
+    /**
+     * Returns copies of the songs marked as favourite when they are favourites of the current user.
+     * The given songs are not changed, as they may be shared through a cache.
+     *
+     * @param songs the songs of a response
+     * @return the marked copies, or the given songs if the request is anonymous
+     */
+    public List<SongResponseDto> markFavourites(List<SongResponseDto> songs) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (songs.isEmpty() || Objects.isNull(authentication) || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken
+                || !(authentication.getPrincipal() instanceof UserDetails user)) {
+            return songs;
+        }
+        SongIdBitmap favourites = favouriteSongs.get(userId(user));
+        return songs.stream().map(song -> {
+            SongResponseDto marked = new SongResponseDto();
+            marked.setId(song.getId());
+            marked.setName(song.getName());
+            marked.setArtist(song.getArtist());
+            marked.setGenre(song.getGenre());
+            marked.setFavourite(favourites.contains(song.getId()));
+            return marked;
+        }).toList();
+    }
+
+    /**
+     * @param user the authenticated user
+     * @return the ID of the user, read from the database only if the principal does not carry it
+     */
+    private long userId(UserDetails user) {
+        if (user instanceof JwtPrincipal principal) {
+            return principal.getId();
+        }
+        if (user instanceof User entity) {
+            return entity.getPersonId();
+        }
+        return detailsService.getIdByEmail(user.getUsername());
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, so that the favourites in memory
+     * never hold a change that was rolled back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -5,6 +5,7 @@ import com.example.utils.JwtUtils;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
@@ -22,13 +23,17 @@ public class JwtService {
     private final JwtUtils jwtUtils;
 
     /**
-     * Generates a JWT token for a user with empty additional claims.
+     * Generates a JWT token for a user with the user's ID and roles as additional claims,
+     * so that the user can be authenticated from the token alone.
      *
      * @param user the {@link User} object for which the token is generated
      * @return a string representing the generated token
      */
     public String generateToken(User user) {
-        return generateToken(new HashMap<>(), user);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtUtils.USER_ID_CLAIM, user.getPersonId());
+        claims.put(JwtUtils.ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        return generateToken(claims, user);
     }
 
     /**
@@ -1,18 +1,31 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
 import com.example.dto.playlist.PlaylistResponseDto;
 import com.example.dto.playlist.PlaylistSearchResponseDto;
+import com.example.dto.playlist.PlaylistSongResultDto;
+import com.example.dto.playlist.PlaylistSongsUpdateRequestDto;
+import com.example.dto.playlist.PlaylistSongsUpdateResponseDto;
 import com.example.exception.AccessForbiddenException;
 import com.example.exception.AlreadyInPlaylistException;
 import com.example.exception.EntityNotFoundException;
+import com.example.exception.InvalidCursorException;
 import com.example.model.entity.Playlist;
+import com.example.model.enumeration.PlaylistSongOutcome;
+import com.example.recommendation.SongRecommendations;
 import com.example.repository.PlaylistRepository;
 import com.example.repository.SongRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 /**
  * Service for managing playlists.
@@ -24,32 +37,30 @@ import java.util.List;
 public class PlaylistService {
 
     private final PlaylistRepository playlistRepository;
+    private final CatalogSearch catalogSearch;
     private final SongRepository songRepository;
     private final DetailsService detailsService;
+    private final SongRecommendations songRecommendations;
 
     /**
      * Retrieves all playlists with the option to filter by name and paginate.
      *
      * @param name the name of the playlist to filter by
-     * @param offset the offset for pagination
+     * @param offset the offset for pagination, ignored when a cursor is given
      * @param limit the limit for pagination
+     * @param cursor the cursor returned with the previous page, or null to paginate by offset
      * @return a {@link PlaylistSearchResponseDto} containing playlist information, total count, and the current page
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public PlaylistSearchResponseDto getAllPlaylistsByName(String name, int offset, int limit) {
-        log.info("Fetching playlists by name: {}, offset: {}, limit: {}", name, offset, limit);
-        int count = (name != null && !name.isEmpty()) ?
-                playlistRepository.countByNameContaining(name) :
-                playlistRepository.count();
-        List<Playlist> playlists = (name != null && !name.isEmpty()) ?
-                playlistRepository.findByNameContaining(name, offset, limit) :
-                playlistRepository.findAll(offset, limit);
-        int totalPages = count / limit;
-        if (count % limit != 0) {
-            totalPages++;
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PLAYLISTS_BY_NAME, sync = true)
+    public PlaylistSearchResponseDto getAllPlaylistsByName(String name, int offset, int limit, String cursor) {
+        CatalogPage<Playlist> page = catalogSearch.search(playlistRepository, Playlist::getPlaylistId, name, offset, limit, cursor);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} playlists by name: {}, offset: {}, limit: {}, cursor: {}", page.count(), name, offset, limit, cursor);
         }
-        int currentPage = offset / limit + 1;
-        log.info("Found {} playlists, current page: {}, total pages: {}", count, currentPage, totalPages);
-        return new PlaylistSearchResponseDto(playlists.stream().map(this::mapToDto).toList(), count, currentPage, totalPages);
+        return new PlaylistSearchResponseDto(page.values().stream().map(PlaylistService::mapToDto).toList(),
+                page.count(), page.currentPage(), page.totalPages(), page.nextCursor());
     }
 
 
@@ -59,60 +70,185 @@ public class PlaylistService {
      * @param creatorId the ID of the playlist creator
      * @return a list of {@link PlaylistResponseDto} containing playlist information
      */
+    @Transactional(readOnly = true)
     public List<PlaylistResponseDto> getAllPlaylistsByCreator(long creatorId) {
-        log.info("Fetching playlists by creator ID: {}", creatorId);
         List<Playlist> playlists = playlistRepository.findByCreatorId(creatorId);
-        log.info("Found {} playlists for creator ID: {}", playlists.size(), creatorId);
-        return playlists.stream().map(this::mapToDto).toList();
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} playlists for creator ID: {}", playlists.size(), creatorId);
+        }
+        return playlists.stream().map(PlaylistService::mapToDto).toList();
     }
 
     /**
      * Adds a song to a playlist.
-     * Checks if the song exists, if it's already in the playlist, and if the user has permission to modify the playlist.
+     * The song is only added if it exists, the playlist belongs to the user and does not contain it yet,
+     * all of which is checked by the same statement that adds it.
      *
      * @param playlistId the ID of the playlist
      * @param songId the ID of the song
      * @param username the username of the user
+     * @throws EntityNotFoundException if the song or the playlist does not exist
+     * @throws AccessForbiddenException if the playlist belongs to another user
+     * @throws AlreadyInPlaylistException if the song is already in the playlist
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYLISTS_BY_NAME, allEntries = true)
     public void addMusicToPlaylist(long playlistId, long songId, String username) {
-        log.info("Adding song ID: {} to playlist ID: {} by user: {}", songId, playlistId, username);
-        if (!songRepository.existsById(songId)) {
-            log.error("Song not found: ID {}", songId);
-            throw new EntityNotFoundException("Song not found");
+        if (log.isDebugEnabled()) {
+            log.debug("Adding song ID: {} to playlist ID: {} by user: {}", songId, playlistId, username);
         }
-        if (playlistRepository.existsSongInPlaylist(playlistId, songId)) {
+        int outcome = playlistRepository.addSongToPlaylist(playlistId, songId, username);
+        if (outcome == PlaylistRepository.ALREADY_IN_PLAYLIST) {
             log.error("Song ID: {} already in playlist ID: {}", songId, playlistId);
             throw new AlreadyInPlaylistException("Already in playlist");
         }
-        if (playlistRepository.findByCreatorId(detailsService.getIdByEmail(username)).stream().noneMatch(playlist -> playlist.getPlaylistId() == playlistId)) {
-            log.error("Access denied for user: {} to playlist ID: {}", username, playlistId);
-            throw new AccessForbiddenException("Access denied");
-        }
-        playlistRepository.addSongToPlaylist(playlistId, songId);
+        checkChanged(outcome, playlistId, songId, username);
+        songRecommendations.playlistSongsChanged(playlistId, List.of(songId), List.of());
         log.info("Song ID: {} added to playlist ID: {}", songId, playlistId);
     }
 
     /**
      * Removes a song from a playlist.
-     * Checks if the song exists and if the user has permission to modify the playlist.
+     * The song is only removed if it exists and the playlist belongs to the user,
+     * which is checked by the same statement that removes it.
+     * Removing a song that is not in the playlist is not an error.
      *
      * @param playlistId the ID of the playlist
      * @param songId the ID of the song
      * @param username the username of the user
      * @param requestBody the request body
+     * @throws EntityNotFoundException if the song or the playlist does not exist
+     * @throws AccessForbiddenException if the playlist belongs to another user
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYLISTS_BY_NAME, allEntries = true)
     public void removeMusicFromPlaylist(long playlistId, long songId, String username, String requestBody) {
-        log.info("Removing song ID: {} from playlist ID: {} by user: {}", songId, playlistId, username);
-        if (!songRepository.existsById(songId)) {
-            log.error("Song not found: ID {}", songId);
-            throw new EntityNotFoundException("Song not found");
+        if (log.isDebugEnabled()) {
+            log.debug("Removing song ID: {} from playlist ID: {} by user: {}", songId, playlistId, username);
+        }
+        int outcome = playlistRepository.removeSongFromPlaylist(playlistId, songId, username);
+        if (outcome == PlaylistRepository.NOT_IN_PLAYLIST) {
+            log.info("Song ID: {} not in playlist ID: {}", songId, playlistId);
+            return;
+        }
+        checkChanged(outcome, playlistId, songId, username);
+        songRecommendations.playlistSongsChanged(playlistId, List.of(), List.of(songId));
+        log.info("Song ID: {} removed from playlist ID: {}", songId, playlistId);
+    }
+
+    /**
+     * Adds, removes and moves songs of a playlist in a single transaction.
+     * The ownership of the playlist is checked once, and each list is applied with a single statement,
+     * so the number of statements does not depend on the number of songs. Songs are removed first,
+     * then added, then moved, and the playlist is touched once at the end rather than by each statement.
+     *
+     * @param playlistId the ID of the playlist
+     * @param request the songs to add, remove and move
+     * @param username the username of the user
+     * @return the outcome for every distinct song of each list
+     * @throws EntityNotFoundException if the playlist does not exist
+     * @throws AccessForbiddenException if the playlist belongs to another user
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYLISTS_BY_NAME, allEntries = true)
+    public PlaylistSongsUpdateResponseDto updatePlaylistSongs(long playlistId, PlaylistSongsUpdateRequestDto request, String username) {
+        // The IDs out of the int range are reported as not found without being sent to the database
+        long[] requestedAdd = BatchIds.distinctAll(request.getAdd());
+        long[] requestedRemove = BatchIds.distinctAll(request.getRemove());
+        long[] requestedOrder = BatchIds.distinctAll(request.getOrder());
+        long[] toAdd = BatchIds.inIntRange(requestedAdd);
+        long[] toRemove = BatchIds.inIntRange(requestedRemove);
+        long[] toOrder = BatchIds.inIntRange(requestedOrder);
+        if (log.isDebugEnabled()) {
+            log.debug("Updating songs of playlist ID: {} by user: {}, add: {}, remove: {}, order: {}", playlistId, username,
+                    toAdd.length, toRemove.length, toOrder.length);
         }
-        if (playlistRepository.findByCreatorId(detailsService.getIdByEmail(username)).stream().noneMatch(playlist -> playlist.getPlaylistId() == playlistId)) {
+        String owner = playlistRepository.findOwnerEmailForUpdate(playlistId).orElseThrow(() -> {
+            log.error("Playlist not found: ID {}", playlistId);
+            return new EntityNotFoundException("Playlist not found");
+        });
+        if (!owner.equals(username)) {
             log.error("Access denied for user: {} to playlist ID: {}", username, playlistId);
             throw new AccessForbiddenException("Access denied");
         }
-        playlistRepository.removeSongFromPlaylist(playlistId, songId);
-        log.info("Song ID: {} removed from playlist ID: {}", songId, playlistId);
+
+        playlistRepository.deferPlaylistTouch();
+        long[] mentioned = LongStream.concat(LongStream.concat(LongStream.of(toAdd), LongStream.of(toRemove)), LongStream.of(toOrder))
+                .distinct().toArray();
+        Set<Long> existing = mentioned.length == 0 ? Set.of() : new HashSet<>(songRepository.findExistingIds(mentioned));
+
+        Set<Long> removed = toRemove.length == 0 ? Set.of()
+                : new HashSet<>(playlistRepository.removeSongsFromPlaylist(playlistId, toRemove));
+        long[] existingToAdd = LongStream.of(toAdd).filter(existing::contains).toArray();
+        Set<Long> added = existingToAdd.length == 0 ? Set.of()
+                : new HashSet<>(playlistRepository.addSongsToPlaylist(playlistId, existingToAdd));
+        Set<Long> inPlaylist = Set.of();
+        boolean moved = false;
+        if (toOrder.length > 0) {
+            inPlaylist = new HashSet<>(playlistRepository.findSongIdsInPlaylist(playlistId, toOrder));
+            moved = !playlistRepository.moveSongsToFront(playlistId, toOrder).isEmpty();
+        }
+        if (!removed.isEmpty() || !added.isEmpty() || moved) {
+            playlistRepository.touchPlaylist(playlistId);
+        }
+        playlistRepository.resumePlaylistTouch();
+
+        songRecommendations.playlistSongsChanged(playlistId, added, removed);
+
+        PlaylistSongsUpdateResponseDto response = new PlaylistSongsUpdateResponseDto(
+                outcomes(requestedAdd, existing, added, PlaylistSongOutcome.ADDED, PlaylistSongOutcome.ALREADY_IN_PLAYLIST),
+                outcomes(requestedRemove, existing, removed, PlaylistSongOutcome.REMOVED, PlaylistSongOutcome.NOT_IN_PLAYLIST),
+                outcomes(requestedOrder, existing, inPlaylist, PlaylistSongOutcome.MOVED, PlaylistSongOutcome.NOT_IN_PLAYLIST));
+        log.info("Songs of playlist ID: {} updated, added: {}, removed: {}", playlistId, added.size(), removed.size());
+        return response;
+    }
+
+    /**
+     * Builds the outcome of every song of a list of a bulk change.
+     *
+     * @param songIds the IDs of the songs of the list
+     * @param existing the IDs of the songs that exist
+     * @param changed the IDs of the songs the change was applied to
+     * @param changedOutcome the outcome of the songs the change was applied to
+     * @param unchangedOutcome the outcome of the existing songs the change was not applied to
+     * @return the outcomes in the order of the list
+     */
+    private static List<PlaylistSongResultDto> outcomes(long[] songIds, Set<Long> existing, Set<Long> changed,
+                                                        PlaylistSongOutcome changedOutcome,
+                                                        PlaylistSongOutcome unchangedOutcome) {
+        return LongStream.of(songIds)
+                .mapToObj(songId -> new PlaylistSongResultDto(songId, !existing.contains(songId)
+                        ? PlaylistSongOutcome.SONG_NOT_FOUND
+                        : changed.contains(songId) ? changedOutcome : unchangedOutcome))
+                .toList();
+    }
+
+    /**
+     * Throws the exception matching the outcome of a playlist change, unless the change was made.
+     *
+     * @param outcome the outcome returned by the repository
+     * @param playlistId the ID of the playlist
+     * @param songId the ID of the song
+     * @param username the username of the user
+     */
+    private void checkChanged(int outcome, long playlistId, long songId, String username) {
+        switch (outcome) {
+            case PlaylistRepository.CHANGED -> {
+            }
+            case PlaylistRepository.SONG_NOT_FOUND -> {
+                log.error("Song not found: ID {}", songId);
+                throw new EntityNotFoundException("Song not found");
+            }
+            case PlaylistRepository.PLAYLIST_NOT_FOUND -> {
+                log.error("Playlist not found: ID {}", playlistId);
+                throw new EntityNotFoundException("Playlist not found");
+            }
+            case PlaylistRepository.NOT_OWNER -> {
+                log.error("Access denied for user: {} to playlist ID: {}", username, playlistId);
+                throw new AccessForbiddenException("Access denied");
+            }
+            default -> throw new IllegalStateException("Unexpected playlist change outcome: " + outcome);
+        }
     }
 
     /**
@@ -122,8 +258,10 @@ public class PlaylistService {
      * @param playlistName the name of the playlist
      * @return the ID of the created playlist
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.PLAYLISTS_BY_NAME, allEntries = true)
     public long addNewPlaylist(String username, String playlistName) {
-        log.info("Creating new playlist: {} for user: {}", playlistName, username);
+        log.debug("Creating new playlist: {} for user: {}", playlistName, username);
         long creatorId = detailsService.getIdByEmail(username);
         long playlistId = playlistRepository.save(creatorId, playlistName);
         log.info("New playlist created: ID {} for user: {}", playlistId, username);
@@ -136,7 +274,7 @@ public class PlaylistService {
      * @param playlist the {@link Playlist} object to be converted
      * @return a {@link PlaylistResponseDto} containing playlist information
      */
-    private PlaylistResponseDto mapToDto(Playlist playlist) {
+    public static PlaylistResponseDto mapToDto(Playlist playlist) {
         PlaylistResponseDto dto = new PlaylistResponseDto();
         dto.setId(playlist.getPlaylistId());
         dto.setName(playlist.getPlaylistName());
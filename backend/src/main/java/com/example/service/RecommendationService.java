@@ -0,0 +1,53 @@
+package com.example.service;
+
+import com.example.dto.song.SongResponseDto;
+import com.example.recommendation.SongRecommendations;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service for the songs recommended from the playlists and favourites of the users.
+ * The similar songs are read from the co-occurrence model kept in memory by {@link SongRecommendations},
+ * so nothing is computed when they are requested.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RecommendationService {
+
+    private final SongRecommendations songRecommendations;
+    private final SongService songService;
+
+    /**
+     * Retrieves the songs most often found in the same playlists and favourites as a song.
+     *
+     * @param songId the ID of the song
+     * @param limit  the maximum number of songs to return
+     * @return a list of {@link SongResponseDto}, most similar first, empty if the song has no similar songs
+     */
+    public List<SongResponseDto> getSimilarSongs(long songId, int limit) {
+        int[] similar = songRecommendations.similar(songId, limit);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} similar songs for song ID: {}", similar.length, songId);
+        }
+        if (similar.length == 0) {
+            return List.of();
+        }
+        return songService.getSongsByIds(Arrays.stream(similar).mapToObj(id -> (long) id).toList());
+    }
+
+    /**
+     * Starts a full build of the recommendations in the background.
+     *
+     * @return false if recommendations are disabled, otherwise true
+     */
+    public boolean rebuildRecommendations() {
+        boolean requested = songRecommendations.requestRebuild();
+        log.info(requested ? "Rebuild of the recommendations requested" : "Recommendations are disabled, nothing to rebuild");
+        return requested;
+    }
+}
@@ -1,57 +1,83 @@
 package com.example.service;
 
+import com.example.cache.CacheNames;
 import com.example.dto.song.SongResponseDto;
 import com.example.dto.song.SongSearchResponseDto;
+import com.example.exception.InvalidCursorException;
 import com.example.model.entity.Song;
 import com.example.repository.SongRepository;
+import com.example.snapshot.CatalogSnapshot;
+import com.example.snapshot.CatalogSnapshots;
+import com.example.storage.SongStorage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing songs.
  * Handles creating, searching songs by different filters, and retrieving the song file.
+ * Reads that do not search by name are served from the {@link CatalogSnapshots catalog snapshot} when one is loaded.
+ * The methods join a transaction but do not start one, so that reads served from the snapshot do not take
+ * a connection from the pool; the read-only flag still sends the queries to a replica.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class SongService {
 
     private final SongRepository songRepository;
+    private final CatalogSearch catalogSearch;
+    private final SongStorage songStorage;
+    private final CatalogSnapshots catalogSnapshots;
 
     /**
      * Retrieves all songs with the option to filter by name and paginate.
      *
      * @param name   the name of the song to filter by
-     * @param offset the offset for pagination
+     * @param offset the offset for pagination, ignored when a cursor is given
      * @param limit  the limit for pagination
+     * @param cursor the cursor returned with the previous page, or null to paginate by offset
      * @return a {@link SongSearchResponseDto} containing song information, total count, and the current page
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public SongSearchResponseDto getAllSongsByName(String name, int offset, int limit) {
-        log.info("Fetching songs by name: {}, offset: {}, limit: {}", name, offset, limit);
-        int count = (name != null && !name.isEmpty()) ?
-                songRepository.countByNameContaining(name) :
-                songRepository.count();
-        int totalPages = count / limit;
-        if (count % limit != 0) {
-            totalPages++;
+    @Cacheable(cacheNames = CacheNames.SONGS_BY_NAME, sync = true)
+    public SongSearchResponseDto getAllSongsByName(String name, int offset, int limit, String cursor) {
+        CatalogPage<Song> page = catalogSearch.search(catalogSnapshots.songs(songRepository), Song::getSongId, name, offset, limit, cursor);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} songs by name: {}, offset: {}, limit: {}, cursor: {}", page.count(), name, offset, limit, cursor);
         }
-        int currentPage = offset / limit + 1;
-        List<Song> songs = (name != null && !name.isEmpty()) ?
-                songRepository.findByNameContaining(name, offset, limit) :
-                songRepository.findAll(offset, limit);
-        log.info("Found {} songs, current page: {}, total pages: {}", count, currentPage, totalPages);
-        var songsDto = songs.stream().map(this::mapToDto).collect(Collectors.toList());
-        return new SongSearchResponseDto(songsDto, count, currentPage, totalPages);
+        return new SongSearchResponseDto(page.values().stream().map(SongService::mapToDto).collect(Collectors.toList()),
+                page.count(), page.currentPage(), page.totalPages(), page.nextCursor());
+    }
+
+    /**
+     * Retrieves songs by their IDs with a single query.
+     *
+     * @param songIds the IDs of the songs
+     * @return a list of {@link SongResponseDto} in the order of the IDs, without the IDs no song was found for
+     */
+    public List<SongResponseDto> getSongsByIds(List<Long> songIds) {
+        long[] ids = BatchIds.distinct(songIds);
+        Optional<CatalogSnapshot> snapshot = catalogSnapshots.current();
+        List<Song> songs = ids.length == 0 ? List.of() : snapshot.isPresent() ?
+                BatchIds.withMissing(ids, snapshot.get().songs().findAllByIds(ids), Song::getSongId, songRepository::findAllByIds)
+                : songRepository.findAllByIds(ids);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} songs", songs.size());
+        }
+        return BatchIds.inRequestOrder(ids, songs, Song::getSongId).stream().map(SongService::mapToDto).toList();
     }
 
     /**
@@ -61,10 +87,13 @@ public class SongService {
      * @return a list of {@link SongResponseDto} containing information about the artist's songs
      */
     public List<SongResponseDto> getAllSongsByArtist(long artistId) {
-        log.info("Fetching songs by artist ID: {}", artistId);
-        List<Song> songs = songRepository.findByArtistId(artistId);
-        log.info("Found {} songs for artist ID: {}", songs.size(), artistId);
-        return songs.stream().map(this::mapToDto).collect(Collectors.toList());
+        List<Song> songs = catalogSnapshots.current()
+                .map(snapshot -> snapshot.findSongsByArtistId(artistId))
+                .orElseGet(() -> songRepository.findByArtistId(artistId));
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} songs for artist ID: {}", songs.size(), artistId);
+        }
+        return songs.stream().map(SongService::mapToDto).collect(Collectors.toList());
     }
 
     /**
@@ -74,10 +103,13 @@ public class SongService {
      * @return a list of {@link SongResponseDto} containing information about the album's songs
      */
     public List<SongResponseDto> getAllSongsByAlbum(long albumId) {
-        log.info("Fetching songs by album ID: {}", albumId);
-        List<Song> songs = songRepository.findByAlbumId(albumId);
-        log.info("Found {} songs for album ID: {}", songs.size(), albumId);
-        return songs.stream().map(this::mapToDto).collect(Collectors.toList());
+        List<Song> songs = catalogSnapshots.current()
+                .map(snapshot -> snapshot.findSongsByAlbumId(albumId))
+                .orElseGet(() -> songRepository.findByAlbumId(albumId));
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} songs for album ID: {}", songs.size(), albumId);
+        }
+        return songs.stream().map(SongService::mapToDto).collect(Collectors.toList());
     }
 
     /**
@@ -87,39 +119,61 @@ public class SongService {
      * @return a list of {@link SongResponseDto} containing information about the user's songs
      */
     public List<SongResponseDto> getAllSongsByUser(long userId) {
-        log.info("Fetching songs by user ID: {}", userId);
         List<Song> songs = songRepository.findByUserId(userId);
-        log.info("Found {} songs for user ID: {}", songs.size(), userId);
-        return songs.stream().map(this::mapToDto).collect(Collectors.toList());
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} songs for user ID: {}", songs.size(), userId);
+        }
+        return songs.stream().map(SongService::mapToDto).collect(Collectors.toList());
     }
 
     /**
      * Retrieves the MP3 file of a song by its ID.
+     * The file is not read here; the returned resource is streamed to the client by the caller.
      *
      * @param songId the ID of the song
-     * @return a byte array containing the MP3 file data
-     * @throws ResponseStatusException if the song is not found or there is an error reading the file
+     * @return a {@link Resource} pointing to the MP3 file
+     * @throws ResponseStatusException if the song is not found or its file cannot be read
      */
-    public byte[] getMp3ById(long songId) {
-        log.info("Fetching MP3 for song ID: {}", songId);
-        Song song = songRepository.findById(songId)
+    public Resource getMp3ById(long songId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching MP3 for song ID: {}", songId);
+        }
+        // A song added after the snapshot was loaded is looked up in the database
+        Song song = catalogSnapshots.current()
+                .flatMap(snapshot -> snapshot.songs().findById(songId))
+                .or(() -> songRepository.findById(songId))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Song not found"));
-        Path path = Paths.get("src/main/resources/songs/" + song.getSongUrl());
         try {
-            return Files.readAllBytes(path);
+            return songStorage.open(song.getSongUrl());
         } catch (IOException e) {
             log.error("Error reading file for song ID: {}", songId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error reading file", e);
         }
     }
 
+    /**
+     * Starts loading the file of the song that follows the given one in a playlist,
+     * so that it is served from memory when the player moves on to it.
+     *
+     * @param playlistId the ID of the playlist being played
+     * @param songId     the ID of the song currently being played
+     */
+    public void prefetchNextInPlaylist(long playlistId, long songId) {
+        songRepository.findNextInPlaylist(playlistId, songId)
+                .ifPresent(next -> {
+                    log.debug("Prefetching song ID: {} after song ID: {} in playlist ID: {}",
+                            next.getSongId(), songId, playlistId);
+                    songStorage.prefetch(next.getSongUrl());
+                });
+    }
+
     /**
      * Converts a song entity into a DTO object.
      *
      * @param song the {@link Song} entity to be converted
      * @return a {@link SongResponseDto} containing information about the song
      */
-    private SongResponseDto mapToDto(Song song) {
+    public static SongResponseDto mapToDto(Song song) {
         SongResponseDto dto = new SongResponseDto();
         dto.setId(song.getSongId());
         dto.setName(song.getSongName());
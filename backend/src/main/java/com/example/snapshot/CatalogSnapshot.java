@@ -0,0 +1,411 @@
+package com.example.snapshot;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Song;
+import com.example.repository.AlbumSongs;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable copy of the catalog (genres, artists, songs, albums and the songs of the albums) held in primitive arrays.
+ * <p>
+ * Every entity is a position in parallel arrays sorted by ID, and references between entities are positions too.
+ * IDs are resolved to positions with an {@link IntIndexMap}. The songs of an artist or an album and the albums
+ * of an artist are kept in compressed sparse row form: the positions of the songs of all artists are stored
+ * one artist after another in a single array, and a second array holds where the songs of each artist start.
+ * Names and URLs are packed in {@link StringColumn}s. The entities are only created when they are returned.
+ * <p>
+ * As with the queries of the repositories, songs whose artist or genre is unknown and albums whose creator
+ * is unknown are left out.
+ */
+public final class CatalogSnapshot {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final String[] genreNames;
+
+    private final int[] artistIds;
+    private final String[] artistNames;
+    private final int[] artistSongOffsets;
+    private final int[] artistSongs;
+    private final int[] artistAlbumOffsets;
+    private final int[] artistAlbums;
+
+    private final int[] songIds;
+    private final StringColumn songNames;
+    private final StringColumn songUrls;
+    private final int[] songArtists;
+    private final int[] songGenres;
+
+    private final int[] albumIds;
+    private final StringColumn albumNames;
+    private final int[] albumCreators;
+    private final long[] albumCreationDates;
+    private final int[] albumSongOffsets;
+    private final int[] albumSongs;
+
+    private final IntIndexMap artistIndex;
+    private final IntIndexMap songIndex;
+    private final IntIndexMap albumIndex;
+
+    private final SnapshotTable<Song> songs;
+    private final SnapshotTable<Album> albums;
+    private final SnapshotTable<Artist> artists;
+
+    private CatalogSnapshot(Builder builder) {
+        int[] genreIds = builder.genreIds.toArray();
+        IntIndexMap genreIndex = new IntIndexMap(genreIds);
+        genreNames = builder.genreNames.toArray(String[]::new);
+
+        artistIds = builder.artistIds.toArray();
+        artistIndex = new IntIndexMap(artistIds);
+        artistNames = builder.artistNames.toArray(String[]::new);
+
+        // Songs whose artist or genre is unknown are dropped, as by the joins of the queries
+        Ints keptSongs = new Ints();
+        Ints keptSongArtists = new Ints();
+        Ints keptSongGenres = new Ints();
+        for (int position = 0; position < builder.songIds.size(); position++) {
+            int artist = artistIndex.get(builder.songArtistIds.get(position));
+            int genre = genreIndex.get(builder.songGenreIds.get(position));
+            if (artist >= 0 && genre >= 0) {
+                keptSongs.add(position);
+                keptSongArtists.add(artist);
+                keptSongGenres.add(genre);
+            }
+        }
+        int[] kept = keptSongs.toArray();
+        songIds = select(builder.songIds, kept);
+        songIndex = new IntIndexMap(songIds);
+        songNames = builder.songNames.build(kept);
+        songUrls = builder.songUrls.build(kept);
+        songArtists = keptSongArtists.toArray();
+        songGenres = keptSongGenres.toArray();
+
+        Ints keptAlbums = new Ints();
+        Ints keptAlbumCreators = new Ints();
+        for (int position = 0; position < builder.albumIds.size(); position++) {
+            int creator = artistIndex.get(builder.albumCreatorIds.get(position));
+            if (creator >= 0) {
+                keptAlbums.add(position);
+                keptAlbumCreators.add(creator);
+            }
+        }
+        kept = keptAlbums.toArray();
+        albumIds = select(builder.albumIds, kept);
+        albumIndex = new IntIndexMap(albumIds);
+        albumNames = builder.albumNames.build(kept);
+        albumCreators = keptAlbumCreators.toArray();
+        albumCreationDates = new long[kept.length];
+        for (int position = 0; position < kept.length; position++) {
+            albumCreationDates[position] = builder.albumCreationDates[kept[position]];
+        }
+
+        Ints albumSongAlbums = new Ints();
+        Ints albumSongSongs = new Ints();
+        for (int position = 0; position < builder.albumSongAlbumIds.size(); position++) {
+            int album = albumIndex.get(builder.albumSongAlbumIds.get(position));
+            int song = songIndex.get(builder.albumSongSongIds.get(position));
+            if (album >= 0 && song >= 0) {
+                albumSongAlbums.add(album);
+                albumSongSongs.add(song);
+            }
+        }
+        int[] albumSongOwners = albumSongAlbums.toArray();
+        albumSongOffsets = offsets(albumIds.length, albumSongOwners);
+        albumSongs = targets(albumSongOffsets, albumSongOwners, albumSongSongs.toArray());
+        artistSongOffsets = offsets(artistIds.length, songArtists);
+        artistSongs = targets(artistSongOffsets, songArtists, null);
+        artistAlbumOffsets = offsets(artistIds.length, albumCreators);
+        artistAlbums = targets(artistAlbumOffsets, albumCreators, null);
+
+        songs = new SnapshotTable<>(songIds, songIndex, this::song);
+        albums = new SnapshotTable<>(albumIds, albumIndex, this::album);
+        artists = new SnapshotTable<>(artistIds, artistIndex, this::artist);
+    }
+
+    /**
+     * @return a builder of a snapshot
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the songs, with the name of their artist and genre
+     */
+    public SnapshotTable<Song> songs() {
+        return songs;
+    }
+
+    /**
+     * @return the albums, with the name of their creator
+     */
+    public SnapshotTable<Album> albums() {
+        return albums;
+    }
+
+    /**
+     * @return the artists
+     */
+    public SnapshotTable<Artist> artists() {
+        return artists;
+    }
+
+    /**
+     * @param artistId the ID of the artist
+     * @return the songs of the artist ordered by ID, or an empty list if the artist is not in the snapshot
+     */
+    public List<Song> findSongsByArtistId(long artistId) {
+        return rows(artistIndex.get(artistId), artistSongOffsets, artistSongs, this::song);
+    }
+
+    /**
+     * @param albumId the ID of the album
+     * @return the songs of the album in the order they were added, or an empty list if the album is not in the snapshot
+     */
+    public List<Song> findSongsByAlbumId(long albumId) {
+        return rows(albumIndex.get(albumId), albumSongOffsets, albumSongs, this::song);
+    }
+
+    /**
+     * @param artistId the ID of the artist
+     * @return the albums created by the artist ordered by ID, or an empty list if the artist is not in the snapshot
+     */
+    public List<Album> findAlbumsByArtistId(long artistId) {
+        return rows(artistIndex.get(artistId), artistAlbumOffsets, artistAlbums, this::album);
+    }
+
+    /**
+     * @param albumId the ID of the album
+     * @return the album with its creator and its songs, or empty if the album is not in the snapshot
+     */
+    public Optional<AlbumSongs> findAlbumWithSongs(long albumId) {
+        int position = albumIndex.get(albumId);
+        return position < 0 ? Optional.empty() : Optional.of(albumWithSongs(position));
+    }
+
+    /**
+     * @param albumIds the IDs of the albums
+     * @return the albums with their creators and songs, in the order of the IDs, without the IDs that are not in the snapshot
+     */
+    public List<AlbumSongs> findAlbumsWithSongsByIds(long[] albumIds) {
+        List<AlbumSongs> values = new ArrayList<>(albumIds.length);
+        for (long albumId : albumIds) {
+            int position = albumIndex.get(albumId);
+            if (position >= 0) {
+                values.add(albumWithSongs(position));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Estimates the memory held by the snapshot from the sizes of its arrays, without the object headers.
+     *
+     * @return the estimated size of the snapshot in bytes
+     */
+    public long estimateBytes() {
+        long bytes = songNames.estimateBytes() + songUrls.estimateBytes() + albumNames.estimateBytes()
+                + artistIndex.estimateBytes() + songIndex.estimateBytes() + albumIndex.estimateBytes()
+                + (long) albumCreationDates.length * Long.BYTES;
+        for (int[] array : List.of(artistIds, artistSongOffsets, artistSongs, artistAlbumOffsets, artistAlbums, songIds,
+                songArtists, songGenres, albumIds, albumCreators, albumSongOffsets, albumSongs)) {
+            bytes += (long) array.length * Integer.BYTES;
+        }
+        for (String[] names : List.of(genreNames, artistNames)) {
+            for (String name : names) {
+                // Header of the string and of its array, with Latin-1 compact strings
+                bytes += Integer.BYTES + (name == null ? 0 : 40 + name.length());
+            }
+        }
+        return bytes;
+    }
+
+    private Song song(int position) {
+        return new Song(songIds[position], songNames.get(position), artistNames[songArtists[position]],
+                genreNames[songGenres[position]], songUrls.get(position));
+    }
+
+    private Album album(int position) {
+        long date = albumCreationDates[position];
+        return new Album(albumIds[position], albumNames.get(position), artistNames[albumCreators[position]],
+                date == NO_DATE ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(date, 1_000_000),
+                        (int) Math.floorMod(date, 1_000_000) * 1000, ZoneOffset.UTC));
+    }
+
+    private Artist artist(int position) {
+        return new Artist(artistIds[position], artistNames[position]);
+    }
+
+    private AlbumSongs albumWithSongs(int position) {
+        return new AlbumSongs(album(position), artist(albumCreators[position]),
+                rows(position, albumSongOffsets, albumSongs, this::song));
+    }
+
+    private static <T> List<T> rows(int owner, int[] offsets, int[] targets,
+                                    java.util.function.IntFunction<T> row) {
+        if (owner < 0) {
+            return List.of();
+        }
+        List<T> values = new ArrayList<>(offsets[owner + 1] - offsets[owner]);
+        for (int index = offsets[owner]; index < offsets[owner + 1]; index++) {
+            values.add(row.apply(targets[index]));
+        }
+        return values;
+    }
+
+    private static int[] select(Ints values, int[] positions) {
+        int[] selected = new int[positions.length];
+        for (int index = 0; index < positions.length; index++) {
+            selected[index] = values.get(positions[index]);
+        }
+        return selected;
+    }
+
+    /**
+     * @param owners  the number of owners
+     * @param ownerOf the owner of each entry
+     * @return where the entries of each owner start, with the number of entries at the end
+     */
+    private static int[] offsets(int owners, int[] ownerOf) {
+        int[] offsets = new int[owners + 1];
+        for (int owner : ownerOf) {
+            offsets[owner + 1]++;
+        }
+        for (int owner = 0; owner < owners; owner++) {
+            offsets[owner + 1] += offsets[owner];
+        }
+        return offsets;
+    }
+
+    /**
+     * Groups the entries by owner, keeping their order within each owner.
+     *
+     * @param offsets where the entries of each owner start
+     * @param ownerOf the owner of each entry
+     * @param values  the value of each entry, or null to use the position of the entry
+     * @return the values grouped by owner
+     */
+    private static int[] targets(int[] offsets, int[] ownerOf, int[] values) {
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] targets = new int[ownerOf.length];
+        for (int entry = 0; entry < ownerOf.length; entry++) {
+            targets[next[ownerOf[entry]]++] = values == null ? entry : values[entry];
+        }
+        return targets;
+    }
+
+    /**
+     * Builder of a {@link CatalogSnapshot}. Artists, songs and albums must be added in ascending order of their IDs,
+     * and the songs of the albums in the order they were added to the albums.
+     */
+    public static final class Builder {
+
+        private final Ints genreIds = new Ints();
+        private final List<String> genreNames = new ArrayList<>();
+        private final Ints artistIds = new Ints();
+        private final List<String> artistNames = new ArrayList<>();
+        private final Ints songIds = new Ints();
+        private final StringColumn.Builder songNames = new StringColumn.Builder();
+        private final StringColumn.Builder songUrls = new StringColumn.Builder();
+        private final Ints songArtistIds = new Ints();
+        private final Ints songGenreIds = new Ints();
+        private final Ints albumIds = new Ints();
+        private final StringColumn.Builder albumNames = new StringColumn.Builder();
+        private final Ints albumCreatorIds = new Ints();
+        private long[] albumCreationDates = new long[64];
+        private final Ints albumSongAlbumIds = new Ints();
+        private final Ints albumSongSongIds = new Ints();
+
+        private Builder() {
+        }
+
+        public Builder addGenre(int genreId, String name) {
+            genreIds.add(genreId);
+            genreNames.add(name);
+            return this;
+        }
+
+        public Builder addArtist(int artistId, String nickname) {
+            requireAscending(artistIds, artistId, "Artist");
+            artistIds.add(artistId);
+            artistNames.add(nickname);
+            return this;
+        }
+
+        public Builder addSong(int songId, String name, String url, int artistId, int genreId) {
+            requireAscending(songIds, songId, "Song");
+            songIds.add(songId);
+            songNames.add(name);
+            songUrls.add(url);
+            songArtistIds.add(artistId);
+            songGenreIds.add(genreId);
+            return this;
+        }
+
+        public Builder addAlbum(int albumId, String name, int creatorId, LocalDateTime creationDate) {
+            requireAscending(albumIds, albumId, "Album");
+            if (albumIds.size() == albumCreationDates.length) {
+                albumCreationDates = Arrays.copyOf(albumCreationDates, albumCreationDates.length * 2);
+            }
+            albumCreationDates[albumIds.size()] = creationDate == null ? NO_DATE
+                    : creationDate.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + creationDate.getNano() / 1000;
+            albumIds.add(albumId);
+            albumNames.add(name);
+            albumCreatorIds.add(creatorId);
+            return this;
+        }
+
+        public Builder addAlbumSong(int albumId, int songId) {
+            albumSongAlbumIds.add(albumId);
+            albumSongSongIds.add(songId);
+            return this;
+        }
+
+        public CatalogSnapshot build() {
+            return new CatalogSnapshot(this);
+        }
+
+        private static void requireAscending(Ints ids, int id, String entity) {
+            if (ids.size() > 0 && ids.get(ids.size() - 1) >= id) {
+                throw new IllegalArgumentException(entity + " IDs must be added in ascending order: " + id
+                        + " after " + ids.get(ids.size() - 1));
+            }
+        }
+    }
+
+    /**
+     * Growable array of ints.
+     */
+    private static final class Ints {
+
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Reads the whole catalog into a {@link CatalogSnapshot}.
+ * <p>
+ * The tables are read in one read-only transaction at the REPEATABLE READ isolation level, so that
+ * the snapshot is consistent even if the catalog changes while it is being read. Rows are streamed
+ * with the configured fetch size instead of being held in the JDBC driver all at once.
+ */
+@Slf4j
+public class CatalogSnapshotLoader {
+
+    /**
+     * Marks a null foreign key. No catalog row has this ID, as the sequences start from 1.
+     */
+    private static final int NULL = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param dataSource         the data source of the catalog
+     * @param transactionManager the transaction manager of the data source
+     * @param fetchSize          the number of rows fetched from the database at a time
+     */
+    public CatalogSnapshotLoader(DataSource dataSource, PlatformTransactionManager transactionManager, int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * @return a snapshot of the catalog as it is in the database
+     */
+    public CatalogSnapshot load() {
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = transactionTemplate.execute(status -> {
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+            jdbcTemplate.query("select jenre_id, jenre_name from jenre order by jenre_id",
+                    rs -> {
+                        builder.addGenre(rs.getInt(1), rs.getString(2));
+                    });
+            jdbcTemplate.query("select artist_id, nickname from artist order by artist_id",
+                    rs -> {
+                        builder.addArtist(rs.getInt(1), rs.getString(2));
+                    });
+            jdbcTemplate.query("select song_id, song_name, song_url, artist_id, jenre_id from song order by song_id",
+                    rs -> {
+                        int artistId = getNullableInt(rs, 4);
+                        int genreId = getNullableInt(rs, 5);
+                        if (artistId != NULL && genreId != NULL) {
+                            builder.addSong(rs.getInt(1), rs.getString(2), rs.getString(3), artistId, genreId);
+                        }
+                    });
+            jdbcTemplate.query("select album_id, name, album_creator, creation_date from album order by album_id",
+                    rs -> {
+                        int creatorId = getNullableInt(rs, 3);
+                        if (creatorId != NULL) {
+                            Timestamp creationDate = rs.getTimestamp(4);
+                            builder.addAlbum(rs.getInt(1), rs.getString(2), creatorId,
+                                    creationDate == null ? null : creationDate.toLocalDateTime());
+                        }
+                    });
+            jdbcTemplate.query("select album_id, song_id from album_songs order by id",
+                    rs -> {
+                        int albumId = getNullableInt(rs, 1);
+                        int songId = getNullableInt(rs, 2);
+                        if (albumId != NULL && songId != NULL) {
+                            builder.addAlbumSong(albumId, songId);
+                        }
+                    });
+            return builder.build();
+        });
+        log.info("Loaded catalog snapshot with {} songs, {} albums and {} artists, about {} MB, in {} ms",
+                snapshot.songs().size(), snapshot.albums().size(), snapshot.artists().size(),
+                snapshot.estimateBytes() >> 20, (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    private static int getNullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? NULL : value;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.snapshot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-memory catalog snapshot, bound from the {@code catalog.snapshot} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.snapshot")
+public class CatalogSnapshotProperties {
+
+    /**
+     * Whether the catalog is loaded into memory and read endpoints are served from it.
+     * Requires {@code catalog.changes.enabled}, from which the snapshot learns about the catalog changes.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Time between two scheduled loads of the catalog, on top of the loads started by the change notifications.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * Number of rows fetched from the database at a time while loading the catalog.
+     */
+    private int fetchSize = 10_000;
+}
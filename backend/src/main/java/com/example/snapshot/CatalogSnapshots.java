@@ -0,0 +1,172 @@
+package com.example.snapshot;
+
+import com.example.cache.CacheInvalidator;
+import com.example.cache.CatalogChanges;
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Song;
+import com.example.repository.CatalogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holds the current {@link CatalogSnapshot} and replaces it with a new one at a fixed interval.
+ * <p>
+ * A new snapshot is built completely before it replaces the current one, so readers always see
+ * a whole snapshot, either the previous one or the new one. If a load fails, the previous snapshot
+ * is kept. Until the first snapshot is loaded, and when snapshots are disabled, {@link #current()}
+ * is empty and the services read from the database.
+ * <p>
+ * When the catalog changes on any instance, the next load is started without waiting for the interval.
+ * Changes received while a load is running start at most one more load, so a bulk edit does not queue
+ * a load per statement.
+ */
+@Slf4j
+public class CatalogSnapshots implements CacheInvalidator, AutoCloseable {
+
+    /**
+     * Tables copied into the snapshots.
+     */
+    private static final List<String> TABLES = List.of("song", "album", "artist", "jenre", "album_songs");
+
+    private final CatalogSnapshotLoader loader;
+    private final Duration refreshInterval;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * @param loader          the loader of the snapshots, or null if snapshots are disabled
+     * @param refreshInterval the time between two loads
+     */
+    public CatalogSnapshots(CatalogSnapshotLoader loader, Duration refreshInterval) {
+        this.loader = loader;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * @return a holder that never has a snapshot
+     */
+    public static CatalogSnapshots disabled() {
+        return new CatalogSnapshots(null, null);
+    }
+
+    /**
+     * @return the current snapshot, or empty if none is loaded
+     */
+    public Optional<CatalogSnapshot> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Replaces the current snapshot.
+     *
+     * @param snapshot the new snapshot
+     */
+    public void install(CatalogSnapshot snapshot) {
+        current.set(snapshot);
+    }
+
+    /**
+     * Loads a new snapshot and replaces the current one with it. Does nothing if snapshots are disabled.
+     */
+    public void refresh() {
+        if (loader != null) {
+            install(loader.load());
+        }
+    }
+
+    /**
+     * @param repository the repository of the songs
+     * @return a repository listing the songs from the current snapshot, or the given one if no snapshot is loaded
+     */
+    public CatalogRepository<Song> songs(CatalogRepository<Song> repository) {
+        return view(CatalogSnapshot::songs, repository);
+    }
+
+    /**
+     * @param repository the repository of the albums
+     * @return a repository listing the albums from the current snapshot, or the given one if no snapshot is loaded
+     */
+    public CatalogRepository<Album> albums(CatalogRepository<Album> repository) {
+        return view(CatalogSnapshot::albums, repository);
+    }
+
+    /**
+     * @param repository the repository of the artists
+     * @return a repository listing the artists from the current snapshot, or the given one if no snapshot is loaded
+     */
+    public CatalogRepository<Artist> artists(CatalogRepository<Artist> repository) {
+        return view(CatalogSnapshot::artists, repository);
+    }
+
+    private <T> CatalogRepository<T> view(Function<CatalogSnapshot, SnapshotTable<T>> table,
+                                          CatalogRepository<T> repository) {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null ? repository : new SnapshotCatalogRepository<>(table.apply(snapshot), repository);
+    }
+
+    /**
+     * Loads the first snapshot once the application has started, then schedules the refreshes.
+     * The application serves requests from the database while the first snapshot is loading.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (loader == null || scheduler != null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-snapshot-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts loading a new snapshot if the catalog has changed, unless a load is already waiting to start.
+     *
+     * @param changes the changes made to the database
+     */
+    @Override
+    public void invalidate(CatalogChanges changes) {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null || TABLES.stream().noneMatch(changes::touches)) {
+            return;
+        }
+        if (refreshRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                refreshRequested.set(false);
+                refreshSafely();
+            });
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Failed to load the catalog snapshot, keeping the previous one", e);
+        }
+    }
+
+    /**
+     * Stops the refreshes.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
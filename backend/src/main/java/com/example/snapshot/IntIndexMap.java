@@ -0,0 +1,63 @@
+package com.example.snapshot;
+
+/**
+ * Map from int IDs to their positions in the arrays of a {@link CatalogSnapshot}, with open addressing and
+ * linear probing over two int arrays, so a lookup allocates nothing and touches one or two cache lines.
+ * The table is at most half full. The position is stored plus one, so that zero marks a free slot.
+ */
+final class IntIndexMap {
+
+    private final int[] keys;
+    private final int[] positions;
+    private final int mask;
+
+    /**
+     * @param ids the IDs, each mapped to its position in this array; they must be distinct
+     */
+    IntIndexMap(int[] ids) {
+        int capacity = Integer.highestOneBit(Math.max(2, ids.length) * 2 - 1) << 1;
+        keys = new int[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+        for (int position = 0; position < ids.length; position++) {
+            int slot = slot(ids[position]);
+            while (positions[slot] != 0) {
+                if (keys[slot] == ids[position]) {
+                    throw new IllegalArgumentException("Duplicate ID: " + ids[position]);
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = ids[position];
+            positions[slot] = position + 1;
+        }
+    }
+
+    /**
+     * @param id the ID to look up
+     * @return the position of the ID, or -1 if it is not in the map
+     */
+    int get(long id) {
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int key = (int) id;
+        for (int slot = slot(key); positions[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return positions[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of bytes of the arrays of the map
+     */
+    long estimateBytes() {
+        return 2L * keys.length * Integer.BYTES;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
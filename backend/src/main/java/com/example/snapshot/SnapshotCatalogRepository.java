@@ -0,0 +1,64 @@
+package com.example.snapshot;
+
+import com.example.repository.CatalogRepository;
+import com.example.repository.Counted;
+
+import java.util.List;
+
+/**
+ * {@link CatalogRepository} serving the listings that are not filtered by name from a {@link SnapshotTable}.
+ * Searches by name go to the database, whose trigram indexes answer them better than a scan of the snapshot would.
+ *
+ * @param <T> the type of the entities
+ */
+final class SnapshotCatalogRepository<T> implements CatalogRepository<T> {
+
+    private final SnapshotTable<T> table;
+    private final CatalogRepository<T> delegate;
+
+    SnapshotCatalogRepository(SnapshotTable<T> table, CatalogRepository<T> delegate) {
+        this.table = table;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int count() {
+        return table.size();
+    }
+
+    @Override
+    public int estimateCount() {
+        return table.size();
+    }
+
+    @Override
+    public int countByNameContaining(String name) {
+        return delegate.countByNameContaining(name);
+    }
+
+    @Override
+    public List<Counted<T>> findByNameContainingWithCount(String name, int offset, int limit) {
+        return delegate.findByNameContainingWithCount(name, offset, limit);
+    }
+
+    @Override
+    public List<Counted<T>> findAllWithCount(int offset, int limit) {
+        int count = table.size();
+        return table.findAll(offset, limit).stream().map(value -> new Counted<>(value, count)).toList();
+    }
+
+    @Override
+    public List<T> findAll(int offset, int limit) {
+        return table.findAll(offset, limit);
+    }
+
+    @Override
+    public List<T> findByNameContainingAfter(String name, long afterId, int limit) {
+        return delegate.findByNameContainingAfter(name, afterId, limit);
+    }
+
+    @Override
+    public List<T> findAllAfter(long afterId, int limit) {
+        return table.findAllAfter(afterId, limit);
+    }
+}
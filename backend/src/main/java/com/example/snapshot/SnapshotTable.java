@@ -0,0 +1,96 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * Rows of one entity of a {@link CatalogSnapshot}, in ascending order of their IDs.
+ * Rows are materialized as entities only when they are returned.
+ *
+ * @param <T> the type of the entities
+ */
+public final class SnapshotTable<T> {
+
+    private final int[] ids;
+    private final IntIndexMap index;
+    private final IntFunction<T> row;
+
+    SnapshotTable(int[] ids, IntIndexMap index, IntFunction<T> row) {
+        this.ids = ids;
+        this.index = index;
+        this.row = row;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param id the ID of the entity
+     * @return the entity with the given ID, or empty if it is not in the snapshot
+     */
+    public Optional<T> findById(long id) {
+        int position = index.get(id);
+        return position < 0 ? Optional.empty() : Optional.of(row.apply(position));
+    }
+
+    /**
+     * @param ids the IDs of the entities
+     * @return the entities with the given IDs, in the order of the IDs, without the IDs that are not in the snapshot
+     */
+    public List<T> findAllByIds(long[] ids) {
+        List<T> values = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            int position = index.get(id);
+            if (position >= 0) {
+                values.add(row.apply(position));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param offset the number of rows to skip
+     * @param limit  the maximum number of rows to return
+     * @return the rows of the page, ordered by ID
+     */
+    public List<T> findAll(int offset, int limit) {
+        return page(Math.max(0, offset), limit);
+    }
+
+    /**
+     * @param afterId the ID after which the page starts
+     * @param limit   the maximum number of rows to return
+     * @return the rows with an ID greater than the given one, ordered by ID
+     */
+    public List<T> findAllAfter(long afterId, int limit) {
+        int from;
+        if (afterId >= Integer.MAX_VALUE) {
+            from = ids.length;
+        } else if (afterId < Integer.MIN_VALUE) {
+            from = 0;
+        } else {
+            int found = Arrays.binarySearch(ids, (int) afterId + 1);
+            from = found >= 0 ? found : -found - 1;
+        }
+        return page(from, limit);
+    }
+
+    private List<T> page(int from, int limit) {
+        int to = (int) Math.min(ids.length, (long) from + Math.max(0, limit));
+        if (from >= to) {
+            return List.of();
+        }
+        List<T> values = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            values.add(row.apply(position));
+        }
+        return values;
+    }
+}
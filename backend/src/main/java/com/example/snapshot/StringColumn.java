@@ -0,0 +1,103 @@
+package com.example.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Column of strings packed as UTF-8 in a single byte array. Millions of short names take about a third
+ * of the memory of as many {@link String} objects, at the cost of decoding a string each time it is read.
+ */
+final class StringColumn {
+
+    private final byte[] data;
+    private final int[] offsets;
+    private final BitSet nulls;
+
+    private StringColumn(byte[] data, int[] offsets, BitSet nulls) {
+        this.data = data;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @param index the position of the string
+     * @return the string at the position, or null if a null was added there
+     */
+    String get(int index) {
+        if (nulls.get(index)) {
+            return null;
+        }
+        return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of bytes of the arrays of the column
+     */
+    long estimateBytes() {
+        return data.length + (long) offsets.length * Integer.BYTES + nulls.size() / 8;
+    }
+
+    /**
+     * Builder appending strings in the order of their positions.
+     */
+    static final class Builder {
+
+        private byte[] data = new byte[1024];
+        private int[] offsets = new int[64];
+        private final BitSet nulls = new BitSet();
+        private int length;
+        private int size;
+
+        void add(String value) {
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (value == null) {
+                nulls.set(size);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (length + bytes.length > data.length) {
+                    long capacity = Math.max((long) data.length * 2, (long) length + bytes.length);
+                    if (capacity > Integer.MAX_VALUE - 8) {
+                        throw new IllegalStateException("Column larger than 2 GB");
+                    }
+                    data = Arrays.copyOf(data, (int) capacity);
+                }
+                System.arraycopy(bytes, 0, data, length, bytes.length);
+                length += bytes.length;
+            }
+            offsets[++size] = length;
+        }
+
+        /**
+         * Builds a column with the strings at the given positions of the added ones.
+         *
+         * @param kept the positions of the strings to keep, in ascending order
+         * @return the column
+         */
+        StringColumn build(int[] kept) {
+            if (kept.length == size) {
+                return build();
+            }
+            Builder compacted = new Builder();
+            for (int position : kept) {
+                compacted.addFrom(this, position);
+            }
+            return compacted.build();
+        }
+
+        private StringColumn build() {
+            return new StringColumn(Arrays.copyOf(data, length), Arrays.copyOf(offsets, size + 1), nulls);
+        }
+
+        private void addFrom(Builder other, int position) {
+            if (other.nulls.get(position)) {
+                add(null);
+            } else {
+                add(new String(other.data, other.offsets[position], other.offsets[position + 1] - other.offsets[position],
+                        StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Base class for file system {@link SongStorage} implementations.
+ * Runs prefetches on a dedicated executor, which is shut down when the storage is closed,
+ * and measures the time they take to read the whole file. Opening a file is not timed,
+ * since it only resolves or maps the file and the content is read later, while it is streamed.
+ */
+@Slf4j
+public abstract class AbstractSongStorage implements SongStorage, AutoCloseable {
+
+    private final StorageReadStats readStats = new StorageReadStats();
+    private final ExecutorService prefetchExecutor;
+
+    /**
+     * @param prefetchExecutor the executor on which prefetches are run
+     */
+    protected AbstractSongStorage(ExecutorService prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    @Override
+    public Resource open(String songUrl) throws IOException {
+        try {
+            return read(songUrl);
+        } catch (IOException | RuntimeException e) {
+            readStats.recordFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Prefetching is best effort: when the prefetch queue is full the request is dropped
+     * and the returned future fails with a {@link RejectedExecutionException}.
+     */
+    @Override
+    public CompletableFuture<Void> prefetch(String songUrl) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    load(songUrl);
+                    readStats.recordRead(System.nanoTime() - start);
+                } catch (IOException e) {
+                    readStats.recordFailure();
+                    log.warn("Failed to prefetch song file: {}", songUrl, e);
+                    throw new UncheckedIOException(e);
+                }
+            }, prefetchExecutor);
+        } catch (RejectedExecutionException e) {
+            log.debug("Prefetch queue is full, skipping song file: {}", songUrl);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public StorageReadStats getReadStats() {
+        return readStats;
+    }
+
+    /**
+     * Stops the prefetch executor. Prefetches that have not started yet are dropped.
+     */
+    @Override
+    public void close() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Opens the file of a song.
+     *
+     * @param songUrl the location of the file relative to the storage
+     * @return a {@link Resource} with the content of the file
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    protected abstract Resource read(String songUrl) throws IOException;
+
+    /**
+     * Loads the file of a song into memory (the page cache or a mapping).
+     *
+     * @param songUrl the location of the file relative to the storage
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    protected abstract void load(String songUrl) throws IOException;
+
+    /**
+     * Resolves the location of a song against a storage directory.
+     * Locations escaping the directory (for example through {@code ..}) are rejected.
+     *
+     * @param root    the storage directory
+     * @param songUrl the location of the file relative to the directory
+     * @return the absolute path of the file
+     * @throws NoSuchFileException if the location escapes the directory
+     */
+    protected static Path resolve(Path root, String songUrl) throws NoSuchFileException {
+        Path path = root.resolve(songUrl).normalize();
+        if (!path.startsWith(root)) {
+            throw new NoSuchFileException(songUrl, null, "outside of the storage directory");
+        }
+        return path;
+    }
+}
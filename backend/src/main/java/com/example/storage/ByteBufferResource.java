@@ -0,0 +1,106 @@
+package com.example.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link org.springframework.core.io.Resource} whose content lives in a {@link ByteBuffer},
+ * typically a memory-mapped file or a direct buffer outside the Java heap.
+ * The buffer is never modified; every reader works on its own view of it.
+ */
+public class ByteBufferResource extends AbstractResource {
+
+    private final ByteBuffer buffer;
+    private final String description;
+    private final long lastModified;
+
+    /**
+     * Creates a resource over the whole content of the buffer.
+     *
+     * @param buffer       the buffer with the content, positioned at its start
+     * @param description  a description of the resource, used in error messages
+     * @param lastModified the last modification time of the content, in milliseconds
+     */
+    public ByteBufferResource(ByteBuffer buffer, String description, long lastModified) {
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.description = description;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns a read-only view of a part of the content.
+     *
+     * @param start the first byte of the view
+     * @param count the number of bytes in the view
+     * @return a buffer positioned at {@code start} and limited to {@code count} bytes
+     */
+    public ByteBuffer slice(long start, long count) {
+        return buffer.slice(Math.toIntExact(start), Math.toIntExact(count));
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        ByteBuffer view = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, view.remaining());
+                view.get(bytes, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+
+            @Override
+            public long skip(long n) {
+                int count = (int) Math.min(Math.max(n, 0), view.remaining());
+                view.position(view.position() + count);
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link SongStorage} decorator that keeps the most played tracks in direct buffers outside the Java heap.
+ * <p>
+ * The cache is bounded by a byte budget and follows the W-TinyLFU design: newly loaded tracks enter a small
+ * LRU window, and a track leaving the window (or too large for it) is only admitted to the main LRU region
+ * if it has been requested more often than the tracks it would evict, as estimated by a {@link FrequencySketch}.
+ * One-off plays therefore cannot flush the popular tracks out of the cache.
+ * <p>
+ * A miss is served from the underlying storage while the track is copied into the cache in the background.
+ * Hits are served as {@link ByteBufferResource}s sharing the cached buffer, which stays valid for readers
+ * even after the track is evicted.
+ */
+@Slf4j
+public class CachingSongStorage implements SongStorage, AutoCloseable {
+
+    private static final int SKETCH_WIDTH = 1 << 16;
+
+    private final SongStorage delegate;
+    private final long windowMaxBytes;
+    private final long mainMaxBytes;
+    private final Executor loadExecutor;
+    private final FrequencySketch sketch = new FrequencySketch(SKETCH_WIDTH);
+    private final LinkedHashMap<String, CachedTrack> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, CachedTrack> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final SongCacheStats stats = new SongCacheStats();
+    private long windowBytes;
+    private long mainBytes;
+
+    /**
+     * @param delegate     the storage the tracks are read from
+     * @param maxBytes     the maximum number of bytes held by the cache
+     * @param windowRatio  the share of the budget given to the admission window, between 0 and 1
+     * @param loadExecutor the executor copying tracks into the cache
+     */
+    public CachingSongStorage(SongStorage delegate, long maxBytes, double windowRatio, Executor loadExecutor) {
+        this.delegate = delegate;
+        this.windowMaxBytes = (long) (maxBytes * windowRatio);
+        this.mainMaxBytes = maxBytes - windowMaxBytes;
+        this.loadExecutor = loadExecutor;
+    }
+
+    @Override
+    public Resource open(String songUrl) throws IOException {
+        CachedTrack track;
+        synchronized (this) {
+            sketch.increment(songUrl);
+            track = window.get(songUrl);
+            if (track == null) {
+                track = main.get(songUrl);
+            }
+        }
+        if (track != null) {
+            stats.recordHit();
+            return new ByteBufferResource(track.buffer(), "cached song file [" + songUrl + "]", track.lastModified());
+        }
+        stats.recordMiss();
+        Resource resource = delegate.open(songUrl);
+        scheduleLoad(songUrl, resource);
+        return resource;
+    }
+
+    @Override
+    public CompletableFuture<Void> prefetch(String songUrl) {
+        synchronized (this) {
+            if (window.containsKey(songUrl) || main.containsKey(songUrl)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return delegate.prefetch(songUrl);
+    }
+
+    /**
+     * Returns the read statistics of the underlying storage, including the reads of the tracks loaded into the cache.
+     */
+    @Override
+    public StorageReadStats getReadStats() {
+        return delegate.getReadStats();
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of the cache
+     */
+    public SongCacheStats getCacheStats() {
+        return stats;
+    }
+
+    /**
+     * @return the number of bytes currently held by the cache
+     */
+    public synchronized long getCachedBytes() {
+        return windowBytes + mainBytes;
+    }
+
+    /**
+     * @return the number of tracks currently held by the cache
+     */
+    public synchronized int getCachedTracks() {
+        return window.size() + main.size();
+    }
+
+    /**
+     * Checks whether a track is currently held by the cache.
+     *
+     * @param songUrl the location of the track
+     * @return true if the track is cached
+     */
+    public synchronized boolean contains(String songUrl) {
+        return window.containsKey(songUrl) || main.containsKey(songUrl);
+    }
+
+    /**
+     * Removes a track from the cache, for example after its file has been replaced.
+     *
+     * @param songUrl the location of the track
+     */
+    public synchronized void invalidate(String songUrl) {
+        CachedTrack track = window.remove(songUrl);
+        if (track != null) {
+            windowBytes -= track.size();
+        }
+        track = main.remove(songUrl);
+        if (track != null) {
+            mainBytes -= track.size();
+        }
+    }
+
+    /**
+     * Removes every track from the cache.
+     */
+    public synchronized void invalidateAll() {
+        window.clear();
+        main.clear();
+        windowBytes = 0;
+        mainBytes = 0;
+    }
+
+    /**
+     * Stops loading tracks into the cache and closes the underlying storage.
+     */
+    @Override
+    public void close() throws Exception {
+        if (loadExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void scheduleLoad(String songUrl, Resource resource) throws IOException {
+        if (resource.contentLength() > Math.max(windowMaxBytes, mainMaxBytes) || !loading.add(songUrl)) {
+            return;
+        }
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    load(songUrl, resource);
+                } finally {
+                    loading.remove(songUrl);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(songUrl);
+            log.debug("Cache load queue is full, skipping song file: {}", songUrl);
+        }
+    }
+
+    private void load(String songUrl, Resource resource) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(resource.contentLength()));
+            long start = System.nanoTime();
+            try (ReadableByteChannel channel = resource.readableChannel()) {
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+            }
+            getReadStats().recordRead(System.nanoTime() - start);
+            buffer.flip();
+            insert(songUrl, new CachedTrack(buffer.asReadOnlyBuffer(), resource.lastModified()));
+        } catch (IOException | OutOfMemoryError e) {
+            // OutOfMemoryError here means the direct memory limit is lower than the cache budget
+            stats.recordLoadFailure();
+            log.warn("Failed to load song file into the cache: {}", songUrl, e);
+        }
+    }
+
+    private synchronized void insert(String songUrl, CachedTrack track) {
+        if (window.containsKey(songUrl) || main.containsKey(songUrl)) {
+            return;
+        }
+        if (track.size() > windowMaxBytes) {
+            admit(songUrl, track);
+            return;
+        }
+        window.put(songUrl, track);
+        windowBytes += track.size();
+        Iterator<Map.Entry<String, CachedTrack>> iterator = window.entrySet().iterator();
+        while (windowBytes > windowMaxBytes) {
+            Map.Entry<String, CachedTrack> eldest = iterator.next();
+            iterator.remove();
+            windowBytes -= eldest.getValue().size();
+            admit(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Moves a candidate into the main region if it is requested more often than every track
+     * that has to be evicted to make room for it.
+     */
+    private void admit(String songUrl, CachedTrack candidate) {
+        if (candidate.size() > mainMaxBytes) {
+            stats.recordRejection();
+            return;
+        }
+        long needed = mainBytes + candidate.size() - mainMaxBytes;
+        List<String> victims = new ArrayList<>();
+        if (needed > 0) {
+            int candidateFrequency = sketch.frequency(songUrl);
+            long freed = 0;
+            for (Map.Entry<String, CachedTrack> entry : main.entrySet()) {
+                if (sketch.frequency(entry.getKey()) >= candidateFrequency) {
+                    stats.recordRejection();
+                    return;
+                }
+                victims.add(entry.getKey());
+                freed += entry.getValue().size();
+                if (freed >= needed) {
+                    break;
+                }
+            }
+        }
+        for (String victim : victims) {
+            mainBytes -= main.remove(victim).size();
+        }
+        stats.recordEvictions(victims.size());
+        main.put(songUrl, candidate);
+        mainBytes += candidate.size();
+    }
+
+    /**
+     * Track held by the cache.
+     *
+     * @param buffer       the content of the track, outside the Java heap
+     * @param lastModified the last modification time of the file the content was read from
+     */
+    private record CachedTrack(ByteBuffer buffer, long lastModified) {
+
+        long size() {
+            return buffer.remaining();
+        }
+    }
+}
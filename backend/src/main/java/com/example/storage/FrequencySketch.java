@@ -0,0 +1,89 @@
+package com.example.storage;
+
+/**
+ * Count-min sketch estimating how often each song file was requested, used by the
+ * TinyLFU admission policy of {@link CachingSongStorage}.
+ * Counters are 4-bit (saturating at 15) and are halved periodically so that the
+ * estimates follow changes in popularity. Not thread-safe; callers synchronize.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+
+    private final byte[] table;
+    private final int widthMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param width the number of counters per row, rounded up to a power of two
+     */
+    FrequencySketch(int width) {
+        int size = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.table = new byte[DEPTH * size];
+        this.widthMask = size - 1;
+        this.sampleSize = 10 * size;
+    }
+
+    /**
+     * Records one request of the key.
+     *
+     * @param key the requested key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of requests of the key.
+     *
+     * @param key the key
+     * @return the estimated frequency, between 0 and 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter, ageing out requests that happened long ago.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (byte) (table[i] >>> 1);
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + (long) SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * (widthMask + 1) + ((int) h & widthMask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        hash *= 0xac4c1b51;
+        hash ^= hash >>> 15;
+        return hash;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * {@link SongStorage} that memory-maps song files from a single local directory.
+ * The content is served from the page cache without being copied onto the Java heap,
+ * and prefetching a file faults all of its pages in ahead of playback.
+ */
+public class MappedSongStorage extends AbstractSongStorage {
+
+    private final Path root;
+
+    /**
+     * @param root             the directory containing the song files
+     * @param prefetchExecutor the executor on which prefetches are run
+     */
+    public MappedSongStorage(Path root, ExecutorService prefetchExecutor) {
+        super(prefetchExecutor);
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected Resource read(String songUrl) throws IOException {
+        Path path = resolve(root, songUrl);
+        return new ByteBufferResource(map(path), path.toString(), Files.getLastModifiedTime(path).toMillis());
+    }
+
+    @Override
+    protected void load(String songUrl) throws IOException {
+        map(resolve(root, songUrl)).load();
+    }
+
+    /**
+     * Maps the whole file read-only. The mapping stays valid after the channel is closed
+     * and is released once the buffer becomes unreachable.
+     */
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * {@link SongStorage} that spreads song files over several directories, e.g. one per volume.
+ * A file is expected in the directory selected by the hash of its location; if it is not there,
+ * the other directories are searched, so files can be moved between volumes gradually.
+ * Files are served as {@link FileSystemResource}s and can therefore be sent with {@code transferTo}.
+ */
+@Slf4j
+public class ShardedSongStorage extends AbstractSongStorage {
+
+    private static final int PREFETCH_BUFFER_SIZE = 256 * 1024;
+
+    private final List<Path> roots;
+
+    /**
+     * @param roots            the directories containing the song files, at least one
+     * @param prefetchExecutor the executor on which prefetches are run
+     */
+    public ShardedSongStorage(List<Path> roots, ExecutorService prefetchExecutor) {
+        super(prefetchExecutor);
+        if (roots.isEmpty()) {
+            throw new IllegalArgumentException("At least one storage directory is required");
+        }
+        this.roots = roots.stream().map(root -> root.toAbsolutePath().normalize()).toList();
+    }
+
+    @Override
+    protected Resource read(String songUrl) throws IOException {
+        return new FileSystemResource(locate(songUrl));
+    }
+
+    @Override
+    protected void load(String songUrl) throws IOException {
+        // Reading the file sequentially pulls it into the page cache of its volume
+        ByteBuffer buffer = ByteBuffer.allocateDirect(PREFETCH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(locate(songUrl), StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the directory a file belongs to.
+     *
+     * @param songUrl the location of the file
+     * @return the index of the directory in the configured list
+     */
+    public int shardOf(String songUrl) {
+        return Math.floorMod(songUrl.hashCode(), roots.size());
+    }
+
+    private Path locate(String songUrl) throws IOException {
+        int shard = shardOf(songUrl);
+        Path path = resolve(roots.get(shard), songUrl);
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+        for (int i = 0; i < roots.size(); i++) {
+            if (i == shard) {
+                continue;
+            }
+            Path candidate = resolve(roots.get(i), songUrl);
+            if (Files.isRegularFile(candidate)) {
+                log.debug("Song file {} found outside of its shard {}", songUrl, shard);
+                return candidate;
+            }
+        }
+        throw new NoSuchFileException(path.toString());
+    }
+}
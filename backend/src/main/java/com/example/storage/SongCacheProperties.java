@@ -0,0 +1,36 @@
+package com.example.storage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the in-memory cache of popular tracks, bound from the {@code songs.cache} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "songs.cache")
+public class SongCacheProperties {
+
+    /**
+     * Whether popular tracks are cached in memory.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum amount of direct memory used by the cache.
+     * Must not exceed {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(128);
+
+    /**
+     * Share of the cache reserved for recently requested tracks that have not been admitted yet.
+     */
+    private double windowRatio = 0.05;
+
+    /**
+     * Maximum number of tracks waiting to be copied into the cache; further tracks are skipped.
+     */
+    private int loadQueueCapacity = 16;
+}
@@ -0,0 +1,79 @@
+package com.example.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counters of a {@link CachingSongStorage}.
+ */
+public class SongCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEvictions(int count) {
+        evictions.add(count);
+    }
+
+    void recordRejection() {
+        rejections.increment();
+    }
+
+    void recordLoadFailure() {
+        loadFailures.increment();
+    }
+
+    /**
+     * @return the number of requests served from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of requests served from the underlying storage
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of tracks removed from the cache to make room for others
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of tracks the admission policy refused to cache
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return the number of tracks that could not be loaded into the cache
+     */
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * @return the share of requests served from the cache, between 0 and 1
+     */
+    public double getHitRatio() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage backend for song audio files.
+ * Resolves the {@code song_url} of a song to a readable {@link Resource} and can warm up files
+ * that are likely to be requested soon, such as the next track of a playlist.
+ */
+public interface SongStorage {
+
+    /**
+     * Opens the audio file of a song.
+     *
+     * @param songUrl the location of the file relative to the storage, as stored in {@code song.song_url}
+     * @return a {@link Resource} with the content of the file
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    Resource open(String songUrl) throws IOException;
+
+    /**
+     * Asynchronously loads the audio file of a song so that a subsequent {@link #open(String)}
+     * is served from memory instead of disk.
+     *
+     * @param songUrl the location of the file relative to the storage
+     * @return a future completed when the file has been loaded
+     */
+    CompletableFuture<Void> prefetch(String songUrl);
+
+    /**
+     * Returns the latency statistics of the reads of whole files performed by this storage.
+     *
+     * @return the {@link StorageReadStats} of this storage
+     */
+    StorageReadStats getReadStats();
+}
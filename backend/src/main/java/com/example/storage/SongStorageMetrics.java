@@ -0,0 +1,72 @@
+package com.example.storage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link StorageReadStats} of a {@link SongStorage} and, when it is a {@link CachingSongStorage},
+ * its {@link SongCacheStats} and occupancy. The meters read the existing counters when they are scraped,
+ * so the streaming path does not pay for them.
+ */
+public class SongStorageMetrics implements MeterBinder {
+
+    private final SongStorage storage;
+
+    public SongStorageMetrics(SongStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        StorageReadStats readStats = storage.getReadStats();
+        FunctionTimer.builder("songs.storage.reads", readStats, StorageReadStats::getReads,
+                        StorageReadStats::getTotalTimeNanos, TimeUnit.NANOSECONDS)
+                .description("Reads of whole song files from the storage by prefetches and cache loads")
+                .register(registry);
+        TimeGauge.builder("songs.storage.reads.max", readStats, TimeUnit.NANOSECONDS, StorageReadStats::getMaxTimeNanos)
+                .description("Longest read of a whole song file since the start")
+                .register(registry);
+        FunctionCounter.builder("songs.storage.read.failures", readStats, StorageReadStats::getFailures)
+                .description("Opens and reads of song files that failed")
+                .register(registry);
+
+        if (!(storage instanceof CachingSongStorage cachingStorage)) {
+            return;
+        }
+        SongCacheStats cacheStats = cachingStorage.getCacheStats();
+        FunctionCounter.builder("songs.cache.requests", cacheStats, SongCacheStats::getHits)
+                .description("Requests for songs, by whether they were served from the cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("songs.cache.requests", cacheStats, SongCacheStats::getMisses)
+                .description("Requests for songs, by whether they were served from the cache")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("songs.cache.hit.ratio", cacheStats, SongCacheStats::getHitRatio)
+                .description("Share of the requests for songs served from the cache")
+                .register(registry);
+        FunctionCounter.builder("songs.cache.evictions", cacheStats, SongCacheStats::getEvictions)
+                .description("Songs removed from the cache to make room for others")
+                .register(registry);
+        FunctionCounter.builder("songs.cache.rejections", cacheStats, SongCacheStats::getRejections)
+                .description("Songs the admission policy refused to cache")
+                .register(registry);
+        FunctionCounter.builder("songs.cache.load.failures", cacheStats, SongCacheStats::getLoadFailures)
+                .description("Songs that could not be loaded into the cache")
+                .register(registry);
+        Gauge.builder("songs.cache.size", cachingStorage, CachingSongStorage::getCachedBytes)
+                .description("Bytes of song data held in the cache")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder("songs.cache.tracks", cachingStorage, CachingSongStorage::getCachedTracks)
+                .description("Songs held in the cache")
+                .register(registry);
+    }
+}
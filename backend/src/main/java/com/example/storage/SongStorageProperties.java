@@ -0,0 +1,53 @@
+package com.example.storage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Configuration of the song file storage, bound from the {@code songs.storage} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "songs.storage")
+public class SongStorageProperties {
+
+    /**
+     * Storage implementation to use.
+     */
+    private Type type = Type.SHARDED;
+
+    /**
+     * Directories containing the song files. The mapped storage uses only the first one.
+     */
+    private List<Path> locations = List.of(Path.of("src/main/resources/songs"));
+
+    /**
+     * Number of threads prefetching song files.
+     */
+    private int prefetchThreads = 2;
+
+    /**
+     * Maximum number of prefetches waiting for a thread; further prefetches are dropped.
+     */
+    private int prefetchQueueCapacity = 64;
+
+    /**
+     * Available storage implementations.
+     */
+    public enum Type {
+
+        /**
+         * {@link MappedSongStorage}: files are memory-mapped from a single directory.
+         */
+        MAPPED,
+
+        /**
+         * {@link ShardedSongStorage}: files are spread over several directories.
+         */
+        SHARDED
+    }
+}
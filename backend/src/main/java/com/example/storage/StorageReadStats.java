@@ -0,0 +1,71 @@
+package com.example.storage;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency statistics of the reads of whole song files performed by a {@link SongStorage},
+ * such as prefetches and loads into the cache, and of the failed opens and reads.
+ * Safe to update concurrently from many threads.
+ */
+public class StorageReadStats {
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalTimeNanos = new LongAdder();
+    private final LongAccumulator maxTimeNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a successful read.
+     *
+     * @param nanos the duration of the read in nanoseconds
+     */
+    public void recordRead(long nanos) {
+        reads.increment();
+        totalTimeNanos.add(nanos);
+        maxTimeNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records a failed read.
+     */
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * @return the number of successful reads
+     */
+    public long getReads() {
+        return reads.sum();
+    }
+
+    /**
+     * @return the number of failed reads
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the total time spent in successful reads, in nanoseconds
+     */
+    public long getTotalTimeNanos() {
+        return totalTimeNanos.sum();
+    }
+
+    /**
+     * @return the longest successful read, in nanoseconds
+     */
+    public long getMaxTimeNanos() {
+        return maxTimeNanos.get();
+    }
+
+    /**
+     * @return the mean duration of a successful read, in nanoseconds
+     */
+    public double getMeanTimeNanos() {
+        long count = getReads();
+        return count == 0 ? 0 : (double) getTotalTimeNanos() / count;
+    }
+}
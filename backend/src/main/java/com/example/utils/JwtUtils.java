@@ -1,26 +1,81 @@
 package com.example.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
  * Utility class for working with JWT (JSON Web Tokens).
  * Provides methods for extracting information from tokens and verifying their validity.
+ * <p>
+ * The signing key and the parser are built once and shared between threads.
+ * Verified tokens are remembered in a bounded cache keyed by the SHA-256 hash of the token,
+ * so a client sending the same token with every request only has its signature checked once.
  */
-@RequiredArgsConstructor
-@Getter
 public class JwtUtils {
 
+    /**
+     * Claim holding the ID of the user the token was issued to.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim holding the authorities of the user the token was issued to.
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * Default number of verified tokens remembered.
+     */
+    public static final int DEFAULT_VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+    @Getter
     private final String secret;
 
+    /**
+     * Key the tokens are signed and verified with, decoded from the secret.
+     */
+    @Getter
+    private final Key signInKey;
+
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    /**
+     * @param secret the base64-encoded secret the tokens are signed with
+     */
+    public JwtUtils(String secret) {
+        this(secret, DEFAULT_VERIFIED_TOKEN_CACHE_SIZE);
+    }
+
+    /**
+     * @param secret                  the base64-encoded secret the tokens are signed with
+     * @param verifiedTokenCacheSize  the maximum number of verified tokens remembered, 0 to verify every time
+     */
+    public JwtUtils(String secret, int verifiedTokenCacheSize) {
+        this.secret = secret;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedTokens = verifiedTokenCacheSize > 0
+                ? Caffeine.newBuilder().maximumSize(verifiedTokenCacheSize).build()
+                : null;
+    }
+
     /**
      * Extracts the user's email from the token.
      *
@@ -46,39 +101,65 @@ public class JwtUtils {
     }
 
     /**
-     * Extracts all claims from the JWT token.
+     * Verifies the JWT token and extracts all of its claims.
+     * Tokens that have already been verified are answered from the cache, unless they have expired since.
+     * The returned claims may be shared between requests and must not be modified.
      *
      * @param token JWT token
      * @return a {@link Claims} object containing all the claims of the token
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or its signature does not match
      */
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (Objects.isNull(verifiedTokens)) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (!Objects.isNull(claims) && !isExpired(claims)) {
+            return claims;
+        }
+        // Parse again even if the cached token has expired, so that the usual ExpiredJwtException is thrown
+        verifiedTokens.invalidate(key);
+        claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(key, claims);
+        return claims;
     }
 
     /**
-     * Generates a signing key from the secret.
+     * Verifies the validity of the token based on the user's email.
      *
-     * @return the signing key
+     * @param token JWT token
+     * @param userDetails user details
+     * @return true if the token is valid for the user, otherwise false
      */
-    public Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
     /**
-     * Verifies the validity of the token based on the user's email.
+     * Verifies the validity of an already verified token based on the user's email.
      *
-     * @param token JWT token
+     * @param claims the claims of the token
      * @param userDetails user details
      * @return true if the token is valid for the user, otherwise false
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractEmail(token);
-        return username.equals(userDetails.getUsername());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return !Objects.isNull(expiration) && expiration.before(new Date());
+    }
+
+    private static String hash(String token) {
+        try {
+            // MessageDigest instances are not thread-safe, and getting a new one is cheap
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.example.utils;
+
+import com.example.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used for keyset pagination.
+ * A cursor holds the ID of the last row of a page; the next page starts right after it,
+ * so fetching it costs the same regardless of how deep it is.
+ * The encoding is versioned so that the content of cursors can change without breaking clients.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Creates the cursor pointing after the given row.
+     *
+     * @param lastId the ID of the last row of the current page
+     * @return the opaque cursor
+     */
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Extracts the ID of the last row of the previous page from a cursor.
+     *
+     * @param cursor the cursor returned with the previous page
+     * @return the ID after which the next page starts
+     * @throws InvalidCursorException if the cursor was not created by {@link #encode(long)}
+     */
+    public static long decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
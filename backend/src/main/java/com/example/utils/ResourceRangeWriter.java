@@ -0,0 +1,259 @@
+package com.example.utils;
+
+import com.example.storage.ByteBufferResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a {@link Resource} to the HTTP response with support for byte ranges.
+ * Honors the {@code Range} and {@code If-Range} headers, answers conditional requests with 304,
+ * and streams the content through {@link FileChannel#transferTo} when the resource is file-backed
+ * or straight from the buffer when it is a {@link ByteBufferResource},
+ * so the memory used per response does not depend on the size of the resource.
+ * <p>
+ * The bytes sent and the number of responses being sent are published as the {@code songs.stream.bytes}
+ * counter and the {@code songs.streams.active} gauge.
+ */
+@Component
+public class ResourceRangeWriter {
+
+    private final Counter sentBytes;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    public ResourceRangeWriter(MeterRegistry meterRegistry) {
+        sentBytes = Counter.builder("songs.stream.bytes")
+                .description("Bytes of song data written to responses")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        meterRegistry.gauge("songs.streams.active", activeStreams);
+    }
+
+    /**
+     * Tells whether a request starts reading from the beginning of the resource, as a player does when it starts
+     * playing, as opposed to the range requests it sends while playing and seeking.
+     *
+     * @param request the HTTP request
+     * @return true if there is no {@code Range} header, or a single range starting at the first byte
+     */
+    public static boolean isFromStart(HttpServletRequest request) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return true;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            // A suffix range counts back from the end, so it only starts at zero for an unknown length
+            return ranges.size() == 1 && ranges.get(0).getRangeStart(Long.MAX_VALUE) == 0;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the resource (or the requested part of it) to the response.
+     * A single satisfiable range is answered with 206, an unsatisfiable one with 416.
+     * Multiple ranges and ranges invalidated by {@code If-Range} are answered with the full content.
+     *
+     * @param resource    the resource to send
+     * @param contentType the content type of the resource
+     * @param request     the HTTP request
+     * @param response    the HTTP response
+     * @throws IOException if the resource cannot be read or the response cannot be written
+     */
+    public void write(Resource resource, MediaType contentType,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = resource.contentLength();
+        long lastModified = resource.lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setContentType(contentType.toString());
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, etag, lastModified)) {
+            writeFull(resource, length, response);
+            return;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            writeNotSatisfiable(length, response);
+            return;
+        }
+        if (ranges.size() != 1) {
+            // Multipart byte ranges are not worth the complexity for audio players, which only ever ask for one
+            writeFull(resource, length, response);
+            return;
+        }
+
+        HttpRange range = ranges.get(0);
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+        } catch (IllegalArgumentException ex) {
+            writeNotSatisfiable(length, response);
+            return;
+        }
+        if (length == 0 || start >= length || start > end) {
+            writeNotSatisfiable(length, response);
+            return;
+        }
+
+        long count = end - start + 1;
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        response.setContentLengthLong(count);
+        transfer(resource, start, count, response.getOutputStream());
+    }
+
+    /**
+     * Checks whether the {@code If-Range} precondition allows the range to be applied.
+     * The validator may be either a strong entity tag or the last modification date of the resource.
+     *
+     * @param request      the HTTP request
+     * @param etag         the current entity tag of the resource
+     * @param lastModified the current last modification time of the resource
+     * @return true if there is no {@code If-Range} header or it matches the current representation
+     */
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak entity tags never match for If-Range
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private void writeFull(Resource resource, long length, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentLengthLong(length);
+        transfer(resource, 0, length, response.getOutputStream());
+    }
+
+    private void writeNotSatisfiable(long length, HttpServletResponse response) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setContentLength(0);
+    }
+
+    /**
+     * Copies {@code count} bytes of the resource starting at {@code start} to the output stream.
+     * File channels are transferred with {@link FileChannel#transferTo} and buffers are written directly;
+     * other resources are copied through a fixed-size buffer.
+     * The response counts as an active stream until the copy ends.
+     *
+     * @param resource the resource to copy from
+     * @param start    the first byte to copy
+     * @param count    the number of bytes to copy
+     * @param out      the stream to copy to
+     * @throws IOException if an I/O error occurs
+     */
+    private void transfer(Resource resource, long start, long count, OutputStream out) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        activeStreams.incrementAndGet();
+        try {
+            copy(resource, start, count, new CountingOutputStream(out, sentBytes));
+        } finally {
+            activeStreams.decrementAndGet();
+        }
+    }
+
+    private void copy(Resource resource, long start, long count, OutputStream out) throws IOException {
+        if (resource instanceof ByteBufferResource buffered) {
+            WritableByteChannel target = Channels.newChannel(out);
+            ByteBuffer content = buffered.slice(start, count);
+            while (content.hasRemaining()) {
+                target.write(content);
+            }
+            return;
+        }
+        if (resource.isFile()) {
+            try (ReadableByteChannel channel = resource.readableChannel()) {
+                if (channel instanceof FileChannel file) {
+                    WritableByteChannel target = Channels.newChannel(out);
+                    long position = start;
+                    long remaining = count;
+                    while (remaining > 0) {
+                        long sent = file.transferTo(position, remaining, target);
+                        if (sent <= 0) {
+                            // The file was truncated while it was being sent
+                            break;
+                        }
+                        position += sent;
+                        remaining -= sent;
+                    }
+                    return;
+                }
+            }
+        }
+        try (InputStream in = resource.getInputStream()) {
+            StreamUtils.copyRange(in, out, start, start + count - 1);
+        }
+    }
+
+    /**
+     * Adds the bytes written through it to a counter, as they are written, so that the rate of a long stream
+     * is seen while it is being sent.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final Counter counter;
+
+        CountingOutputStream(OutputStream out, Counter counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.increment(len);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+-- Change notifications for the caches of the backend instances (CatalogChangeListener).
+-- Every statement changing one of these tables sends one notification on the catalog_changes channel,
+-- whatever the number of rows it changes. The payload is the name of the table and the distinct IDs
+-- of the changed rows, as in 'song:12,15', or '*' in place of the IDs when there are more than fit
+-- comfortably in a notification. Notifications are delivered when the transaction commits, and
+-- PostgreSQL drops the identical ones sent by the same transaction.
+CREATE OR REPLACE FUNCTION notify_catalog_change_function() RETURNS trigger AS $$
+                DECLARE
+                  changed bigint;
+                  ids text := '*';
+                BEGIN
+                  EXECUTE format('SELECT count(DISTINCT %I) FROM changed_rows', TG_ARGV[0]) INTO changed;
+                  IF changed = 0 THEN
+                    RETURN NULL;
+                  END IF;
+                  IF changed <= 500 THEN
+                    EXECUTE format('SELECT string_agg(DISTINCT %I::text, '','') FROM changed_rows', TG_ARGV[0]) INTO ids;
+                  END IF;
+                  PERFORM pg_notify('catalog_changes', TG_TABLE_NAME || ':' || ids);
+                  RETURN NULL;
+                END;
+            $$ LANGUAGE plpgsql;
+
+-- A trigger with transition tables handles a single event, so every table gets one per event.
+-- The rows of playlist_songs and album_songs are reported by the ID of their playlist or album.
+DO $$
+    DECLARE
+      target record;
+    BEGIN
+      FOR target IN SELECT * FROM (VALUES
+              ('song', 'song_id'),
+              ('album', 'album_id'),
+              ('artist', 'artist_id'),
+              ('jenre', 'jenre_id'),
+              ('album_songs', 'album_id'),
+              ('playlist', 'playlist_id'),
+              ('playlist_songs', 'playlist_id'),
+              ('person', 'person_id')) AS targets (table_name, id_column)
+      LOOP
+        EXECUTE format('CREATE TRIGGER %I AFTER INSERT ON %I REFERENCING NEW TABLE AS changed_rows '
+                         'FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_change_function(%L)',
+                       target.table_name || '_insert_notify_trigger', target.table_name, target.id_column);
+        EXECUTE format('CREATE TRIGGER %I AFTER UPDATE ON %I REFERENCING NEW TABLE AS changed_rows '
+                         'FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_change_function(%L)',
+                       target.table_name || '_update_notify_trigger', target.table_name, target.id_column);
+        EXECUTE format('CREATE TRIGGER %I AFTER DELETE ON %I REFERENCING OLD TABLE AS changed_rows '
+                         'FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_change_function(%L)',
+                       target.table_name || '_delete_notify_trigger', target.table_name, target.id_column);
+      END LOOP;
+    END;
+$$;
@@ -0,0 +1,14 @@
+-- Change notifications of V10 for the favourite songs, reported by the ID of their user,
+-- so that the other instances drop the favourites they keep in memory for that user.
+CREATE TRIGGER person_favourite_song_insert_notify_trigger AFTER INSERT ON person_favourite_song
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_catalog_change_function('person_id');
+CREATE TRIGGER person_favourite_song_update_notify_trigger AFTER UPDATE ON person_favourite_song
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_catalog_change_function('person_id');
+CREATE TRIGGER person_favourite_song_delete_notify_trigger AFTER DELETE ON person_favourite_song
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_catalog_change_function('person_id');
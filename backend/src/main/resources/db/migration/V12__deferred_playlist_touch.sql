@@ -0,0 +1,13 @@
+-- A bulk change of the songs of a playlist runs one statement to remove, one to add and one to move songs,
+-- each of which would touch the playlist through the triggers of V9. The bulk change sets
+-- playlist.touch_deferred for its transaction instead, and touches the playlist once at the end.
+CREATE OR REPLACE FUNCTION update_playlist_edit_time_function() RETURNS trigger AS $$
+                BEGIN
+                  IF current_setting('playlist.touch_deferred', true) = 'on' THEN
+                    RETURN NULL;
+                  END IF;
+                  UPDATE playlist SET update_time = CURRENT_TIMESTAMP
+                    WHERE playlist_id IN (SELECT DISTINCT playlist_id FROM changed_songs);
+                  RETURN NULL;
+                END;
+            $$ LANGUAGE plpgsql;
@@ -0,0 +1,8 @@
+-- Trigram indexes for the case-insensitive substring search (ilike '%name%') on the catalog.
+-- Patterns shorter than three characters cannot use them and still scan the table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS song_name_trgm_idx ON song USING gin (song_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS album_name_trgm_idx ON album USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS artist_nickname_trgm_idx ON artist USING gin (nickname gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS playlist_name_trgm_idx ON playlist USING gin (playlist_name gin_trgm_ops);
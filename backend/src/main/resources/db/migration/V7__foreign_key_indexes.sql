@@ -0,0 +1,23 @@
+-- Indexes for the lookups by foreign key and the junction tables.
+-- album_songs (album_id, song_id) and person_favourite_song (person_id, song_id) are already
+-- covered by the unique constraints of V5, which serve the lookups by album and by person.
+
+-- Songs of a playlist in the order they were added (SongRepository.findNextInPlaylist,
+-- PlaylistRepository.existsSongInPlaylist) without visiting the table.
+CREATE INDEX IF NOT EXISTS playlist_songs_playlist_id_id_idx ON playlist_songs (playlist_id, id) INCLUDE (song_id);
+
+-- Reverse lookups, also used by ON DELETE CASCADE when a song is deleted.
+CREATE INDEX IF NOT EXISTS playlist_songs_song_id_idx ON playlist_songs (song_id);
+CREATE INDEX IF NOT EXISTS album_songs_song_id_idx ON album_songs (song_id);
+CREATE INDEX IF NOT EXISTS person_favourite_song_song_id_idx ON person_favourite_song (song_id);
+
+-- SongRepository.findByArtistId, AlbumRepository.findByArtistId, PlaylistRepository.findByCreatorId.
+CREATE INDEX IF NOT EXISTS song_artist_id_idx ON song (artist_id);
+CREATE INDEX IF NOT EXISTS song_jenre_id_idx ON song (jenre_id);
+CREATE INDEX IF NOT EXISTS album_album_creator_idx ON album (album_creator);
+CREATE INDEX IF NOT EXISTS playlist_creator_id_idx ON playlist (creator_id);
+
+-- UserRepository.findByEmail and isUserExists: the email lookup returns the ID and the join
+-- returns the password, both from the indexes.
+CREATE INDEX IF NOT EXISTS person_person_email_idx ON person (person_email) INCLUDE (person_id);
+CREATE INDEX IF NOT EXISTS users_password_person_id_idx ON users_password (person_id) INCLUDE (password);
@@ -0,0 +1,8 @@
+-- A song can be added to a playlist only once; adding it again is answered by ON CONFLICT.
+DELETE FROM playlist_songs duplicate
+    USING playlist_songs original
+    WHERE duplicate.playlist_id = original.playlist_id
+      AND duplicate.song_id = original.song_id
+      AND duplicate.id > original.id;
+
+ALTER TABLE playlist_songs ADD UNIQUE (playlist_id, song_id);
@@ -0,0 +1,41 @@
+-- Explicit order of the songs in a playlist, so that they can be reordered.
+-- A new song takes the next value of the sequence and so goes to the end of its playlist;
+-- reordering permutes the positions already used by the playlist.
+CREATE SEQUENCE IF NOT EXISTS playlist_songs_position_seq;
+ALTER TABLE playlist_songs ADD COLUMN position bigint;
+UPDATE playlist_songs SET position = id;
+SELECT setval('playlist_songs_position_seq', greatest((SELECT max(position) FROM playlist_songs), 1));
+ALTER TABLE playlist_songs
+    ALTER COLUMN position SET DEFAULT nextval('playlist_songs_position_seq'),
+    ALTER COLUMN position SET NOT NULL;
+ALTER SEQUENCE playlist_songs_position_seq OWNED BY playlist_songs.position;
+
+-- The songs of a playlist in order; the membership check is served by the unique constraint of V8.
+DROP INDEX IF EXISTS playlist_songs_playlist_id_id_idx;
+CREATE INDEX IF NOT EXISTS playlist_songs_playlist_id_position_idx ON playlist_songs (playlist_id, position) INCLUDE (song_id);
+
+-- The trigger of V4 ran once per statement but read NEW, which is always null in statement-level
+-- triggers, so it never updated anything. These read the changed rows from transition tables
+-- and touch every affected playlist once per statement, however many songs it changes.
+DROP TRIGGER IF EXISTS update_time_trigger ON playlist_songs;
+
+CREATE OR REPLACE FUNCTION update_playlist_edit_time_function() RETURNS trigger AS $$
+                BEGIN
+                  UPDATE playlist SET update_time = CURRENT_TIMESTAMP
+                    WHERE playlist_id IN (SELECT DISTINCT playlist_id FROM changed_songs);
+                  RETURN NULL;
+                END;
+            $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER playlist_songs_insert_trigger AFTER INSERT ON playlist_songs
+    REFERENCING NEW TABLE AS changed_songs
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_playlist_edit_time_function();
+CREATE TRIGGER playlist_songs_update_trigger AFTER UPDATE ON playlist_songs
+    REFERENCING NEW TABLE AS changed_songs
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_playlist_edit_time_function();
+CREATE TRIGGER playlist_songs_delete_trigger AFTER DELETE ON playlist_songs
+    REFERENCING OLD TABLE AS changed_songs
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_playlist_edit_time_function();
@@ -0,0 +1,36 @@
+package com.example.reactive;
+
+import com.example.model.entity.Album;
+import com.example.repository.AlbumRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read paths of {@link AlbumRepository} on R2DBC.
+ */
+public class ReactiveAlbumRepository extends ReactiveCatalogRepository<Album> {
+
+    public ReactiveAlbumRepository(DatabaseClient client) {
+        super(client, "album.*, artist.nickname as album_creator_name",
+                "album join artist on album_creator=artist_id", "album", "name", "album_id");
+    }
+
+    /**
+     * Find albums by the artist's ID.
+     *
+     * @param artistId the ID of the artist
+     * @return the albums created by the artist
+     */
+    public Flux<Album> findByArtistId(long artistId) {
+        return query("select " + columns() + " from " + from() + " where album_creator = :artistId", "artistId", artistId);
+    }
+
+    @Override
+    protected Album map(Readable row) {
+        return new Album(row.get("album_id", Long.class), row.get("name", String.class),
+                row.get("album_creator_name", String.class), row.get("creation_date", LocalDateTime.class));
+    }
+}
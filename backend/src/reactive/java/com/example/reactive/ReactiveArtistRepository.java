@@ -0,0 +1,32 @@
+package com.example.reactive;
+
+import com.example.model.entity.Artist;
+import com.example.repository.ArtistRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read paths of {@link ArtistRepository} on R2DBC.
+ */
+public class ReactiveArtistRepository extends ReactiveCatalogRepository<Artist> {
+
+    public ReactiveArtistRepository(DatabaseClient client) {
+        super(client, "*", "artist", "artist", "nickname", "artist_id");
+    }
+
+    /**
+     * Find an artist by their ID.
+     *
+     * @param artistId the ID of the artist
+     * @return the artist with the given ID, or empty if the artist is not found
+     */
+    public Mono<Artist> findById(long artistId) {
+        return query("select * from artist where artist_id = :artistId", "artistId", artistId).singleOrEmpty();
+    }
+
+    @Override
+    protected Artist map(Readable row) {
+        return new Artist(row.get("artist_id", Long.class), row.get("nickname", String.class));
+    }
+}
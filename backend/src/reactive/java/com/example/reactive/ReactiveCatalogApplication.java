@@ -0,0 +1,58 @@
+package com.example.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Non-blocking variant of the catalog read API, on WebFlux and R2DBC, built with the {@code reactive} Maven profile.
+ * It serves the GET endpoints of songs, albums, artists and playlists next to the MVC application,
+ * and is configured by {@code reactive.yml} instead of {@code application.yml}.
+ * <p>
+ * The classes of this package are not annotated as components, so that the component scan of the MVC application
+ * does not pick them up; the beans are declared here instead.
+ */
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        ReactiveSecurityAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+public class ReactiveCatalogApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reactive")
+                .run(args);
+    }
+
+    @Bean
+    public ReactiveCatalogHandler reactiveCatalogHandler(DatabaseClient client) {
+        return new ReactiveCatalogHandler(new ReactiveSongRepository(client), new ReactiveAlbumRepository(client),
+                new ReactiveArtistRepository(client), new ReactivePlaylistRepository(client));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> catalogRoutes(ReactiveCatalogHandler handler) {
+        return RouterFunctions.route()
+                .GET("/songs", handler::getAllSongsByName)
+                .GET("/songs/artist/{artistId}", handler::getAllSongsByArtist)
+                .GET("/songs/album/{albumId}", handler::getAllSongsByAlbum)
+                .GET("/songs/user/{userId}", handler::getAllSongsByUser)
+                .GET("/albums", handler::getAllAlbumsByName)
+                .GET("/albums/artist/{artistId}", handler::getAllAlbumsByArtist)
+                .GET("/artists", handler::getAllArtistsByName)
+                .GET("/artists/{artistId}", handler::getArtistById)
+                .GET("/playlists", handler::getAllPlaylistsByName)
+                .GET("/playlists/creator/{creatorId}", handler::getAllPlaylistsByCreator)
+                .build();
+    }
+}
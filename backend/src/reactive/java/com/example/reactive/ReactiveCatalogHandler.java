@@ -0,0 +1,202 @@
+package com.example.reactive;
+
+import com.example.dto.album.AlbumResponseDto;
+import com.example.dto.album.AlbumSearchResponseDto;
+import com.example.dto.artist.ArtistResponseDto;
+import com.example.dto.artist.ArtistSearchResponseDto;
+import com.example.dto.playlist.PlaylistResponseDto;
+import com.example.dto.playlist.PlaylistSearchResponseDto;
+import com.example.dto.song.SongResponseDto;
+import com.example.dto.song.SongSearchResponseDto;
+import com.example.exception.InvalidCursorException;
+import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Playlist;
+import com.example.model.entity.Song;
+import com.example.repository.Counted;
+import com.example.service.AlbumService;
+import com.example.service.ArtistService;
+import com.example.service.CatalogSearch;
+import com.example.service.PlaylistService;
+import com.example.service.SongService;
+import com.example.utils.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Handlers of the reactive catalog read API. They take the same parameters and return the same DTOs
+ * as the MVC controllers.
+ * <p>
+ * A request accepting {@code application/x-ndjson} gets the entities streamed one per line as they are read.
+ * A search streamed this way is not counted, so its rows do not wait for the count of all matches.
+ * Any other request gets the JSON the MVC controllers return.
+ */
+@RequiredArgsConstructor
+public class ReactiveCatalogHandler {
+
+    private final ReactiveSongRepository songRepository;
+    private final ReactiveAlbumRepository albumRepository;
+    private final ReactiveArtistRepository artistRepository;
+    private final ReactivePlaylistRepository playlistRepository;
+
+    public Mono<ServerResponse> getAllSongsByName(ServerRequest request) {
+        return search(request, songRepository, Song::getSongId, SongService::mapToDto, SongResponseDto.class,
+                SongSearchResponseDto::new);
+    }
+
+    public Mono<ServerResponse> getAllSongsByArtist(ServerRequest request) {
+        return list(request, songRepository.findByArtistId(longPathVariable(request, "artistId"))
+                .map(SongService::mapToDto), SongResponseDto.class);
+    }
+
+    public Mono<ServerResponse> getAllSongsByAlbum(ServerRequest request) {
+        return list(request, songRepository.findByAlbumId(longPathVariable(request, "albumId"))
+                .map(SongService::mapToDto), SongResponseDto.class);
+    }
+
+    public Mono<ServerResponse> getAllSongsByUser(ServerRequest request) {
+        return list(request, songRepository.findByUserId(longPathVariable(request, "userId"))
+                .map(SongService::mapToDto), SongResponseDto.class);
+    }
+
+    public Mono<ServerResponse> getAllAlbumsByName(ServerRequest request) {
+        return search(request, albumRepository, Album::getAlbumId, AlbumService::mapToDto, AlbumResponseDto.class,
+                AlbumSearchResponseDto::new);
+    }
+
+    public Mono<ServerResponse> getAllAlbumsByArtist(ServerRequest request) {
+        return list(request, albumRepository.findByArtistId(longPathVariable(request, "artistId"))
+                .map(AlbumService::mapToDto), AlbumResponseDto.class);
+    }
+
+    public Mono<ServerResponse> getAllArtistsByName(ServerRequest request) {
+        return search(request, artistRepository, Artist::getArtistId, ArtistService::mapToDto, ArtistResponseDto.class,
+                ArtistSearchResponseDto::new);
+    }
+
+    public Mono<ServerResponse> getArtistById(ServerRequest request) {
+        return artistRepository.findById(longPathVariable(request, "artistId"))
+                .map(ArtistService::mapToDto)
+                .flatMap(artist -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(artist))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getAllPlaylistsByName(ServerRequest request) {
+        return search(request, playlistRepository, Playlist::getPlaylistId, PlaylistService::mapToDto,
+                PlaylistResponseDto.class, PlaylistSearchResponseDto::new);
+    }
+
+    public Mono<ServerResponse> getAllPlaylistsByCreator(ServerRequest request) {
+        return list(request, playlistRepository.findByCreatorId(longPathVariable(request, "creatorId"))
+                .map(PlaylistService::mapToDto), PlaylistResponseDto.class);
+    }
+
+    /**
+     * Searches entities by name with the pagination of {@link CatalogSearch}, without the estimated count mode.
+     */
+    private <T, D, R> Mono<ServerResponse> search(ServerRequest request, ReactiveCatalogRepository<T> repository,
+                                                  ToLongFunction<T> idOf, Function<T, D> toDto, Class<D> dtoClass,
+                                                  SearchResponse<D, R> response) {
+        String name = request.queryParam("name").orElse(null);
+        int offset = intQueryParam(request, "offset", 0);
+        int limit = intQueryParam(request, "limit", 1000);
+        String cursor = request.queryParam("cursor").orElse(null);
+        if (limit <= 0) {
+            throw new ServerWebInputException("The limit must be positive");
+        }
+
+        if (isStreamed(request)) {
+            Flux<T> values = cursor != null ?
+                    repository.findByNameContainingAfter(name, decode(cursor), limit) :
+                    repository.findByNameContaining(name, offset, limit);
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(values.map(toDto), dtoClass);
+        }
+
+        Mono<R> page;
+        if (cursor != null) {
+            page = Mono.zip(repository.findByNameContainingAfter(name, decode(cursor), limit).collectList(),
+                            repository.countByNameContaining(name))
+                    .map(valuesAndCount -> toPage(valuesAndCount.getT1(), valuesAndCount.getT2(), 0, limit,
+                            idOf, toDto, response));
+        } else {
+            page = repository.findByNameContainingWithCount(name, offset, limit).collectList()
+                    .flatMap(rows -> {
+                        List<T> values = Counted.values(rows);
+                        // An empty page past the end does not tell how many rows there are
+                        Mono<Integer> count = !rows.isEmpty() ? Mono.just(rows.get(0).totalCount())
+                                : offset > 0 ? repository.countByNameContaining(name) : Mono.just(0);
+                        return count.map(total -> toPage(values, total, offset / limit + 1, limit, idOf, toDto, response));
+                    });
+        }
+        return page.flatMap(body -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body));
+    }
+
+    private static <T, D, R> R toPage(List<T> values, int count, int currentPage, int limit, ToLongFunction<T> idOf,
+                                      Function<T, D> toDto, SearchResponse<D, R> response) {
+        int totalPages = count / limit;
+        if (count % limit != 0) {
+            totalPages++;
+        }
+        String nextCursor = values.size() == limit ? PageCursor.encode(idOf.applyAsLong(values.get(values.size() - 1))) : null;
+        return response.create(values.stream().map(toDto).toList(), count, currentPage, totalPages, nextCursor);
+    }
+
+    private static <D> Mono<ServerResponse> list(ServerRequest request, Flux<D> values, Class<D> dtoClass) {
+        MediaType contentType = isStreamed(request) ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(values, dtoClass);
+    }
+
+    private static boolean isStreamed(ServerRequest request) {
+        return request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+    }
+
+    private static long decode(String cursor) {
+        try {
+            return PageCursor.decode(cursor);
+        } catch (InvalidCursorException e) {
+            throw new ServerWebInputException(e.getMessage());
+        }
+    }
+
+    private static int intQueryParam(ServerRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static long longPathVariable(ServerRequest request, String name) {
+        String value = request.pathVariable(name);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Constructor of a search response DTO.
+     *
+     * @param <D> the type of the DTOs of the page
+     * @param <R> the type of the search response
+     */
+    @FunctionalInterface
+    private interface SearchResponse<D, R> {
+
+        R create(List<D> values, int count, int currentPage, int totalPages, String nextCursor);
+    }
+}
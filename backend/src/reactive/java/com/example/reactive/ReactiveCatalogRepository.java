@@ -0,0 +1,153 @@
+package com.example.reactive;
+
+import com.example.repository.CatalogRepository;
+import com.example.repository.Counted;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CatalogRepository}: the name search and pagination of a catalog entity on R2DBC.
+ * The statements are the ones of the Spring Data JDBC repositories, built from the columns, tables and
+ * ID and name columns given by the subclass.
+ *
+ * @param <T> the type of the entity
+ */
+public abstract class ReactiveCatalogRepository<T> {
+
+    private final DatabaseClient client;
+    private final String columns;
+    private final String from;
+    private final String table;
+    private final String nameColumn;
+    private final String idColumn;
+
+    /**
+     * @param client     the client running the statements
+     * @param columns    the select list mapped by {@link #map(Readable)}
+     * @param from       the tables the columns are selected from
+     * @param table      the table of the entity, which is counted
+     * @param nameColumn the column searched by name
+     * @param idColumn   the column of the ID, which orders the pages
+     */
+    protected ReactiveCatalogRepository(DatabaseClient client, String columns, String from, String table,
+                                        String nameColumn, String idColumn) {
+        this.client = client;
+        this.columns = columns;
+        this.from = from;
+        this.table = table;
+        this.nameColumn = nameColumn;
+        this.idColumn = idColumn;
+    }
+
+    /**
+     * Find entities whose name contains the given string, ignoring case, or all entities if the name is empty,
+     * in the order of their IDs. The rows are emitted as the database returns them.
+     *
+     * @param name   the string to search in the names, or null
+     * @param offset the offset for pagination
+     * @param limit  the limit of results
+     * @return a page of entities
+     */
+    public Flux<T> findByNameContaining(String name, int offset, int limit) {
+        return page(columns, name, offset, limit).map(this::map).all();
+    }
+
+    /**
+     * Find entities whose name contains the given string, ignoring case, or all entities if the name is empty,
+     * together with the number of all matching entities. The window counting them has to read every matching row
+     * before the first one is returned.
+     *
+     * @param name   the string to search in the names, or null
+     * @param offset the offset for pagination
+     * @param limit  the limit of results
+     * @return a page of entities, each with the total count
+     */
+    public Flux<Counted<T>> findByNameContainingWithCount(String name, int offset, int limit) {
+        return page(columns + ", count(*) over() as total_count", name, offset, limit)
+                .map(row -> new Counted<>(map(row), row.get("total_count", Long.class).intValue()))
+                .all();
+    }
+
+    /**
+     * Find entities whose name contains the given string, ignoring case, or all entities if the name is empty,
+     * that follow the given ID, in the order of their IDs. Used for keyset pagination.
+     *
+     * @param name    the string to search in the names, or null
+     * @param afterId the ID of the last entity of the previous page
+     * @param limit   the limit of results
+     * @return a page of entities
+     */
+    public Flux<T> findByNameContainingAfter(String name, long afterId, int limit) {
+        boolean byName = isByName(name);
+        String sql = "select " + columns + " from " + from + " where " + idColumn + " > :afterId"
+                + (byName ? " and " + nameColumn + " ilike '%' || :name || '%'" : "")
+                + " order by " + idColumn + " limit :limit";
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql).bind("afterId", afterId).bind("limit", limit);
+        return (byName ? spec.bind("name", name) : spec).map(this::map).all();
+    }
+
+    /**
+     * Count entities whose name contains the given string, ignoring case, or all entities if the name is empty.
+     *
+     * @param name the string to search in the names, or null
+     * @return the number of matching entities
+     */
+    public Mono<Integer> countByNameContaining(String name) {
+        if (!isByName(name)) {
+            return client.sql("select count(*) from " + table).map(row -> row.get(0, Long.class).intValue()).one();
+        }
+        return client.sql("select count(*) from " + table + " where " + nameColumn + " ilike '%' || :name || '%'")
+                .bind("name", name)
+                .map(row -> row.get(0, Long.class).intValue())
+                .one();
+    }
+
+    /**
+     * Runs a query with a single parameter and maps its rows to entities.
+     *
+     * @param sql       the query
+     * @param parameter the name of the parameter
+     * @param value     the value of the parameter
+     * @return the entities
+     */
+    protected Flux<T> query(String sql, String parameter, Object value) {
+        return client.sql(sql).bind(parameter, value).map(this::map).all();
+    }
+
+    /**
+     * Maps a row of the select list given to the constructor to an entity.
+     *
+     * @param row the row
+     * @return the entity
+     */
+    protected abstract T map(Readable row);
+
+    /**
+     * @return the select list mapped by {@link #map(Readable)}
+     */
+    protected String columns() {
+        return columns;
+    }
+
+    /**
+     * @return the tables the columns are selected from
+     */
+    protected String from() {
+        return from;
+    }
+
+    private DatabaseClient.GenericExecuteSpec page(String selectList, String name, int offset, int limit) {
+        boolean byName = isByName(name);
+        String sql = "select " + selectList + " from " + from
+                + (byName ? " where " + nameColumn + " ilike '%' || :name || '%'" : "")
+                + " order by " + idColumn + " limit :limit offset :offset";
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql).bind("limit", limit).bind("offset", offset);
+        return byName ? spec.bind("name", name) : spec;
+    }
+
+    private static boolean isByName(String name) {
+        return name != null && !name.isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.reactive;
+
+import com.example.model.entity.Playlist;
+import com.example.repository.PlaylistRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read paths of {@link PlaylistRepository} on R2DBC.
+ */
+public class ReactivePlaylistRepository extends ReactiveCatalogRepository<Playlist> {
+
+    public ReactivePlaylistRepository(DatabaseClient client) {
+        super(client, "playlist_id, playlist_name, person.person_nickname as creator_name, creation_date, update_time",
+                "playlist join person on creator_id=person_id", "playlist", "playlist_name", "playlist_id");
+    }
+
+    /**
+     * Find playlists by the creator's ID.
+     *
+     * @param creatorId the ID of the playlist creator
+     * @return the playlists created by the user
+     */
+    public Flux<Playlist> findByCreatorId(long creatorId) {
+        return query("select " + columns() + " from " + from() + " where creator_id = :creatorId", "creatorId", creatorId);
+    }
+
+    @Override
+    protected Playlist map(Readable row) {
+        return new Playlist(row.get("playlist_id", Long.class), row.get("playlist_name", String.class),
+                row.get("creator_name", String.class), row.get("creation_date", LocalDateTime.class),
+                row.get("update_time", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.reactive;
+
+import com.example.model.entity.Song;
+import com.example.repository.SongRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read paths of {@link SongRepository} on R2DBC.
+ */
+public class ReactiveSongRepository extends ReactiveCatalogRepository<Song> {
+
+    public ReactiveSongRepository(DatabaseClient client) {
+        super(client, "song.*, artist.nickname as artist_name, jenre.jenre_name as jenre_name",
+                "song join artist using (artist_id) join jenre using (jenre_id)", "song", "song_name", "song_id");
+    }
+
+    /**
+     * Find songs by the artist's ID.
+     *
+     * @param artistId the ID of the artist
+     * @return the songs of the artist
+     */
+    public Flux<Song> findByArtistId(long artistId) {
+        return query("select " + columns() + " from " + from() + " where artist_id = :artistId", "artistId", artistId);
+    }
+
+    /**
+     * Find songs by the album's ID.
+     *
+     * @param albumId the ID of the album
+     * @return the songs of the album
+     */
+    public Flux<Song> findByAlbumId(long albumId) {
+        return query("select " + columns() + " from " + from() + " join album_songs using (song_id) where album_id = :albumId",
+                "albumId", albumId);
+    }
+
+    /**
+     * Find the favourite songs of a user.
+     *
+     * @param userId the ID of the user
+     * @return the favourite songs of the user
+     */
+    public Flux<Song> findByUserId(long userId) {
+        return query("select " + columns() + " from " + from() + " join person_favourite_song using (song_id) where person_id = :userId",
+                "userId", userId);
+    }
+
+    @Override
+    protected Song map(Readable row) {
+        return new Song(row.get("song_id", Long.class), row.get("song_name", String.class),
+                row.get("artist_name", String.class), row.get("jenre_name", String.class), row.get("song_url", String.class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cache;
+
+import com.example.configuration.CacheConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheInvalidatorTest {
+
+    private CacheManager cacheManager;
+    private CatalogCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfiguration().cacheManager(new CatalogCacheProperties());
+        for (String cacheName : cacheManager.getCacheNames()) {
+            cacheManager.getCache(cacheName).put("key", "value");
+        }
+        invalidator = new CatalogCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void testInvalidateCachesOfChangedTables() {
+        invalidator.invalidate(new CatalogChanges(false, Map.of("artist", Set.of(1L))));
+
+        assertNull(cacheManager.getCache(CacheNames.SONGS_BY_NAME).get("key"));
+        assertNull(cacheManager.getCache(CacheNames.ALBUMS_BY_NAME).get("key"));
+        assertNull(cacheManager.getCache(CacheNames.ARTISTS_BY_NAME).get("key"));
+        assertNotNull(cacheManager.getCache(CacheNames.PLAYLISTS_BY_NAME).get("key"));
+        assertNotNull(cacheManager.getCache(CacheNames.USER_EXISTS).get("key"));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        invalidator.invalidate(CatalogChanges.ALL);
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            assertNull(cacheManager.getCache(cacheName).get("key"), cacheName);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogChangeBatchTest {
+
+    private CatalogChangeBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        batch = new CatalogChangeBatch(4);
+    }
+
+    @Test
+    void testCoalesceIds() {
+        batch.add("song:1,2");
+        batch.add("song:2,3");
+        batch.add("playlist:7");
+
+        CatalogChanges changes = batch.drain();
+
+        assertFalse(changes.all());
+        assertEquals(Set.of(1L, 2L, 3L), changes.ids("song"));
+        assertEquals(Set.of(7L), changes.ids("playlist"));
+        assertTrue(changes.touches("playlist"));
+        assertFalse(changes.touches("album"));
+        assertEquals(Set.of(), changes.ids("album"));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    void testWholeTable() {
+        batch.add("song:1");
+        batch.add("song:*");
+        batch.add("song:2");
+        batch.add("album:1,2,3");
+        batch.add("album:4,5");
+
+        CatalogChanges changes = batch.drain();
+
+        assertTrue(changes.touches("song"));
+        assertNull(changes.ids("song"));
+        assertNull(changes.ids("album"), "more IDs than the limit report the whole table");
+    }
+
+    @Test
+    void testMalformedPayloadsAreIgnored() {
+        batch.add(null);
+        batch.add("song");
+        batch.add(":1");
+        batch.add("song:1,x");
+
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    void testAllChanges() {
+        assertTrue(CatalogChanges.ALL.touches("song"));
+        assertNull(CatalogChanges.ALL.ids("song"));
+    }
+}
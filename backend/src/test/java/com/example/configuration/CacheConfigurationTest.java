@@ -0,0 +1,138 @@
+package com.example.configuration;
+
+import com.example.cache.CacheNames;
+import com.example.dto.song.SongSearchResponseDto;
+import com.example.model.entity.Song;
+import com.example.repository.Counted;
+import com.example.repository.SongRepository;
+import com.example.service.CatalogSearch;
+import com.example.service.CatalogSearchProperties;
+import com.example.service.SongService;
+import com.example.snapshot.CatalogSnapshots;
+import com.example.storage.SongStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CacheConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(TestConfiguration.class);
+
+    @Test
+    void testSearchResultIsCached() {
+        contextRunner.run(context -> {
+            SongService songService = context.getBean(SongService.class);
+            SongRepository songRepository = context.getBean(SongRepository.class);
+
+            SongSearchResponseDto first = songService.getAllSongsByName("Song", 0, 10, null);
+            SongSearchResponseDto second = songService.getAllSongsByName("Song", 0, 10, null);
+            songService.getAllSongsByName("Song", 10, 10, null);
+
+            assertSame(first, second);
+            verify(songRepository, times(1)).findByNameContainingWithCount("Song", 0, 10);
+            verify(songRepository, times(1)).findByNameContainingWithCount("Song", 10, 10);
+        });
+    }
+
+    @Test
+    void testSongDeletionEvictsSearchResults() {
+        contextRunner.run(context -> {
+            SongService songService = context.getBean(SongService.class);
+            SongRepository songRepository = context.getBean(SongRepository.class);
+
+            songService.getAllSongsByName("Song", 0, 10, null);
+            songRepository.deleteById(1L);
+            songService.getAllSongsByName("Song", 0, 10, null);
+
+            verify(songRepository, times(2)).findByNameContainingWithCount("Song", 0, 10);
+        });
+    }
+
+    @Test
+    void testEvictionWaitsForCommit() {
+        contextRunner.run(context -> {
+            SongService songService = context.getBean(SongService.class);
+            SongRepository songRepository = context.getBean(SongRepository.class);
+            songService.getAllSongsByName("Song", 0, 10, null);
+
+            new TransactionTemplate(new TestTransactionManager()).executeWithoutResult(status -> {
+                songRepository.deleteById(1L);
+                // A search running before the commit must not cache the rows as they are before the commit
+                CompletableFuture.runAsync(() -> songService.getAllSongsByName("Song", 0, 10, null)).join();
+                when(songRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt())).thenReturn(List.of());
+            });
+
+            assertEquals(0, songService.getAllSongsByName("Song", 0, 10, null).getCount());
+        });
+    }
+
+    @Test
+    void testUnknownCacheIsNotCreated() {
+        contextRunner.run(context -> {
+            CacheManager cacheManager = context.getBean(CacheManager.class);
+
+            assertNotNull(cacheManager.getCache(CacheNames.PLAYLISTS_BY_NAME));
+            assertNull(cacheManager.getCache("unknown"));
+        });
+    }
+
+    /**
+     * Transaction manager without a resource, which only runs the transaction synchronizations.
+     */
+    static class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import(CacheConfiguration.class)
+    static class TestConfiguration {
+
+        @Bean
+        SongRepository songRepository() {
+            SongRepository songRepository = mock(SongRepository.class);
+            when(songRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt()))
+                    .thenReturn(List.of(new Counted<>(new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3"), 1)));
+            return songRepository;
+        }
+
+        @Bean
+        SongService songService(SongRepository songRepository) {
+            return new SongService(songRepository, new CatalogSearch(new CatalogSearchProperties()), mock(SongStorage.class),
+                    CatalogSnapshots.disabled());
+        }
+    }
+}
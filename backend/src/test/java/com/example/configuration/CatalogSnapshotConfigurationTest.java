@@ -0,0 +1,33 @@
+package com.example.configuration;
+
+import com.example.snapshot.CatalogSnapshotProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CatalogSnapshotConfigurationTest {
+
+    private final CatalogSnapshotConfiguration configuration = new CatalogSnapshotConfiguration();
+
+    @Test
+    void testSnapshotRequiresChangeNotifications() {
+        CatalogSnapshotProperties properties = new CatalogSnapshotProperties();
+        properties.setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> configuration.catalogSnapshots(properties,
+                mock(DataSource.class), mock(PlatformTransactionManager.class), new MockEnvironment()));
+        assertNotNull(configuration.catalogSnapshots(properties, mock(DataSource.class),
+                mock(PlatformTransactionManager.class), new MockEnvironment().withProperty("catalog.changes.enabled", "true")));
+    }
+
+    @Test
+    void testDisabledSnapshotWithoutChangeNotifications() {
+        assertTrue(configuration.catalogSnapshots(new CatalogSnapshotProperties(), mock(DataSource.class),
+                mock(PlatformTransactionManager.class), new MockEnvironment()).current().isEmpty());
+    }
+}
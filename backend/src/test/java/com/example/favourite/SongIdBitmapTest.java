@@ -0,0 +1,73 @@
+package com.example.favourite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SongIdBitmapTest {
+
+    @Test
+    void testOf() {
+        SongIdBitmap bitmap = SongIdBitmap.of(new int[]{70_000, 3, 3, 1, 65_536});
+
+        assertEquals(4, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(1L + Integer.MAX_VALUE + 1));
+        assertFalse(SongIdBitmap.empty().contains(1));
+    }
+
+    @Test
+    void testWithAndWithout() {
+        SongIdBitmap empty = SongIdBitmap.empty();
+        SongIdBitmap one = empty.with(5);
+        SongIdBitmap two = one.with(200_000);
+
+        assertEquals(0, empty.cardinality());
+        assertTrue(one.contains(5));
+        assertFalse(one.contains(200_000), "the previous set does not change");
+        assertEquals(2, two.cardinality());
+        assertSame(two, two.with(5));
+        assertSame(two, two.without(6));
+        assertEquals(1, two.without(5).cardinality());
+        assertFalse(two.without(5).contains(5));
+        assertEquals(0, two.without(5).without(200_000).cardinality());
+    }
+
+    @Test
+    void testDenseChunks() {
+        SplittableRandom random = new SplittableRandom(42);
+        BitSet expected = new BitSet();
+        SongIdBitmap bitmap = SongIdBitmap.empty();
+        // Enough IDs in the first chunks to turn their arrays into bitmaps and back
+        for (int i = 0; i < 30_000; i++) {
+            int id = random.nextInt(3 * 65_536);
+            if (random.nextInt(4) == 0) {
+                bitmap = bitmap.without(id);
+                expected.clear(id);
+            } else {
+                bitmap = bitmap.with(id);
+                expected.set(id);
+            }
+        }
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        for (int id = 0; id < 3 * 65_536; id++) {
+            assertEquals(expected.get(id), bitmap.contains(id), "ID " + id);
+        }
+        SongIdBitmap loaded = SongIdBitmap.of(expected.stream().toArray());
+        assertEquals(bitmap.cardinality(), loaded.cardinality());
+        assertEquals(bitmap.estimateBytes(), loaded.estimateBytes());
+        while (!expected.isEmpty()) {
+            int id = expected.nextSetBit(0);
+            loaded = loaded.without(id);
+            expected.clear(id);
+        }
+        assertEquals(0, loaded.cardinality());
+        assertEquals(0, loaded.estimateBytes());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.filter;
+
+import com.example.model.entity.User;
+import com.example.model.enumeration.Role;
+import com.example.service.DetailsService;
+import com.example.service.JwtService;
+import com.example.utils.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+
+    @Mock
+    private DetailsService detailsService;
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET);
+    private final JwtService jwtService = new JwtService(jwtUtils);
+    private final JwtAuthenticationProperties properties = new JwtAuthenticationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties.setMode(JwtAuthenticationProperties.Mode.STATELESS);
+        filter = new JwtAuthenticationFilter(jwtUtils, detailsService, properties, meterRegistry);
+        user = new User();
+        user.setPersonId(7L);
+        user.setPersonEmail("user@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStatelessModeBuildsUserFromClaims() throws Exception {
+        when(detailsService.isUserExists("user@example.com")).thenReturn(true);
+
+        Authentication authentication = authenticate(jwtService.generateToken(user));
+
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(7L, principal.getId());
+        assertEquals("user@example.com", principal.getUsername());
+        assertEquals(List.of(Role.USER), principal.getAuthorities());
+        verify(detailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testStatelessModeRejectsDeletedUser() throws Exception {
+        when(detailsService.isUserExists("user@example.com")).thenReturn(false);
+
+        assertNull(authenticate(jwtService.generateToken(user)));
+        verify(detailsService, never()).loadUserByUsername(anyString());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void testStatelessModeLoadsUserForTokenWithoutClaims() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .signWith(jwtUtils.getSignInKey(), SignatureAlgorithm.HS256)
+                .compact();
+        when(detailsService.loadUserByUsername("user@example.com")).thenReturn(user);
+
+        Authentication authentication = authenticate(token);
+
+        assertSame(user, authentication.getPrincipal());
+    }
+
+    @Test
+    void testDatabaseModeLoadsUser() throws Exception {
+        properties.setMode(JwtAuthenticationProperties.Mode.DATABASE);
+        when(detailsService.loadUserByUsername("user@example.com")).thenReturn(user);
+
+        Authentication authentication = authenticate(jwtService.generateToken(user));
+
+        assertSame(user, authentication.getPrincipal());
+        verify(detailsService, never()).isUserExists(anyString());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "authenticated").timer().count());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/playlists");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CooccurrenceModelTest {
+
+    @Test
+    void testBuild() {
+        Baskets baskets = Baskets.builder()
+                .add(1).add(2).add(3).next()
+                .add(2).add(1).add(2).next()
+                .add(3).add(2).next()
+                .add(4).add(1)
+                .build();
+
+        CooccurrenceModel model = CooccurrenceModel.build(baskets, 10, 5, 100, 2);
+
+        assertEquals(4, model.songs());
+        assertArrayEquals(new int[]{2, 3, 4}, model.similar(1, 10));
+        assertArrayEquals(new int[]{1, 3}, model.similar(2, 10));
+        assertArrayEquals(new int[]{1}, model.similar(4, 10));
+        assertArrayEquals(new int[]{2}, model.similar(1, 1));
+        assertArrayEquals(new int[]{}, model.similar(5, 10));
+    }
+
+    @Test
+    void testBuild_IgnoresSingleSongAndLargeBaskets() {
+        Baskets baskets = Baskets.builder()
+                .add(1).add(2).next()
+                .add(3).next()
+                .add(1).add(4).add(5).add(6)
+                .build();
+
+        CooccurrenceModel model = CooccurrenceModel.build(baskets, 10, 5, 3, 1);
+
+        assertEquals(2, model.songs());
+        assertArrayEquals(new int[]{2}, model.similar(1, 10));
+        assertArrayEquals(new int[]{}, model.similar(3, 10));
+        assertArrayEquals(new int[]{}, model.similar(4, 10));
+    }
+
+    @Test
+    void testLimitCappedToNeighbours() {
+        Baskets baskets = Baskets.builder().add(1).add(2).add(3).add(4).build();
+
+        CooccurrenceModel model = CooccurrenceModel.build(baskets, 10, 2, 100, 1);
+
+        assertArrayEquals(new int[]{2, 3}, model.similar(1, 10));
+    }
+
+    @Test
+    void testChangesMatchBuild() {
+        Random random = new Random(42);
+        List<Set<Integer>> baskets = new ArrayList<>();
+        CooccurrenceModel model = CooccurrenceModel.empty(1000, 20, 100);
+        for (int i = 0; i < 2000; i++) {
+            if (baskets.isEmpty() || random.nextInt(10) < 3) {
+                baskets.add(new LinkedHashSet<>());
+            }
+            Set<Integer> basket = baskets.get(random.nextInt(baskets.size()));
+            int songId = 1 + random.nextInt(60);
+            if (basket.contains(songId)) {
+                basket.remove(songId);
+                model.removed(toArray(basket), new int[]{songId});
+            } else {
+                basket.add(songId);
+                model.added(toArray(basket), new int[]{songId});
+            }
+        }
+        Baskets.Builder builder = Baskets.builder();
+        for (Set<Integer> basket : baskets) {
+            basket.forEach(builder::add);
+            builder.next();
+        }
+
+        CooccurrenceModel built = CooccurrenceModel.build(builder.build(), 1000, 20, 100, 4);
+
+        for (int songId = 1; songId <= 60; songId++) {
+            assertArrayEquals(built.similar(songId, 20), model.similar(songId, 20), "song " + songId);
+        }
+    }
+
+    @Test
+    void testAdded_FullRowReplacesLeastFrequent() {
+        CooccurrenceModel model = CooccurrenceModel.empty(2, 1, 100);
+        model.added(new int[]{1, 2}, new int[]{1, 2});
+        model.added(new int[]{1, 2}, new int[]{1, 2});
+        model.added(new int[]{1, 3}, new int[]{3});
+
+        model.added(new int[]{1, 4}, new int[]{4});
+
+        assertArrayEquals(new int[]{2}, model.similar(1, 1));
+        model.added(new int[]{1, 4}, new int[]{1, 4});
+        assertArrayEquals(new int[]{4}, model.similar(1, 1));
+    }
+
+    @Test
+    void testRemoved() {
+        Baskets baskets = Baskets.builder()
+                .add(1).add(2).add(3).next()
+                .add(1).add(3)
+                .build();
+        CooccurrenceModel model = CooccurrenceModel.build(baskets, 10, 5, 100, 1);
+
+        model.removed(new int[]{1, 3}, new int[]{2});
+
+        assertArrayEquals(new int[]{3}, model.similar(1, 10));
+        assertArrayEquals(new int[]{}, model.similar(2, 10));
+    }
+
+    @Test
+    void testAdded_LargeBasketIgnored() {
+        CooccurrenceModel model = CooccurrenceModel.empty(10, 5, 2);
+
+        model.added(new int[]{1, 2, 3}, new int[]{3});
+
+        assertEquals(0, model.songs());
+    }
+
+    private static int[] toArray(Set<Integer> basket) {
+        return basket.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
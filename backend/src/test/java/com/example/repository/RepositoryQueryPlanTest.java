@@ -0,0 +1,136 @@
+package com.example.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the lookups by foreign key are answered from the indexes created by the migrations.
+ * The queries are taken from the {@link Query} annotations of the repositories, so the test follows
+ * any change of their shape. Sequential scans are disabled, as on the small seed data the planner
+ * would rightly prefer them; a query that cannot use an index still falls back to one.
+ * Requires Docker and is skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryQueryPlanTest {
+
+    private static final Pattern PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrate() throws IOException, SQLException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(migrations, Comparator.comparingInt(RepositoryQueryPlanTest::version));
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (Resource migration : migrations) {
+                statement.execute(migration.getContentAsString(StandardCharsets.UTF_8));
+            }
+            statement.execute("analyze");
+        }
+    }
+
+    @Test
+    void testSongsByArtistUseIndex() throws Exception {
+        assertPlanUses("song_artist_id_idx", SongRepository.class, "findByArtistId", Map.of("artistId", "12"));
+    }
+
+    @Test
+    void testSongsByAlbumUseIndex() throws Exception {
+        assertPlanUses("album_songs_album_id_song_id_key", SongRepository.class, "findByAlbumId", Map.of("albumId", "1"));
+    }
+
+    @Test
+    void testSongsByUserUseIndex() throws Exception {
+        assertPlanUses("person_favourite_song_person_id_song_id_key", SongRepository.class, "findByUserId", Map.of("userId", "1"));
+    }
+
+    @Test
+    void testNextSongInPlaylistUsesIndex() throws Exception {
+        assertPlanUses("playlist_songs_playlist_id_position_idx", SongRepository.class, "findNextInPlaylist",
+                Map.of("playlistId", "1", "songId", "1"));
+    }
+
+    @Test
+    void testSongInPlaylistCheckUsesIndex() throws Exception {
+        assertPlanUses("playlist_songs_playlist_id_song_id_key", PlaylistRepository.class, "existsSongInPlaylist",
+                Map.of("playlistId", "1", "songId", "1"));
+    }
+
+    @Test
+    void testAlbumsByArtistUseIndex() throws Exception {
+        assertPlanUses("album_album_creator_idx", AlbumRepository.class, "findByArtistId", Map.of("artistId", "12"));
+    }
+
+    @Test
+    void testAlbumDetailUsesIndex() throws Exception {
+        assertPlanUses("album_songs_album_id_song_id_key", AlbumRepository.class, "findWithSongsById", Map.of("albumId", "1"));
+    }
+
+    @Test
+    void testPlaylistsByCreatorUseIndex() throws Exception {
+        assertPlanUses("playlist_creator_id_idx", PlaylistRepository.class, "findByCreatorId", Map.of("creatorId", "1"));
+    }
+
+    @Test
+    void testUserByEmailUsesIndexes() throws Exception {
+        Map<String, String> parameters = Map.of("email", "'user@example.com'");
+        assertPlanUses("person_person_email_idx", UserRepository.class, "findByEmail", parameters);
+        assertPlanUses("users_password_person_id_idx", UserRepository.class, "findByEmail", parameters);
+    }
+
+    /**
+     * Explains the query of a repository method with the given parameter values and checks that its plan uses the index.
+     */
+    private static void assertPlanUses(String index, Class<?> repository, String methodName,
+                                       Map<String, String> parameters) throws SQLException {
+        Method method = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        Matcher matcher = PARAMETER.matcher(method.getAnnotation(Query.class).value());
+        String sql = matcher.replaceAll(match -> Matcher.quoteReplacement(parameters.get(match.group(1))));
+
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+            try (ResultSet rows = statement.executeQuery("explain " + sql)) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+        }
+        assertTrue(plan.toString().contains(index), () -> methodName + " does not use " + index + ":\n" + plan);
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static int version(Resource migration) {
+        String name = migration.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
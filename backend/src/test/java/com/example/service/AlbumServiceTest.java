@@ -1,20 +1,31 @@
 package com.example.service;
 
+import com.example.dto.album.AlbumDetailResponseDto;
 import com.example.dto.album.AlbumResponseDto;
 import com.example.dto.album.AlbumSearchResponseDto;
+import com.example.dto.album.AlbumWithSongsResponseDto;
+import com.example.dto.song.SongResponseDto;
+import com.example.exception.EntityNotFoundException;
 import com.example.model.entity.Album;
+import com.example.model.entity.Artist;
+import com.example.model.entity.Song;
+import com.example.repository.Counted;
 import com.example.repository.AlbumRepository;
+import com.example.repository.AlbumSongs;
+import com.example.snapshot.CatalogSnapshots;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -24,6 +35,12 @@ class AlbumServiceTest {
     @Mock
     private AlbumRepository albumRepository;
 
+    @Spy
+    private CatalogSearch catalogSearch = new CatalogSearch(new CatalogSearchProperties());
+
+    @Spy
+    private CatalogSnapshots catalogSnapshots = CatalogSnapshots.disabled();
+
     @InjectMocks
     private AlbumService albumService;
 
@@ -38,10 +55,10 @@ class AlbumServiceTest {
         Album album2 = new Album(2L, "Album2", "Artist2", LocalDateTime.now());
         List<Album> albums = Arrays.asList(album1, album2);
 
-        when(albumRepository.findByNameContaining(anyString(), anyInt(), anyInt())).thenReturn(albums);
-        when(albumRepository.countByNameContaining(anyString())).thenReturn(2);
+        when(albumRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt()))
+                .thenReturn(albums.stream().map(album -> new Counted<>(album, 2)).toList());
 
-        AlbumSearchResponseDto result = albumService.getAllAlbumsByName("Album", 0, 2);
+        AlbumSearchResponseDto result = albumService.getAllAlbumsByName("Album", 0, 2, null);
 
         assertEquals(2, result.getValues().size());
         assertEquals(1, result.getCurrentPage());
@@ -63,4 +80,44 @@ class AlbumServiceTest {
         assertEquals("Album1", result.get(0).getName());
         assertEquals("Album2", result.get(1).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAlbumsWithSongsByIds() {
+        Album album1 = new Album(1L, "Album1", "Artist1", LocalDateTime.now());
+        Album album2 = new Album(2L, "Album2", "Artist1", LocalDateTime.now());
+        Artist artist = new Artist(7L, "Artist1");
+        Song song = new Song(5L, "Song5", "Artist1", "Genre1", "song5.mp3");
+
+        when(albumRepository.findAllWithSongsByIds(new long[]{2L, 3L, 1L}))
+                .thenReturn(List.of(new AlbumSongs(album1, artist, List.of(song)), new AlbumSongs(album2, artist, List.of())));
+
+        List<AlbumWithSongsResponseDto> result = albumService.getAlbumsWithSongsByIds(List.of(2L, 3L, 1L, 2L));
+
+        assertEquals(List.of(2L, 1L), result.stream().map(AlbumResponseDto::getId).toList());
+        assertEquals(0, result.get(0).getSongs().size());
+        assertEquals("Song5", result.get(1).getSongs().get(0).getName());
+    }
+
+    @Test
+    void testGetAlbumDetail() {
+        Album album = new Album(1L, "Album1", "Artist1", LocalDateTime.now());
+        Song song1 = new Song(5L, "Song5", "Artist1", "Genre1", "song5.mp3");
+        Song song2 = new Song(3L, "Song3", "Artist2", "Genre1", "song3.mp3");
+        when(albumRepository.findWithSongsById(1L))
+                .thenReturn(List.of(new AlbumSongs(album, new Artist(7L, "Artist1"), List.of(song1, song2))));
+
+        AlbumDetailResponseDto result = albumService.getAlbumDetail(1L);
+
+        assertEquals("Album1", result.getName());
+        assertEquals(7L, result.getCreator().getId());
+        assertEquals("Artist1", result.getCreator().getName());
+        assertEquals(List.of("Song5", "Song3"), result.getSongs().stream().map(SongResponseDto::getName).toList());
+    }
+
+    @Test
+    void testGetAlbumDetail_NotFound() {
+        when(albumRepository.findWithSongsById(1L)).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> albumService.getAlbumDetail(1L));
+    }
+}
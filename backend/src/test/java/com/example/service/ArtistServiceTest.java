@@ -4,12 +4,15 @@ import com.example.dto.artist.ArtistResponseDto;
 import com.example.dto.artist.ArtistSearchResponseDto;
 import com.example.exception.EntityNotFoundException;
 import com.example.model.entity.Artist;
+import com.example.repository.Counted;
 import com.example.repository.ArtistRepository;
+import com.example.snapshot.CatalogSnapshots;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
@@ -27,6 +30,12 @@ class ArtistServiceTest {
     @Mock
     private ArtistRepository artistRepository;
 
+    @Spy
+    private CatalogSearch catalogSearch = new CatalogSearch(new CatalogSearchProperties());
+
+    @Spy
+    private CatalogSnapshots catalogSnapshots = CatalogSnapshots.disabled();
+
     @InjectMocks
     private ArtistService artistService;
 
@@ -41,10 +50,10 @@ class ArtistServiceTest {
         Artist artist2 = new Artist(2L, "Artist2");
         List<Artist> artists = Arrays.asList(artist1, artist2);
 
-        when(artistRepository.findByNameContaining(anyString(), anyInt(), anyInt())).thenReturn(artists);
-        when(artistRepository.countByNameContaining(anyString())).thenReturn(2);
+        when(artistRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt()))
+                .thenReturn(artists.stream().map(artist -> new Counted<>(artist, 2)).toList());
 
-        ArtistSearchResponseDto result = artistService.getAllArtistsByName("Artist", 0, 2);
+        ArtistSearchResponseDto result = artistService.getAllArtistsByName("Artist", 0, 2, null);
 
         assertEquals(2, result.getValues().size());
         assertEquals(1, result.getCurrentPage());
@@ -69,4 +78,15 @@ class ArtistServiceTest {
 
         assertThrows(EntityNotFoundException.class, () -> artistService.getArtistById(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetArtistsByIds() {
+        Artist artist1 = new Artist(1L, "Artist1");
+        Artist artist2 = new Artist(2L, "Artist2");
+        when(artistRepository.findAllByIds(new long[]{2L, 1L, 3L})).thenReturn(List.of(artist1, artist2));
+
+        List<ArtistResponseDto> result = artistService.getArtistsByIds(Arrays.asList(2L, null, 1L, 3L, 1L));
+
+        assertEquals(List.of(2L, 1L), result.stream().map(ArtistResponseDto::getId).toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.service;
+
+import com.example.exception.InvalidCursorException;
+import com.example.model.entity.Song;
+import com.example.repository.Counted;
+import com.example.repository.SongRepository;
+import com.example.utils.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CatalogSearchTest {
+
+    @Mock
+    private SongRepository songRepository;
+
+    private CatalogSearchProperties properties;
+
+    private CatalogSearch catalogSearch;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new CatalogSearchProperties();
+        catalogSearch = new CatalogSearch(properties);
+    }
+
+    @Test
+    void testSearchByOffsetCountsInSameQuery() {
+        when(songRepository.findByNameContainingWithCount("Song", 2, 2))
+                .thenReturn(List.of(new Counted<>(song(3), 5), new Counted<>(song(4), 5)));
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, "Song", 2, 2, null);
+
+        assertEquals(2, page.values().size());
+        assertEquals(5, page.count());
+        assertEquals(2, page.currentPage());
+        assertEquals(3, page.totalPages());
+        assertEquals(4L, PageCursor.decode(page.nextCursor()));
+        verify(songRepository, never()).countByNameContaining(anyString());
+    }
+
+    @Test
+    void testSearchPastLastPageFallsBackToCount() {
+        when(songRepository.findAllWithCount(10, 2)).thenReturn(List.of());
+        when(songRepository.count()).thenReturn(5);
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, null, 10, 2, null);
+
+        assertTrue(page.values().isEmpty());
+        assertEquals(5, page.count());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testSearchByCursor() {
+        when(songRepository.findByNameContainingAfter("Song", 2L, 2)).thenReturn(List.of(song(3), song(4)));
+        when(songRepository.countByNameContaining("Song")).thenReturn(5);
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, "Song", 0, 2, PageCursor.encode(2L));
+
+        assertEquals(2, page.values().size());
+        assertEquals(0, page.currentPage());
+        assertEquals(5, page.count());
+        assertEquals(4L, PageCursor.decode(page.nextCursor()));
+        verify(songRepository, never()).findByNameContainingWithCount(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testSearchByCursorLastPageHasNoCursor() {
+        when(songRepository.findAllAfter(4L, 2)).thenReturn(List.of(song(5)));
+        when(songRepository.count()).thenReturn(5);
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, null, 0, 2, PageCursor.encode(4L));
+
+        assertEquals(1, page.values().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testSearchWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> catalogSearch.search(songRepository, Song::getSongId, "Song", 0, 2, "not-a-cursor"));
+        verify(songRepository, never()).countByNameContaining(anyString());
+    }
+
+    @Test
+    void testEstimatedCountForUnfilteredListing() {
+        properties.setCountMode(CatalogSearchProperties.CountMode.ESTIMATED);
+        when(songRepository.findAll(0, 2)).thenReturn(List.of(song(1), song(2)));
+        when(songRepository.estimateCount()).thenReturn(1000);
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, "", 0, 2, null);
+
+        assertEquals(1000, page.count());
+        assertEquals(500, page.totalPages());
+        verify(songRepository, never()).count();
+        verify(songRepository, never()).findAllWithCount(anyInt(), anyInt());
+    }
+
+    @Test
+    void testEstimatedCountFallsBackToExactCountBeforeAnalyze() {
+        properties.setCountMode(CatalogSearchProperties.CountMode.ESTIMATED);
+        when(songRepository.findAll(0, 2)).thenReturn(List.of(song(1)));
+        when(songRepository.estimateCount()).thenReturn(-1);
+        when(songRepository.count()).thenReturn(1);
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, null, 0, 2, null);
+
+        assertEquals(1, page.count());
+    }
+
+    @Test
+    void testEstimatedModeStillCountsFilteredSearchExactly() {
+        properties.setCountMode(CatalogSearchProperties.CountMode.ESTIMATED);
+        when(songRepository.findByNameContainingWithCount("Song", 0, 2)).thenReturn(List.of(new Counted<>(song(1), 1)));
+
+        CatalogPage<Song> page = catalogSearch.search(songRepository, Song::getSongId, "Song", 0, 2, null);
+
+        assertEquals(1, page.count());
+        verify(songRepository, never()).estimateCount();
+    }
+
+    private static Song song(long id) {
+        return new Song(id, "Song" + id, "Artist", "Genre", "song" + id + ".mp3");
+    }
+}
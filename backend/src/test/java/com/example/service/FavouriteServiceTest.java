@@ -0,0 +1,115 @@
+package com.example.service;
+
+import com.example.dto.song.SongResponseDto;
+import com.example.exception.EntityNotFoundException;
+import com.example.favourite.FavouriteSongs;
+import com.example.favourite.FavouriteSongsProperties;
+import com.example.filter.JwtPrincipal;
+import com.example.model.entity.Song;
+import com.example.recommendation.SongRecommendations;
+import com.example.repository.SongRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FavouriteServiceTest {
+
+    @Mock
+    private SongRepository songRepository;
+
+    @Mock
+    private DetailsService detailsService;
+
+    @Mock
+    private SongRecommendations songRecommendations;
+
+    private FavouriteService favouriteService;
+    private JwtPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        favouriteService = new FavouriteService(songRepository,
+                new FavouriteSongs(songRepository, new FavouriteSongsProperties()), detailsService, songRecommendations);
+        user = new JwtPrincipal(7L, "user@example.com", List.of());
+        when(songRepository.findFavouriteSongIds(7L)).thenReturn(List.of(2, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testMarkFavourites() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        List<SongResponseDto> songs = songs(1, 2, 3);
+
+        List<SongResponseDto> marked = favouriteService.markFavourites(songs);
+        favouriteService.markFavourites(songs);
+
+        assertEquals(List.of(false, true, true), marked.stream().map(SongResponseDto::isFavourite).toList());
+        assertEquals("Song2", marked.get(1).getName());
+        assertFalse(songs.get(1).isFavourite(), "the given songs are not changed");
+        verify(songRepository, times(1)).findFavouriteSongIds(7L);
+    }
+
+    @Test
+    void testMarkFavourites_Anonymous() {
+        List<SongResponseDto> songs = songs(2);
+
+        assertSame(songs, favouriteService.markFavourites(songs));
+        verify(songRepository, never()).findFavouriteSongIds(anyLong());
+    }
+
+    @Test
+    void testAddAndRemoveFavourite() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        favouriteService.markFavourites(songs(1));
+        when(songRepository.addFavourite(7L, 1L)).thenReturn(SongRepository.FAVOURITE_ADDED);
+        when(songRepository.removeFavourite(7L, 2L)).thenReturn(true);
+
+        favouriteService.addFavourite(1, user);
+        favouriteService.removeFavourite(2, user);
+
+        assertEquals(List.of(true, false, true), favouriteService.markFavourites(songs(1, 2, 3)).stream()
+                .map(SongResponseDto::isFavourite).toList());
+        verify(songRepository).removeFavourite(7L, 2L);
+        verify(songRepository, times(1)).findFavouriteSongIds(7L);
+        verify(songRecommendations).favouriteAdded(7L, 1L);
+        verify(songRecommendations).favouriteRemoved(7L, 2L);
+    }
+
+    @Test
+    void testAddFavourite_AlreadyFavourite() {
+        when(songRepository.addFavourite(7L, 2L)).thenReturn(SongRepository.ALREADY_FAVOURITE);
+
+        assertDoesNotThrow(() -> favouriteService.addFavourite(2, user));
+        verify(songRecommendations, never()).favouriteAdded(anyLong(), anyLong());
+    }
+
+    @Test
+    void testAddFavourite_SongNotFound() {
+        when(songRepository.addFavourite(7L, 1L)).thenReturn(SongRepository.FAVOURITE_SONG_NOT_FOUND);
+
+        assertThrows(EntityNotFoundException.class, () -> favouriteService.addFavourite(1, user));
+    }
+
+    private static List<SongResponseDto> songs(long... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(id -> SongService.mapToDto(new Song(id, "Song" + id, "Artist", "Genre", "song.mp3")))
+                .toList();
+    }
+}
@@ -2,22 +2,31 @@ package com.example.service;
 
 import com.example.dto.playlist.PlaylistResponseDto;
 import com.example.dto.playlist.PlaylistSearchResponseDto;
+import com.example.dto.playlist.PlaylistSongResultDto;
+import com.example.dto.playlist.PlaylistSongsUpdateRequestDto;
+import com.example.dto.playlist.PlaylistSongsUpdateResponseDto;
 import com.example.exception.AccessForbiddenException;
 import com.example.exception.AlreadyInPlaylistException;
 import com.example.exception.EntityNotFoundException;
 import com.example.model.entity.Playlist;
+import com.example.model.enumeration.PlaylistSongOutcome;
+import com.example.recommendation.SongRecommendations;
+import com.example.repository.Counted;
 import com.example.repository.PlaylistRepository;
 import com.example.repository.SongRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +40,12 @@ class PlaylistServiceTest {
     @Mock
     private SongRepository songRepository;
 
+    @Mock
+    private SongRecommendations songRecommendations;
+
+    @Spy
+    private CatalogSearch catalogSearch = new CatalogSearch(new CatalogSearchProperties());
+
     @InjectMocks
     private PlaylistService playlistService;
 
@@ -45,10 +60,10 @@ class PlaylistServiceTest {
         Playlist playlist2 = new Playlist(2L, "Playlist2", "Creator2",  LocalDateTime.now(),  LocalDateTime.now());
         List<Playlist> playlists = Arrays.asList(playlist1, playlist2);
 
-        when(playlistRepository.findByNameContaining(anyString(), anyInt(), anyInt())).thenReturn(playlists);
-        when(playlistRepository.countByNameContaining(anyString())).thenReturn(2);
+        when(playlistRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt()))
+                .thenReturn(playlists.stream().map(playlist -> new Counted<>(playlist, 2)).toList());
 
-        PlaylistSearchResponseDto result = playlistService.getAllPlaylistsByName("Playlist", 0, 2);
+        PlaylistSearchResponseDto result = playlistService.getAllPlaylistsByName("Playlist", 0, 2, null);
 
         assertEquals(2, result.getValues().size());
         assertEquals(1, result.getCurrentPage());
@@ -71,27 +86,150 @@ class PlaylistServiceTest {
     }
 
 
+    @Test
+    void testAddMusicToPlaylist() {
+        when(playlistRepository.addSongToPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.CHANGED);
+
+        assertDoesNotThrow(() -> playlistService.addMusicToPlaylist(1L, 1L, "user@example.com"));
+        verify(songRecommendations).playlistSongsChanged(1L, List.of(1L), List.of());
+    }
+
     @Test
     void testAddMusicToPlaylist_SongNotFound() {
-        when(songRepository.existsById(1L)).thenReturn(false);
+        when(playlistRepository.addSongToPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.SONG_NOT_FOUND);
+
+        assertThrows(EntityNotFoundException.class, () -> playlistService.addMusicToPlaylist(1L, 1L, "user@example.com"));
+    }
+
+    @Test
+    void testAddMusicToPlaylist_PlaylistNotFound() {
+        when(playlistRepository.addSongToPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.PLAYLIST_NOT_FOUND);
 
         assertThrows(EntityNotFoundException.class, () -> playlistService.addMusicToPlaylist(1L, 1L, "user@example.com"));
     }
 
+    @Test
+    void testAddMusicToPlaylist_AccessDenied() {
+        when(playlistRepository.addSongToPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.NOT_OWNER);
+
+        assertThrows(AccessForbiddenException.class, () -> playlistService.addMusicToPlaylist(1L, 1L, "user@example.com"));
+    }
+
     @Test
     void testAddMusicToPlaylist_AlreadyInPlaylist() {
-        when(songRepository.existsById(1L)).thenReturn(true);
-        when(playlistRepository.existsSongInPlaylist(1L, 1L)).thenReturn(true);
+        when(playlistRepository.addSongToPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.ALREADY_IN_PLAYLIST);
 
         assertThrows(AlreadyInPlaylistException.class, () -> playlistService.addMusicToPlaylist(1L, 1L, "user@example.com"));
+        verify(songRecommendations, never()).playlistSongsChanged(anyLong(), any(), any());
     }
 
 
+    @Test
+    void testRemoveMusicFromPlaylist() {
+        when(playlistRepository.removeSongFromPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.CHANGED);
+
+        assertDoesNotThrow(() -> playlistService.removeMusicFromPlaylist(1L, 1L, "user@example.com", ""));
+        verify(songRecommendations).playlistSongsChanged(1L, List.of(), List.of(1L));
+    }
+
+    @Test
+    void testRemoveMusicFromPlaylist_NotInPlaylist() {
+        when(playlistRepository.removeSongFromPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.NOT_IN_PLAYLIST);
+
+        assertDoesNotThrow(() -> playlistService.removeMusicFromPlaylist(1L, 1L, "user@example.com", ""));
+        verify(songRecommendations, never()).playlistSongsChanged(anyLong(), any(), any());
+    }
+
     @Test
     void testRemoveMusicFromPlaylist_SongNotFound() {
-        when(songRepository.existsById(1L)).thenReturn(false);
+        when(playlistRepository.removeSongFromPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.SONG_NOT_FOUND);
 
         assertThrows(EntityNotFoundException.class, () -> playlistService.removeMusicFromPlaylist(1L, 1L, "user@example.com", ""));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testRemoveMusicFromPlaylist_AccessDenied() {
+        when(playlistRepository.removeSongFromPlaylist(1L, 1L, "user@example.com")).thenReturn(PlaylistRepository.NOT_OWNER);
+
+        assertThrows(AccessForbiddenException.class, () -> playlistService.removeMusicFromPlaylist(1L, 1L, "user@example.com", ""));
+    }
+
+    @Test
+    void testUpdatePlaylistSongs() {
+        PlaylistSongsUpdateRequestDto request = new PlaylistSongsUpdateRequestDto();
+        request.setAdd(List.of(1L, 2L, 3L, 1L));
+        request.setRemove(List.of(4L, 5L));
+        request.setOrder(List.of(2L, 5L));
+        when(playlistRepository.findOwnerEmailForUpdate(1L)).thenReturn(Optional.of("user@example.com"));
+        when(songRepository.findExistingIds(new long[]{1L, 2L, 3L, 4L, 5L})).thenReturn(List.of(1L, 2L, 4L, 5L));
+        when(playlistRepository.removeSongsFromPlaylist(1L, new long[]{4L, 5L})).thenReturn(List.of(4L));
+        when(playlistRepository.addSongsToPlaylist(1L, new long[]{1L, 2L})).thenReturn(List.of(2L));
+        when(playlistRepository.findSongIdsInPlaylist(1L, new long[]{2L, 5L})).thenReturn(List.of(2L));
+
+        PlaylistSongsUpdateResponseDto result = playlistService.updatePlaylistSongs(1L, request, "user@example.com");
+
+        assertEquals(List.of(PlaylistSongOutcome.ALREADY_IN_PLAYLIST, PlaylistSongOutcome.ADDED, PlaylistSongOutcome.SONG_NOT_FOUND),
+                result.getAdd().stream().map(PlaylistSongResultDto::getOutcome).toList());
+        assertEquals(List.of(PlaylistSongOutcome.REMOVED, PlaylistSongOutcome.NOT_IN_PLAYLIST),
+                result.getRemove().stream().map(PlaylistSongResultDto::getOutcome).toList());
+        assertEquals(List.of(PlaylistSongOutcome.MOVED, PlaylistSongOutcome.NOT_IN_PLAYLIST),
+                result.getOrder().stream().map(PlaylistSongResultDto::getOutcome).toList());
+        InOrder touch = inOrder(playlistRepository);
+        touch.verify(playlistRepository).deferPlaylistTouch();
+        touch.verify(playlistRepository).moveSongsToFront(1L, new long[]{2L, 5L});
+        touch.verify(playlistRepository).touchPlaylist(1L);
+        touch.verify(playlistRepository).resumePlaylistTouch();
+        verify(songRecommendations).playlistSongsChanged(1L, Set.of(2L), Set.of(4L));
+    }
+
+    @Test
+    void testUpdatePlaylistSongs_NothingChanged() {
+        PlaylistSongsUpdateRequestDto request = new PlaylistSongsUpdateRequestDto();
+        request.setAdd(List.of(1L));
+        when(playlistRepository.findOwnerEmailForUpdate(1L)).thenReturn(Optional.of("user@example.com"));
+        when(songRepository.findExistingIds(new long[]{1L})).thenReturn(List.of(1L));
+        when(playlistRepository.addSongsToPlaylist(1L, new long[]{1L})).thenReturn(List.of());
+
+        playlistService.updatePlaylistSongs(1L, request, "user@example.com");
+
+        verify(playlistRepository, never()).touchPlaylist(anyLong());
+        verify(playlistRepository).resumePlaylistTouch();
+    }
+
+    @Test
+    void testUpdatePlaylistSongs_OutOfIntRange() {
+        PlaylistSongsUpdateRequestDto request = new PlaylistSongsUpdateRequestDto();
+        request.setAdd(List.of(1L, 3_000_000_000L));
+        request.setRemove(List.of(-3_000_000_000L));
+        when(playlistRepository.findOwnerEmailForUpdate(1L)).thenReturn(Optional.of("user@example.com"));
+        when(songRepository.findExistingIds(new long[]{1L})).thenReturn(List.of(1L));
+        when(playlistRepository.addSongsToPlaylist(1L, new long[]{1L})).thenReturn(List.of(1L));
+
+        PlaylistSongsUpdateResponseDto result = playlistService.updatePlaylistSongs(1L, request, "user@example.com");
+
+        assertEquals(List.of(PlaylistSongOutcome.ADDED, PlaylistSongOutcome.SONG_NOT_FOUND),
+                result.getAdd().stream().map(PlaylistSongResultDto::getOutcome).toList());
+        assertEquals(List.of(3_000_000_000L), result.getAdd().stream().skip(1).map(PlaylistSongResultDto::getSongId).toList());
+        assertEquals(List.of(PlaylistSongOutcome.SONG_NOT_FOUND),
+                result.getRemove().stream().map(PlaylistSongResultDto::getOutcome).toList());
+        verify(playlistRepository, never()).removeSongsFromPlaylist(anyLong(), any());
+    }
+
+    @Test
+    void testUpdatePlaylistSongs_PlaylistNotFound() {
+        when(playlistRepository.findOwnerEmailForUpdate(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> playlistService.updatePlaylistSongs(1L, new PlaylistSongsUpdateRequestDto(), "user@example.com"));
+    }
+
+    @Test
+    void testUpdatePlaylistSongs_AccessDenied() {
+        PlaylistSongsUpdateRequestDto request = new PlaylistSongsUpdateRequestDto();
+        request.setAdd(List.of(1L));
+        when(playlistRepository.findOwnerEmailForUpdate(1L)).thenReturn(Optional.of("other@example.com"));
+
+        assertThrows(AccessForbiddenException.class, () -> playlistService.updatePlaylistSongs(1L, request, "user@example.com"));
+        verify(playlistRepository, never()).addSongsToPlaylist(anyLong(), any());
+    }
+}
@@ -3,24 +3,30 @@ package com.example.service;
 import com.example.dto.song.SongResponseDto;
 import com.example.dto.song.SongSearchResponseDto;
 import com.example.model.entity.Song;
+import com.example.repository.Counted;
 import com.example.repository.SongRepository;
+import com.example.snapshot.CatalogSnapshot;
+import com.example.snapshot.CatalogSnapshots;
+import com.example.storage.SongStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.NoSuchFileException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +35,15 @@ class SongServiceTest {
     @Mock
     private SongRepository songRepository;
 
+    @Mock
+    private SongStorage songStorage;
+
+    @Spy
+    private CatalogSearch catalogSearch = new CatalogSearch(new CatalogSearchProperties());
+
+    @Spy
+    private CatalogSnapshots catalogSnapshots = CatalogSnapshots.disabled();
+
     @InjectMocks
     private SongService songService;
 
@@ -43,10 +58,10 @@ class SongServiceTest {
         Song song2 = new Song(2L, "Song2", "Artist2", "Genre2", "song2.mp3");
         List<Song> songs = Arrays.asList(song1, song2);
 
-        when(songRepository.findByNameContaining(anyString(), anyInt(), anyInt())).thenReturn(songs);
-        when(songRepository.countByNameContaining(anyString())).thenReturn(2);
+        when(songRepository.findByNameContainingWithCount(anyString(), anyInt(), anyInt()))
+                .thenReturn(songs.stream().map(song -> new Counted<>(song, 2)).toList());
 
-        SongSearchResponseDto result = songService.getAllSongsByName("Song", 0, 2);
+        SongSearchResponseDto result = songService.getAllSongsByName("Song", 0, 2, null);
 
         assertEquals(2, result.getValues().size());
         assertEquals(1, result.getCurrentPage());
@@ -68,6 +83,22 @@ class SongServiceTest {
         assertEquals("Song2", result.get(1).getName());
     }
 
+    @Test
+    void testGetAllSongsByArtist_FromSnapshot() {
+        catalogSnapshots.install(CatalogSnapshot.builder()
+                .addGenre(1, "Genre1")
+                .addArtist(1, "Artist1")
+                .addSong(1, "Song1", "song1.mp3", 1, 1)
+                .addSong(2, "Song2", "song2.mp3", 1, 1)
+                .build());
+
+        List<SongResponseDto> result = songService.getAllSongsByArtist(1L);
+
+        assertEquals(List.of("Song1", "Song2"), result.stream().map(SongResponseDto::getName).toList());
+        assertEquals("Artist1", result.get(0).getArtist());
+        verify(songRepository, never()).findByArtistId(anyLong());
+    }
+
     @Test
     void testGetAllSongsByAlbum() {
         Song song1 = new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3");
@@ -104,4 +135,74 @@ class SongServiceTest {
 
         assertThrows(ResponseStatusException.class, () -> songService.getMp3ById(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetMp3ById() throws IOException {
+        Resource resource = new ByteArrayResource(new byte[]{1, 2, 3});
+        when(songRepository.findById(1L)).thenReturn(Optional.of(new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3")));
+        when(songStorage.open("song1.mp3")).thenReturn(resource);
+
+        assertSame(resource, songService.getMp3ById(1L));
+    }
+
+    @Test
+    void testGetMp3ById_FileMissing() throws IOException {
+        when(songRepository.findById(1L)).thenReturn(Optional.of(new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3")));
+        when(songStorage.open("song1.mp3")).thenThrow(new NoSuchFileException("song1.mp3"));
+
+        assertThrows(ResponseStatusException.class, () -> songService.getMp3ById(1L));
+    }
+
+    @Test
+    void testPrefetchNextInPlaylist() {
+        when(songRepository.findNextInPlaylist(5L, 1L)).thenReturn(Optional.of(new Song(2L, "Song2", "Artist1", "Genre2", "song2.mp3")));
+
+        songService.prefetchNextInPlaylist(5L, 1L);
+
+        verify(songStorage).prefetch("song2.mp3");
+    }
+
+    @Test
+    void testGetSongsByIds() {
+        Song song1 = new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3");
+        Song song2 = new Song(2L, "Song2", "Artist1", "Genre2", "song2.mp3");
+        when(songRepository.findAllByIds(new long[]{2L, 7L, 1L})).thenReturn(List.of(song1, song2));
+
+        List<SongResponseDto> result = songService.getSongsByIds(List.of(2L, 7L, 1L));
+
+        assertEquals(List.of("Song2", "Song1"), result.stream().map(SongResponseDto::getName).toList());
+    }
+
+    @Test
+    void testGetSongsByIds_AddedAfterSnapshot() {
+        catalogSnapshots.install(CatalogSnapshot.builder()
+                .addGenre(1, "Genre1")
+                .addArtist(1, "Artist1")
+                .addSong(1, "Song1", "song1.mp3", 1, 1)
+                .build());
+        Song song3 = new Song(3L, "Song3", "Artist1", "Genre1", "song3.mp3");
+        when(songRepository.findAllByIds(new long[]{3L})).thenReturn(List.of(song3));
+
+        List<SongResponseDto> result = songService.getSongsByIds(List.of(3L, 1L));
+
+        assertEquals(List.of("Song3", "Song1"), result.stream().map(SongResponseDto::getName).toList());
+        verify(songRepository).findAllByIds(new long[]{3L});
+    }
+
+    @Test
+    void testGetSongsByIds_OutOfIntRange() {
+        Song song1 = new Song(1L, "Song1", "Artist1", "Genre1", "song1.mp3");
+        when(songRepository.findAllByIds(new long[]{1L})).thenReturn(List.of(song1));
+
+        List<SongResponseDto> result = songService.getSongsByIds(List.of(1L, 3_000_000_000L));
+
+        assertEquals(List.of("Song1"), result.stream().map(SongResponseDto::getName).toList());
+        verify(songRepository).findAllByIds(new long[]{1L});
+    }
+
+    @Test
+    void testGetSongsByIds_Empty() {
+        assertTrue(songService.getSongsByIds(List.of()).isEmpty());
+        verifyNoInteractions(songRepository);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.snapshot;
+
+import com.example.model.entity.Album;
+import com.example.model.entity.Song;
+import com.example.repository.AlbumSongs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2023, 12, 1, 18, 30, 15, 123_456_000);
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.builder()
+                .addGenre(1, "Rap")
+                .addGenre(2, "Rock")
+                .addArtist(1, "Артист")
+                .addArtist(5, "Artist5")
+                .addArtist(9, null)
+                .addSong(2, "Песня", "song2.mp3", 5, 1)
+                .addSong(3, "Song3", null, 1, 2)
+                .addSong(4, "Orphan", "song4.mp3", 7, 1)
+                .addSong(10, "Song10", "song10.mp3", 5, 2)
+                .addAlbum(1, "Album1", 5, CREATION_DATE)
+                .addAlbum(2, "Album2", 1, null)
+                .addAlbum(3, "Orphan", 8, null)
+                .addAlbumSong(1, 10)
+                .addAlbumSong(1, 2)
+                .addAlbumSong(1, 4)
+                .addAlbumSong(3, 3)
+                .build();
+    }
+
+    @Test
+    void testFindById() {
+        assertEquals(3, snapshot.songs().size());
+        assertEquals("Песня", snapshot.songs().findById(2).map(Song::getSongName).orElseThrow());
+        assertEquals("Artist5", snapshot.songs().findById(2).map(Song::getArtistName).orElseThrow());
+        assertEquals("Rock", snapshot.songs().findById(3).map(Song::getJenreName).orElseThrow());
+        assertNull(snapshot.songs().findById(3).map(Song::getSongUrl).orElse(null));
+        assertTrue(snapshot.songs().findById(4).isEmpty(), "songs of unknown artists are left out");
+        assertTrue(snapshot.songs().findById(11).isEmpty());
+        assertTrue(snapshot.songs().findById(1L << 40).isEmpty());
+        assertNull(snapshot.artists().findById(9).orElseThrow().getNickname());
+    }
+
+    @Test
+    void testFindAlbum() {
+        Album album = snapshot.albums().findById(1).orElseThrow();
+        assertEquals("Album1", album.getName());
+        assertEquals("Artist5", album.getAlbumCreatorName());
+        assertEquals(CREATION_DATE, album.getCreationDate());
+        assertNull(snapshot.albums().findById(2).orElseThrow().getCreationDate());
+        assertTrue(snapshot.albums().findById(3).isEmpty(), "albums of unknown creators are left out");
+    }
+
+    @Test
+    void testFindByArtistAndAlbum() {
+        assertEquals(List.of(2L, 10L), snapshot.findSongsByArtistId(5).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(3L), snapshot.findSongsByArtistId(1).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(), snapshot.findSongsByArtistId(9));
+        assertEquals(List.of(), snapshot.findSongsByArtistId(42));
+        assertEquals(List.of(10L, 2L), snapshot.findSongsByAlbumId(1).stream().map(Song::getSongId).toList(),
+                "songs of an album keep the order they were added in");
+        assertEquals(List.of(2L), snapshot.findAlbumsByArtistId(1).stream().map(Album::getAlbumId).toList());
+    }
+
+    @Test
+    void testFindAlbumWithSongs() {
+        AlbumSongs albumSongs = snapshot.findAlbumWithSongs(1).orElseThrow();
+        assertEquals(5, albumSongs.creator().getArtistId());
+        assertEquals("Artist5", albumSongs.creator().getNickname());
+        assertEquals(2, albumSongs.songs().size());
+        assertEquals(List.of(), snapshot.findAlbumWithSongs(2).orElseThrow().songs());
+        assertEquals(List.of(2L, 1L), snapshot.findAlbumsWithSongsByIds(new long[]{2, 3, 1}).stream()
+                .map(value -> value.album().getAlbumId()).toList());
+    }
+
+    @Test
+    void testPages() {
+        assertEquals(List.of(3L, 10L), snapshot.songs().findAll(1, 5).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(), snapshot.songs().findAll(3, 5));
+        assertEquals(List.of(10L), snapshot.songs().findAllAfter(3, 5).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(3L), snapshot.songs().findAllAfter(2, 1).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(2L), snapshot.songs().findAllAfter(-1, 1).stream().map(Song::getSongId).toList());
+        assertEquals(List.of(), snapshot.songs().findAllAfter(Long.MAX_VALUE, 5));
+        assertEquals(List.of(10L, 2L), snapshot.songs().findAllByIds(new long[]{10, 4, 2}).stream()
+                .map(Song::getSongId).toList());
+    }
+
+    @Test
+    void testIdsMustBeAscending() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder().addArtist(2, "Artist2");
+        assertThrows(IllegalArgumentException.class, () -> builder.addArtist(2, "Artist2"));
+        assertThrows(IllegalArgumentException.class, () -> builder.addArtist(1, "Artist1"));
+    }
+
+    @Test
+    void testLargeSnapshot() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder().addGenre(1, "Rap");
+        for (int artistId = 1; artistId <= 100; artistId++) {
+            builder.addArtist(artistId, "Artist" + artistId);
+        }
+        for (int songId = 1; songId <= 100_000; songId++) {
+            builder.addSong(songId * 3, "Song" + songId, "song" + songId + ".mp3", songId % 100 + 1, 1);
+        }
+        CatalogSnapshot large = builder.build();
+
+        assertEquals(100_000, large.songs().size());
+        assertEquals("Song77777", large.songs().findById(77_777 * 3).orElseThrow().getSongName());
+        assertTrue(large.songs().findById(77_777 * 3 + 1).isEmpty());
+        assertEquals(1000, large.findSongsByArtistId(42).size());
+        assertTrue(large.estimateBytes() > 0);
+    }
+}
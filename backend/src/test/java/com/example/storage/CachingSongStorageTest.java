@@ -0,0 +1,143 @@
+package com.example.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingSongStorageTest {
+
+    private InMemorySongStorage delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemorySongStorage();
+        delegate.files.put("a.mp3", "aaaaaaaaaa");
+        delegate.files.put("b.mp3", "bbbbbbbbbb");
+        delegate.files.put("c.mp3", "cccccccccc");
+    }
+
+    @Test
+    void testMissThenHit() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 100, 0.5, Runnable::run);
+
+        storage.open("a.mp3");
+        Resource cached = storage.open("a.mp3");
+
+        assertEquals("aaaaaaaaaa", cached.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(1, delegate.reads);
+        assertEquals(1, storage.getCacheStats().getHits());
+        assertEquals(1, storage.getCacheStats().getMisses());
+        assertEquals(10, storage.getCachedBytes());
+    }
+
+    @Test
+    void testColdTrackDoesNotEvictPopularTrack() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 20, 0, Runnable::run);
+        for (int i = 0; i < 3; i++) {
+            storage.open("a.mp3");
+        }
+        storage.open("b.mp3");
+
+        storage.open("c.mp3");
+
+        assertTrue(storage.contains("a.mp3"));
+        assertTrue(storage.contains("b.mp3"));
+        assertFalse(storage.contains("c.mp3"));
+        assertEquals(1, storage.getCacheStats().getRejections());
+        assertEquals(0, storage.getCacheStats().getEvictions());
+    }
+
+    @Test
+    void testFrequentTrackEvictsLessFrequentTrack() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 20, 0, Runnable::run);
+        for (int i = 0; i < 3; i++) {
+            storage.open("a.mp3");
+        }
+        storage.open("b.mp3");
+
+        for (int i = 0; i < 4; i++) {
+            storage.open("c.mp3");
+        }
+
+        assertFalse(storage.contains("a.mp3"));
+        assertTrue(storage.contains("b.mp3"));
+        assertTrue(storage.contains("c.mp3"));
+        assertEquals(1, storage.getCacheStats().getEvictions());
+        assertEquals(20, storage.getCachedBytes());
+    }
+
+    @Test
+    void testTrackLargerThanCacheIsNotCached() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 5, 0.5, Runnable::run);
+
+        storage.open("a.mp3");
+        storage.open("a.mp3");
+
+        assertEquals(2, delegate.reads);
+        assertEquals(0, storage.getCachedTracks());
+    }
+
+    @Test
+    void testInvalidate() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 100, 0.5, Runnable::run);
+        storage.open("a.mp3");
+
+        storage.invalidate("a.mp3");
+
+        assertFalse(storage.contains("a.mp3"));
+        assertEquals(0, storage.getCachedBytes());
+    }
+
+    @Test
+    void testMetricsReadCacheStats() throws IOException {
+        CachingSongStorage storage = new CachingSongStorage(delegate, 100, 0.5, Runnable::run);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SongStorageMetrics(storage).bindTo(registry);
+
+        storage.open("a.mp3");
+        storage.open("a.mp3");
+        storage.open("a.mp3");
+
+        assertEquals(2, registry.get("songs.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("songs.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(10, registry.get("songs.cache.size").gauge().value());
+    }
+
+    private static class InMemorySongStorage implements SongStorage {
+
+        private final Map<String, String> files = new HashMap<>();
+        private final StorageReadStats readStats = new StorageReadStats();
+        private int reads;
+
+        @Override
+        public Resource open(String songUrl) throws IOException {
+            String content = files.get(songUrl);
+            if (content == null) {
+                throw new NoSuchFileException(songUrl);
+            }
+            reads++;
+            return new ByteBufferResource(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), songUrl, 0);
+        }
+
+        @Override
+        public CompletableFuture<Void> prefetch(String songUrl) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public StorageReadStats getReadStats() {
+            return readStats;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SongStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testMappedStorageOpen() throws IOException {
+        Files.writeString(tempDir.resolve("song.mp3"), "mapped content");
+        MappedSongStorage storage = new MappedSongStorage(tempDir, executor);
+
+        Resource resource = storage.open("song.mp3");
+
+        assertInstanceOf(ByteBufferResource.class, resource);
+        assertEquals(14, resource.contentLength());
+        assertEquals("mapped content", resource.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testMappedStoragePrefetch() throws Exception {
+        Files.writeString(tempDir.resolve("song.mp3"), "mapped content");
+        MappedSongStorage storage = new MappedSongStorage(tempDir, executor);
+
+        storage.prefetch("song.mp3").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, storage.getReadStats().getReads());
+    }
+
+    @Test
+    void testShardedStorageFindsFileOutsideOfItsShard() throws IOException {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+        ShardedSongStorage storage = new ShardedSongStorage(List.of(first, second), executor);
+        Path misplaced = storage.shardOf("song.mp3") == 0 ? second : first;
+        Files.writeString(misplaced.resolve("song.mp3"), "sharded content");
+
+        Resource resource = storage.open("song.mp3");
+
+        assertTrue(resource.isFile());
+        assertEquals(misplaced.resolve("song.mp3").toFile(), resource.getFile());
+    }
+
+    @Test
+    void testOpenMissingFile() {
+        ShardedSongStorage storage = new ShardedSongStorage(List.of(tempDir), executor);
+
+        assertThrows(NoSuchFileException.class, () -> storage.open("missing.mp3"));
+        assertEquals(1, storage.getReadStats().getFailures());
+    }
+
+    @Test
+    void testOpenRejectsPathOutsideOfStorage() throws IOException {
+        Path root = Files.createDirectory(tempDir.resolve("root"));
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+        MappedSongStorage storage = new MappedSongStorage(root, executor);
+
+        assertThrows(NoSuchFileException.class, () -> storage.open("../secret.txt"));
+    }
+}
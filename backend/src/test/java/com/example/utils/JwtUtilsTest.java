@@ -0,0 +1,67 @@
+package com.example.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+    private static final String OTHER_SECRET = "0F4FCE86695FA0076BA9E0A894A53140B6E5061FADAD40CCAEBDD0F4B3EB3DEE";
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET);
+
+    @Test
+    void testExtractAllClaims() {
+        String token = token(jwtUtils, null);
+
+        Claims claims = jwtUtils.extractAllClaims(token);
+
+        assertEquals("user@example.com", claims.getSubject());
+        assertEquals("user@example.com", jwtUtils.extractEmail(token));
+    }
+
+    @Test
+    void testExtractAllClaimsCachesVerifiedToken() {
+        String token = token(jwtUtils, null);
+
+        assertSame(jwtUtils.extractAllClaims(token), jwtUtils.extractAllClaims(token));
+    }
+
+    @Test
+    void testExtractAllClaimsWithoutCache() {
+        JwtUtils uncached = new JwtUtils(SECRET, 0);
+        String token = token(uncached, null);
+
+        assertNotSame(uncached.extractAllClaims(token), uncached.extractAllClaims(token));
+    }
+
+    @Test
+    void testExtractAllClaimsRejectsForeignSignature() {
+        String token = token(new JwtUtils(OTHER_SECRET), null);
+
+        assertThrows(SignatureException.class, () -> jwtUtils.extractAllClaims(token));
+    }
+
+    @Test
+    void testExtractAllClaimsRejectsExpiredToken() {
+        String token = token(jwtUtils, new Date(System.currentTimeMillis() - 1000));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.extractAllClaims(token));
+    }
+
+    private static String token(JwtUtils signer, Date expiration) {
+        return Jwts.builder()
+                .setSubject("user@example.com")
+                .setExpiration(expiration)
+                .signWith(signer.getSignInKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.utils;
+
+import com.example.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void testEncodeDecode() {
+        String cursor = PageCursor.encode(123456789L);
+
+        assertEquals(123456789L, PageCursor.decode(cursor));
+        assertFalse(cursor.contains("123456789"));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("%%%"));
+    }
+
+    @Test
+    void testDecodeRejectsForeignCursor() {
+        String cursor = Base64.getUrlEncoder().encodeToString("v2:42".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode(cursor));
+    }
+
+    @Test
+    void testDecodeRejectsNonNumericId() {
+        String cursor = Base64.getUrlEncoder().encodeToString("v1:abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode(cursor));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceRangeWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResourceRangeWriter writer = new ResourceRangeWriter(meterRegistry);
+
+    @TempDir
+    Path tempDir;
+
+    private Resource resource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = tempDir.resolve("song.mp3");
+        Files.writeString(file, "0123456789");
+        resource = new FileSystemResource(file);
+    }
+
+    @Test
+    void testWriteFullContent() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void testWriteRecordsSentBytes() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, new MockHttpServletResponse());
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, new MockHttpServletRequest("GET", "/songs/1"),
+                new MockHttpServletResponse());
+
+        assertEquals(14, meterRegistry.get("songs.stream.bytes").counter().count());
+        assertEquals(0, meterRegistry.get("songs.streams.active").gauge().value());
+    }
+
+    @Test
+    void testWriteSingleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void testWriteSuffixRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    void testWriteUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testWriteIgnoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void testWriteAppliesRangeWhenIfRangeMatches() throws IOException {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, new MockHttpServletRequest("GET", "/songs/1"), first);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, "bytes=8-");
+        request.addHeader(HttpHeaders.IF_RANGE, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(resource, MediaType.APPLICATION_OCTET_STREAM, request, response);
+
+        assertNotNull(etag);
+        assertEquals(206, response.getStatus());
+        assertEquals("89", response.getContentAsString());
+    }
+
+    @Test
+    void testIsFromStart() {
+        assertTrue(ResourceRangeWriter.isFromStart(new MockHttpServletRequest("GET", "/songs/1")));
+        assertTrue(ResourceRangeWriter.isFromStart(rangeRequest("bytes=0-")));
+        assertTrue(ResourceRangeWriter.isFromStart(rangeRequest("bytes=0-1023")));
+        assertFalse(ResourceRangeWriter.isFromStart(rangeRequest("bytes=1024-")));
+        assertFalse(ResourceRangeWriter.isFromStart(rangeRequest("bytes=-500")));
+        assertFalse(ResourceRangeWriter.isFromStart(rangeRequest("bytes=0-10,20-30")));
+        assertFalse(ResourceRangeWriter.isFromStart(rangeRequest("invalid")));
+    }
+
+    private static MockHttpServletRequest rangeRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/songs/1");
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+}